@@ -0,0 +1,278 @@
+/*
+ * Copyright (c) 2024, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.formula.maven;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import jp.mydns.projectk.formula.FormulaParseException;
+import jp.mydns.projectk.formula.Function;
+import jp.mydns.projectk.formula.catalog.FormulaCatalog;
+import jp.mydns.projectk.formula.generator.JavaSourceGenerator;
+import jp.mydns.projectk.formula.parser.Parser;
+import org.apache.maven.artifact.DependencyResolutionRequiredException;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * Goal that precompiles the formula definition files into Java source code. The files are read as same as
+ * {@link FormulaCatalog}, each formula is validated by the {@link Parser} and generated as a class by the
+ * {@link JavaSourceGenerator}, and the index class that gets the formula by name is generated too. The output
+ * directory is added to the compile source roots, so the classes are compiled into the application jar. The Java
+ * source files in the package directory that are not generated any more are deleted. The application must depend on
+ * {@code k-formula-mechanism} at runtime.
+ *
+ * @author riru
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+@Mojo(name = "generate", defaultPhase = LifecyclePhase.GENERATE_SOURCES,
+        requiresDependencyResolution = ResolutionScope.COMPILE, threadSafe = true)
+public class GenerateMojo extends AbstractMojo {
+
+    @Parameter(defaultValue = "${project}", readonly = true, required = true)
+    private MavenProject project;
+
+    /**
+     * The formula definition file, or the directory that contains them.
+     */
+    @Parameter(defaultValue = "${project.basedir}/src/main/formulas", required = true)
+    private File sourceDirectory;
+
+    /**
+     * The directory of the generated source code.
+     */
+    @Parameter(defaultValue = "${project.build.directory}/generated-sources/formulas", required = true)
+    private File outputDirectory;
+
+    /**
+     * Package name of the generated classes.
+     */
+    @Parameter(required = true)
+    private String packageName;
+
+    /**
+     * Simple name of the generated index class.
+     */
+    @Parameter(defaultValue = "Formulas", required = true)
+    private String indexClassName;
+
+    /**
+     * Class names of the external functions by function name. Each class must be public and have a public
+     * constructor without parameters, and it is loaded from the compile classpath of the project.
+     */
+    @Parameter
+    private Map<String, String> functions = new HashMap<>();
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws MojoExecutionException if an I/O error occurs, or an external function cannot be loaded or its name
+     * duplicates another one ignoring case
+     * @throws MojoFailureException if a formula is invalid or cannot be precompiled
+     * @since 1.0.0
+     */
+    @Override
+    public void execute() throws MojoExecutionException, MojoFailureException {
+
+        if (!sourceDirectory.exists()) {
+            getLog().info("No formula definitions. [%s]".formatted(sourceDirectory));
+            return;
+        }
+
+        try (URLClassLoader loader = new URLClassLoader(classpath(), getClass().getClassLoader())) {
+
+            Parser parser;
+
+            try {
+                parser = new Parser(externals(loader));
+            } catch (IllegalArgumentException ex) {
+                throw new MojoExecutionException(ex.getMessage(), ex);
+            }
+
+            Path directory = outputDirectory.toPath().resolve(packageName.replace('.', File.separatorChar));
+            int count = generate(parser, sourceDirectory.toPath(), directory, packageName, indexClassName);
+
+            getLog().info("Precompiled %d formulas. [%s]".formatted(count, directory));
+
+        } catch (IOException ex) {
+            throw new MojoExecutionException("Failed to precompile formulas. [%s]".formatted(sourceDirectory), ex);
+        }
+
+        project.addCompileSourceRoot(outputDirectory.getPath());
+
+    }
+
+    /**
+     * Generate the classes of the formulas and the index class into the package directory. The Java source files in
+     * the package directory that were not generated this time are deleted, so the classes of removed or renamed
+     * formulas are not compiled any more.
+     *
+     * @param parser the {@code Parser}
+     * @param source the formula definition file, or the directory that contains them
+     * @param directory the package directory of the generated source code
+     * @param packageName package name of the generated classes
+     * @param indexClassName simple name of the generated index class
+     * @return number of the generated formula classes
+     * @throws IOException if an I/O error occurs
+     * @throws MojoFailureException if a formula is invalid or cannot be precompiled, or the class names of the
+     * formulas collide ignoring case
+     * @since 1.0.0
+     */
+    static int generate(Parser parser, Path source, Path directory, String packageName, String indexClassName)
+            throws IOException, MojoFailureException {
+
+        FormulaCatalog catalog = FormulaCatalog.index(source, parser);
+        JavaSourceGenerator generator = new JavaSourceGenerator(packageName, parser);
+
+        Files.createDirectories(directory);
+
+        Map<String, String> classNames = new TreeMap<>();
+        Map<String, String> owners = new HashMap<>();
+        Map<String, String> sources = new LinkedHashMap<>();
+
+        owners.put(indexClassName.toLowerCase(Locale.ROOT), indexClassName);
+
+        for (String name : new TreeSet<>(catalog.getNames())) {
+
+            String className = JavaSourceGenerator.classNameOf(name);
+
+            // Note: The class names are compared ignoring case, because the file system may ignore case.
+            String owner = owners.putIfAbsent(className.toLowerCase(Locale.ROOT), name);
+
+            if (owner != null) {
+                throw new MojoFailureException("Duplicate class name. [%s] [%s] [%s]"
+                        .formatted(className, owner, name));
+            }
+
+            try {
+                sources.put(className + ".java", generator.generate(className, name, catalog.getText(name)));
+            } catch (FormulaParseException | IllegalArgumentException ex) {
+                throw new MojoFailureException("Invalid formula. [%s] %s".formatted(name, ex.getMessage()), ex);
+            }
+
+            classNames.put(name, className);
+
+        }
+
+        sources.put(indexClassName + ".java", generator.generateIndex(indexClassName, classNames));
+
+        // Note: Nothing is written until all formulas are valid, so a failed build leaves the previous output intact.
+        for (Map.Entry<String, String> e : sources.entrySet()) {
+            Files.writeString(directory.resolve(e.getKey()), e.getValue(), UTF_8);
+        }
+
+        deleteStale(directory, sources.keySet());
+
+        return classNames.size();
+
+    }
+
+    private static void deleteStale(Path directory, Set<String> fileNames) throws IOException {
+
+        List<Path> stales;
+
+        try (Stream<Path> files = Files.list(directory)) {
+            stales = files.filter(Files::isRegularFile)
+                    .filter(f -> f.getFileName().toString().endsWith(".java"))
+                    .filter(f -> !fileNames.contains(f.getFileName().toString()))
+                    .toList();
+        }
+
+        for (Path stale : stales) {
+            Files.delete(stale);
+        }
+
+    }
+
+    private URL[] classpath() throws MojoExecutionException {
+
+        List<URL> urls = new ArrayList<>();
+
+        try {
+            for (String element : project.getCompileClasspathElements()) {
+                urls.add(new File(element).toURI().toURL());
+            }
+        } catch (DependencyResolutionRequiredException | MalformedURLException ex) {
+            throw new MojoExecutionException("Failed to resolve the compile classpath.", ex);
+        }
+
+        return urls.toArray(URL[]::new);
+
+    }
+
+    private Map<String, Supplier<? extends Function>> externals(ClassLoader loader) throws MojoExecutionException {
+
+        Map<String, Supplier<? extends Function>> externals = new HashMap<>();
+
+        for (Map.Entry<String, String> e : functions.entrySet()) {
+
+            Constructor<? extends Function> constructor;
+
+            try {
+                constructor = loader.loadClass(e.getValue()).asSubclass(Function.class).getConstructor();
+            } catch (ReflectiveOperationException | ClassCastException ex) {
+                throw new MojoExecutionException("Invalid function class. [%s] [%s]"
+                        .formatted(e.getKey(), e.getValue()), ex);
+            }
+
+            externals.put(e.getKey(), () -> {
+                try {
+                    return constructor.newInstance();
+                } catch (ReflectiveOperationException ex) {
+                    throw new IllegalStateException("Cannot instantiate function. [%s]".formatted(e.getValue()), ex);
+                }
+            });
+
+        }
+
+        return externals;
+
+    }
+}
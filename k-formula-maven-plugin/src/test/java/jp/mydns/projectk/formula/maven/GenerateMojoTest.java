@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2024, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.formula.maven;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import jp.mydns.projectk.formula.parser.Parser;
+import org.apache.maven.plugin.MojoFailureException;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test of class GenerateMojo.
+ *
+ * @author riru
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+class GenerateMojoTest {
+
+    private final Parser parser = new Parser(Map.of());
+
+    /**
+     * Test of generate method. The classes of the removed formulas are deleted.
+     *
+     * @throws Exception if an error occurs
+     * @since 1.0.0
+     */
+    @Test
+    void testGenerate_StaleDeleted() throws Exception {
+
+        Path dir = Files.createTempDirectory("generate");
+
+        try {
+
+            Path source = dir.resolve("formulas.tsv");
+            Files.writeString(source, "greeting\t`Hello ` & [name]\nlabel\t[code]\n");
+            Path output = dir.resolve("out");
+
+            assertThat(GenerateMojo.generate(parser, source, output, "com.example", "Formulas")).isEqualTo(2);
+            assertThat(namesOf(output)).containsExactlyInAnyOrder("Greeting.java", "Label.java", "Formulas.java");
+
+            Files.writeString(output.resolve("notes.txt"), "kept");
+            Files.writeString(source, "greeting\t`Hi ` & [name]\n");
+
+            assertThat(GenerateMojo.generate(parser, source, output, "com.example", "Formulas")).isEqualTo(1);
+            assertThat(namesOf(output)).containsExactlyInAnyOrder("Greeting.java", "Formulas.java", "notes.txt");
+            assertThat(Files.readString(output.resolve("Formulas.java"))).doesNotContain("Label");
+
+        } finally {
+            delete(dir);
+        }
+    }
+
+    /**
+     * Test of generate method. The class names that collide ignoring case are rejected, and the previous output is
+     * left as is.
+     *
+     * @throws Exception if an error occurs
+     * @since 1.0.0
+     */
+    @Test
+    void testGenerate_DuplicateClassName() throws Exception {
+
+        Path dir = Files.createTempDirectory("generate");
+
+        try {
+
+            Path source = Files.writeString(dir.resolve("formulas.tsv"), "order-total\t[a]\n");
+            Path output = dir.resolve("out");
+
+            GenerateMojo.generate(parser, source, output, "com.example", "Formulas");
+
+            Files.writeString(source, "order-total\t[a]\norder total\t[b]\n");
+
+            assertThatThrownBy(() -> GenerateMojo.generate(parser, source, output, "com.example", "Formulas"))
+                    .isInstanceOf(MojoFailureException.class)
+                    .hasMessage("Duplicate class name. [OrderTotal] [order total] [order-total]");
+            assertThat(namesOf(output)).containsExactlyInAnyOrder("OrderTotal.java", "Formulas.java");
+
+            Files.writeString(source, "formulas\t[a]\n");
+
+            assertThatThrownBy(() -> GenerateMojo.generate(parser, source, output, "com.example", "Formulas"))
+                    .isInstanceOf(MojoFailureException.class)
+                    .hasMessage("Duplicate class name. [Formulas] [Formulas] [formulas]");
+
+        } finally {
+            delete(dir);
+        }
+    }
+
+    private List<String> namesOf(Path dir) throws IOException {
+
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.map(f -> f.getFileName().toString()).toList();
+        }
+
+    }
+
+    private void delete(Path dir) throws IOException {
+
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+
+    }
+}
@@ -26,6 +26,7 @@
 package jp.mydns.projectk.formula;
 
 import java.util.Map;
+import java.util.Objects;
 
 /**
  * Represents a parsed formula. Can get the result of formula calculation using input.
@@ -56,4 +57,19 @@ public interface Formula {
      * @since 1.0.0
      */
     String calculate(Map<String, String> inputs);
+
+    /**
+     * Specialize this formula with the known input values. The result is an equivalent formula for the input values
+     * that contain {@code knownInputs}, and it may be smaller than this. Default is this formula itself.
+     *
+     * @param knownInputs input values known in advance. A {@code null} value means that the input value is known as
+     * {@code null}.
+     * @return specialized formula
+     * @throws NullPointerException if {@code knownInputs} is {@code null}
+     * @since 1.0.0
+     */
+    default Formula specialize(Map<String, String> knownInputs) {
+        Objects.requireNonNull(knownInputs);
+        return this;
+    }
 }
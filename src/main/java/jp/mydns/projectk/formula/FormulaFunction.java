@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2024, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.formula;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares a class as a formula function with the name used in the formula text. The annotated classes are collected
+ * at compile time by {@code jp.mydns.projectk.formula.processor.FormulaFunctionProcessor} into a generated registry
+ * class, so the functions can be registered to a {@code Parser} without instantiating them or using reflection.
+ * <p>
+ * The annotated class must be a public concrete class that implements {@link Function} and has a public constructor
+ * without parameters. The function names are case-insensitive, and a name that duplicates another one is a compile
+ * error. The processor is not discovered from the classpath, so it must be configured as an annotation processor of
+ * the compiler explicitly.
+ * <p>
+ * <b>Example</b>
+ * <pre>
+ * &#64;FormulaFunction("TzCnv")
+ * public class TzCnv extends AbstractFunction { ... }
+ *
+ * Parser parser = new Parser(FormulaFunctions.SUPPLIERS);
+ * </pre>
+ *
+ * @author riru
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+@Documented
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface FormulaFunction {
+
+    /**
+     * Function name.
+     *
+     * @return the function name
+     * @since 1.0.0
+     */
+    String value();
+}
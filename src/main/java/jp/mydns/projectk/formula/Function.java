@@ -30,6 +30,8 @@ import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.time.format.ResolverStyle;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 /**
  * Formula function interface.
@@ -59,6 +61,53 @@ public interface Function {
      */
     String execute(Argument... args);
 
+    /**
+     * Specialize this function with the literal arguments. It is called at parse time with the arguments that are
+     * literals, and the returned function is used instead of this. So a function can pre-compute what depends only on
+     * the literal arguments, and return an instance that bound it.
+     * <p>
+     * The returned function must accept the same arguments as this, including the literal ones, and must return the
+     * same result as this. Default is this function itself.
+     *
+     * @param literals literal argument values by argument index. The arguments that are not literal are not contained.
+     * @return specialized function
+     * @throws NullPointerException if {@code literals} is {@code null}
+     * @throws FormulaParseException if a literal argument is invalid
+     * @since 1.0.0
+     */
+    default Function specialize(Map<Integer, String> literals) {
+        Objects.requireNonNull(literals);
+        return this;
+    }
+
+    /**
+     * Specialize this function with the literal arguments and the number of arguments. It is called at parse time
+     * instead of {@link #specialize(Map)}, so override it when the specialization depends on the position of the
+     * arguments from the end. Default is {@code specialize(literals)}.
+     *
+     * @param literals literal argument values by argument index. The arguments that are not literal are not contained.
+     * @param argumentCount number of arguments including the non literal ones
+     * @return specialized function
+     * @throws NullPointerException if {@code literals} is {@code null}
+     * @throws FormulaParseException if a literal argument is invalid
+     * @since 1.0.0
+     */
+    default Function specialize(Map<Integer, String> literals, int argumentCount) {
+        return specialize(literals);
+    }
+
+    /**
+     * Whether this function is deterministic. A deterministic function always returns the same result for the same
+     * argument values and has no side effects, so its result may be calculated ahead of time when all of the arguments
+     * are known.
+     *
+     * @return {@code true} if deterministic. Default is {@code false}.
+     * @since 1.0.0
+     */
+    default boolean isDeterministic() {
+        return false;
+    }
+
     /**
      * Wrapper for an argument value of formula function.
      *
@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2024, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.formula.catalog;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import jp.mydns.projectk.formula.Element;
+import jp.mydns.projectk.formula.Formula;
+import jp.mydns.projectk.formula.impl.FormulaImpl;
+import jp.mydns.projectk.formula.impl.FunctionElement;
+import jp.mydns.projectk.formula.impl.InputElement;
+
+/**
+ * Index from names of input value to the names of formula that read it. It is built by collecting the
+ * {@link InputElement} in each formula tree.
+ * <p>
+ * A formula whose tree cannot be inspected, that is a formula not built by the {@code Parser}, is treated as reading
+ * all of the input values.
+ *
+ * @author riru
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public class DependencyIndex {
+
+    private final Map<String, Set<String>> readers;
+    private final Map<String, Set<String>> inputsOfFormula;
+    private final Set<String> opaqueFormulas;
+
+    /**
+     * Constructor.
+     *
+     * @param formulas formulas by name
+     * @throws NullPointerException if {@code formulas} is {@code null} or if it contains {@code null}
+     * @since 1.0.0
+     */
+    public DependencyIndex(Map<String, Formula> formulas) {
+
+        Map<String, Set<String>> readersByInput = new HashMap<>();
+        Map<String, Set<String>> inputsByFormula = new HashMap<>();
+        Set<String> opaques = new TreeSet<>();
+
+        Map.copyOf(formulas).forEach((name, formula) -> {
+
+            Optional<Set<String>> inputs = collectInputNames(formula);
+
+            if (inputs.isEmpty()) {
+                opaques.add(name);
+                return;
+            }
+
+            inputsByFormula.put(name, Set.copyOf(inputs.get()));
+            inputs.get().forEach(i -> readersByInput.computeIfAbsent(i, k -> new TreeSet<>()).add(name));
+
+        });
+
+        this.readers = copyOf(readersByInput);
+        this.inputsOfFormula = Map.copyOf(inputsByFormula);
+        this.opaqueFormulas = Set.copyOf(opaques);
+
+    }
+
+    /**
+     * Collect the names of input value that read by the formula.
+     *
+     * @param formula the {@code Formula}
+     * @return names of input value. Empty if the formula tree cannot be inspected.
+     * @throws NullPointerException if {@code formula} is {@code null}
+     * @since 1.0.0
+     */
+    public static Optional<Set<String>> collectInputNames(Formula formula) {
+        Set<String> names = new HashSet<>();
+        return collectInputNames(Objects.requireNonNull(formula), names) ? Optional.of(names) : Optional.empty();
+    }
+
+    private static boolean collectInputNames(Formula formula, Set<String> names) {
+
+        if (!(formula instanceof FormulaImpl f)) {
+            return false;
+        }
+
+        for (Element e : f.getElements()) {
+
+            if (e instanceof InputElement i) {
+                names.add(i.getName());
+            } else if (e instanceof FunctionElement fe) {
+                for (Formula arg : fe.getArgs()) {
+                    if (!collectInputNames(arg, names)) {
+                        return false;
+                    }
+                }
+            }
+        }
+
+        return true;
+
+    }
+
+    /**
+     * Get the names of formula affected by changing the input values.
+     *
+     * @param changedInputs names of changed input value
+     * @return names of affected formula
+     * @throws NullPointerException if {@code changedInputs} is {@code null} or if it contains {@code null}
+     * @since 1.0.0
+     */
+    public Set<String> getAffectedFormulas(Collection<String> changedInputs) {
+
+        Set<String> affected = new TreeSet<>(opaqueFormulas);
+
+        Set.copyOf(changedInputs).stream().map(readers::get).filter(Objects::nonNull).forEach(affected::addAll);
+
+        return affected;
+
+    }
+
+    /**
+     * Get the names of input value that read by the formula.
+     *
+     * @param formulaName name of formula
+     * @return names of input value. Empty if unknown formula name, or if the formula tree cannot be inspected.
+     * @throws NullPointerException if {@code formulaName} is {@code null}
+     * @since 1.0.0
+     */
+    public Optional<Set<String>> getInputNames(String formulaName) {
+        return Optional.ofNullable(inputsOfFormula.get(Objects.requireNonNull(formulaName)));
+    }
+
+    private static Map<String, Set<String>> copyOf(Map<String, Set<String>> map) {
+        Map<String, Set<String>> copy = new HashMap<>();
+        map.forEach((k, v) -> copy.put(k, Set.copyOf(v)));
+        return Map.copyOf(copy);
+    }
+
+    /**
+     * Returns a string representation of this.
+     *
+     * @return a string representation
+     * @since 1.0.0
+     */
+    @Override
+    public String toString() {
+        return "DependencyIndex{" + "readers=" + readers + ", opaqueFormulas=" + opaqueFormulas + '}';
+    }
+}
@@ -0,0 +1,363 @@
+/*
+ * Copyright (c) 2024, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.formula.catalog;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Stream;
+import jp.mydns.projectk.formula.Formula;
+import jp.mydns.projectk.formula.FormulaParseException;
+import jp.mydns.projectk.formula.parser.Parser;
+
+/**
+ * Catalog of the named formulas that loaded from the formula definition files. Each line of the file consists of the
+ * name of formula and the formula text separated by a tab. Empty lines and the lines beginning with {@code #} are
+ * ignored. The files are read as UTF-8.
+ * <p>
+ * Loading the files only reads their bytes and indexes the names and the offsets of the formula texts. A formula is
+ * parsed on the first {@link #get(String)}, so a process pays nothing for the formulas that it never calculates.
+ * {@link #compileAll()} parses all of the formulas in parallel across the cores instead. All formulas are parsed by
+ * one {@link Parser}, which is immutable and shared among the threads.
+ * <p>
+ * This class is thread-safe.
+ *
+ * @author riru
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public final class FormulaCatalog {
+
+    private final Map<String, Entry> entries;
+
+    private FormulaCatalog(Map<String, Entry> entries) {
+        this.entries = entries;
+    }
+
+    /**
+     * Load the formula definitions and parse all of them in parallel.
+     *
+     * @param path path of the formula definition file, or the directory that contains them. All regular files in the
+     * directory are read, and the subdirectories are not.
+     * @param parser the parser that parses the formulas
+     * @return the {@code FormulaCatalog}
+     * @throws NullPointerException if any argument is {@code null}
+     * @throws IOException if an I/O error occurs, a file contains an invalid line, or a name is duplicated
+     * @throws FormulaParseException if a formula is invalid
+     * @since 1.0.0
+     */
+    public static FormulaCatalog load(Path path, Parser parser) throws IOException {
+
+        FormulaCatalog catalog = index(path, parser);
+        catalog.compileAll();
+
+        return catalog;
+
+    }
+
+    /**
+     * Index the formula definitions. No formula is parsed until it is got.
+     *
+     * @param path path of the formula definition file, or the directory that contains them. All regular files in the
+     * directory are read, and the subdirectories are not.
+     * @param parser the parser that parses the formulas
+     * @return the {@code FormulaCatalog}
+     * @throws NullPointerException if any argument is {@code null}
+     * @throws IOException if an I/O error occurs, a file contains an invalid line, or a name is duplicated
+     * @since 1.0.0
+     */
+    public static FormulaCatalog index(Path path, Parser parser) throws IOException {
+
+        Objects.requireNonNull(path);
+        Objects.requireNonNull(parser);
+
+        Map<String, Entry> entries = new HashMap<>();
+
+        for (Path file : filesOf(path)) {
+            indexFile(file, parser, entries);
+        }
+
+        return new FormulaCatalog(Map.copyOf(entries));
+
+    }
+
+    private static List<Path> filesOf(Path path) throws IOException {
+
+        if (!Files.isDirectory(path)) {
+            return List.of(path);
+        }
+
+        try (Stream<Path> files = Files.list(path)) {
+            return files.filter(Files::isRegularFile).sorted().toList();
+        }
+    }
+
+    private static void indexFile(Path file, Parser parser, Map<String, Entry> entries) throws IOException {
+
+        if (Files.size(file) > Integer.MAX_VALUE - 8) {
+            throw new IOException("Too large formula definition file. [%s]".formatted(file));
+        }
+
+        // Note: The file is read rather than mapped. The definition files may be rewritten while the catalog is
+        //       used, see ReloadableFormulaCatalog, and reading a mapping of a truncated file faults.
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+
+        int lineNumber = 0;
+        int start = 0;
+
+        while (start < buffer.limit()) {
+
+            lineNumber++;
+
+            int end = start;
+
+            while (end < buffer.limit() && buffer.get(end) != '\n') {
+                end++;
+            }
+
+            int next = end + 1;
+
+            if (end > start && buffer.get(end - 1) == '\r') {
+                end--;
+            }
+
+            if (end > start && buffer.get(start) != '#') {
+
+                int tab = start;
+
+                while (tab < end && buffer.get(tab) != '\t') {
+                    tab++;
+                }
+
+                if (tab == end) {
+                    throw new IOException("Invalid formula definition line. [%s:%d]".formatted(file, lineNumber));
+                }
+
+                String name = decode(buffer, start, tab - start);
+
+                if (entries.putIfAbsent(name, new Entry(name, parser, buffer, tab + 1, end - tab - 1)) != null) {
+                    throw new IOException("Duplicate formula name. [%s:%d]".formatted(file, lineNumber));
+                }
+            }
+
+            start = next;
+
+        }
+    }
+
+    private static String decode(ByteBuffer buffer, int offset, int length) {
+
+        byte[] bytes = new byte[length];
+        buffer.get(offset, bytes);
+
+        return new String(bytes, UTF_8);
+
+    }
+
+    /**
+     * Get the formula. It is parsed on the first call, and the same instance is returned afterwards.
+     *
+     * @param name name of the formula
+     * @return the formula. It is {@code null} if absent.
+     * @throws NullPointerException if {@code name} is {@code null}
+     * @throws FormulaParseException if the formula is invalid
+     * @since 1.0.0
+     */
+    public Formula get(String name) {
+
+        Entry entry = entries.get(Objects.requireNonNull(name));
+
+        return entry == null ? null : entry.compile();
+
+    }
+
+    /**
+     * Get the formula text.
+     *
+     * @param name name of the formula
+     * @return the formula text. It is {@code null} if absent.
+     * @throws NullPointerException if {@code name} is {@code null}
+     * @since 1.0.0
+     */
+    public String getText(String name) {
+
+        Entry entry = entries.get(Objects.requireNonNull(name));
+
+        return entry == null ? null : entry.getText();
+
+    }
+
+    /**
+     * Parse all of the formulas that are not parsed yet, in parallel across the cores.
+     *
+     * @throws FormulaParseException if a formula is invalid
+     * @since 1.0.0
+     */
+    public void compileAll() {
+        compile(entries.keySet());
+    }
+
+    /**
+     * Parse the formulas in parallel across the cores.
+     *
+     * @param names names of the formulas. The absent names are ignored.
+     * @throws FormulaParseException if a formula is invalid
+     */
+    void compile(Collection<String> names) {
+        new ArrayList<>(names).parallelStream().map(entries::get).filter(Objects::nonNull).forEach(Entry::compile);
+    }
+
+    /**
+     * Take over the parsed formulas from the previous catalog whose text is not changed.
+     *
+     * @param previous the previous catalog
+     * @return names of the formulas that are added or whose text is changed
+     */
+    Set<String> inherit(FormulaCatalog previous) {
+
+        Set<String> changed = new HashSet<>();
+
+        entries.forEach((name, entry) -> {
+
+            Entry old = previous.entries.get(name);
+
+            if (old != null && old.hasSameText(entry)) {
+                entry.formula = old.formula;
+            } else {
+                changed.add(name);
+            }
+
+        });
+
+        return changed;
+
+    }
+
+    /**
+     * Test whether the formula has been parsed.
+     *
+     * @param name name of the formula
+     * @return {@code true} if the formula has been parsed
+     * @throws NullPointerException if {@code name} is {@code null}
+     * @since 1.0.0
+     */
+    public boolean isCompiled(String name) {
+
+        Entry entry = entries.get(Objects.requireNonNull(name));
+
+        return entry != null && entry.formula != null;
+
+    }
+
+    /**
+     * Get the names of the formulas.
+     *
+     * @return unmodifiable set of the names
+     * @since 1.0.0
+     */
+    public Set<String> getNames() {
+        return entries.keySet();
+    }
+
+    /**
+     * Get the number of formulas.
+     *
+     * @return number of formulas
+     * @since 1.0.0
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns a string representation of this.
+     *
+     * @return a string representation
+     * @since 1.0.0
+     */
+    @Override
+    public String toString() {
+        return "FormulaCatalog{" + "size=" + entries.size() + '}';
+    }
+
+    private static class Entry {
+
+        private final String name;
+        private final Parser parser;
+        private final ByteBuffer source;
+        private final int offset;
+        private final int length;
+        private volatile Formula formula;
+
+        Entry(String name, Parser parser, ByteBuffer source, int offset, int length) {
+            this.name = name;
+            this.parser = parser;
+            this.source = source;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        String getText() {
+            return decode(source, offset, length);
+        }
+
+        boolean hasSameText(Entry other) {
+            return source.slice(offset, length).equals(other.source.slice(other.offset, other.length));
+        }
+
+        Formula compile() {
+
+            Formula parsed = formula;
+
+            if (parsed != null) {
+                return parsed;
+            }
+
+            // Note: Two threads may parse the same text at the same time. Both results are same, so the last one is
+            //       kept without locking.
+            try {
+                parsed = parser.parse(getText());
+            } catch (FormulaParseException ex) {
+                throw new FormulaParseException("[%s] %s".formatted(name, ex.getMessage()));
+            }
+
+            formula = parsed;
+
+            return parsed;
+
+        }
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2024, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.formula.catalog;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import jp.mydns.projectk.formula.Formula;
+import jp.mydns.projectk.formula.FormulaExecutionException;
+
+/**
+ * Evaluator that keeps the results of named formulas for a live record, and recalculates only the formulas affected
+ * by the changed input values, like a recalculation of spreadsheet. The results of other formulas are reused.
+ * <p>
+ * A formula that failed to calculate at construction, for example because it requires an input value that is not given
+ * yet, has no result and is pending. The pending formulas are retried at every update, until they are calculated.
+ * <p>
+ * This is not thread-safe. Use one instance for each record.
+ *
+ * @author riru
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public class IncrementalEvaluator {
+
+    private final Map<String, Formula> formulas;
+    private final DependencyIndex index;
+    private final Map<String, String> inputs = new HashMap<>();
+    private final Map<String, String> results = new HashMap<>();
+    private final Set<String> pendings = new HashSet<>();
+
+    /**
+     * Constructor. All of the formulas are calculated with empty input values at first.
+     *
+     * @param formulas formulas by name
+     * @throws NullPointerException if {@code formulas} is {@code null} or if it contains {@code null}
+     * @since 1.0.0
+     */
+    public IncrementalEvaluator(Map<String, Formula> formulas) {
+        this(formulas, Map.of());
+    }
+
+    /**
+     * Constructor. All of the formulas are calculated with the initial input values at first. The formulas that failed
+     * to calculate are pending.
+     *
+     * @param formulas formulas by name
+     * @param inputs initial input values
+     * @throws NullPointerException if any argument is {@code null} or if it contains {@code null}
+     * @since 1.0.0
+     */
+    public IncrementalEvaluator(Map<String, Formula> formulas, Map<String, String> inputs) {
+
+        this.formulas = Map.copyOf(formulas);
+        this.index = new DependencyIndex(this.formulas);
+        this.inputs.putAll(Map.copyOf(inputs));
+
+        this.formulas.forEach((n, f) -> {
+            try {
+                results.put(n, f.calculate(this.inputs));
+            } catch (FormulaExecutionException ex) {
+                pendings.add(n);
+            }
+        });
+
+    }
+
+    /**
+     * Apply the changed input values and recalculate the affected formulas and the pending formulas. If an error
+     * occurred in an affected formula that is not pending, neither the input values nor the results are changed. A
+     * pending formula that fails again stays pending.
+     *
+     * @param changes changed input values. A {@code null} value means that the input value is removed.
+     * @return recalculated results by formula name, including the pending formulas that are calculated now. Values may
+     * be {@code null}.
+     * @throws NullPointerException if {@code changes} is {@code null} or if it contains {@code null} key
+     * @throws FormulaExecutionException if an error occurred while calculating an affected formula that is not pending
+     * @since 1.0.0
+     */
+    public Map<String, String> update(Map<String, String> changes) {
+
+        Map<String, String> changed = new HashMap<>();
+
+        changes.forEach((k, v) -> {
+            if (!Objects.equals(inputs.get(Objects.requireNonNull(k)), v)) {
+                changed.put(k, v);
+            }
+        });
+
+        Map<String, String> nextInputs = new HashMap<>(inputs);
+        changed.forEach((k, v) -> {
+            if (v == null) {
+                nextInputs.remove(k);
+            } else {
+                nextInputs.put(k, v);
+            }
+        });
+
+        Set<String> affected = new HashSet<>(index.getAffectedFormulas(changed.keySet()));
+        affected.removeAll(pendings);
+
+        Map<String, String> recalculated = calculate(affected, nextInputs);
+        Map<String, String> resolved = new HashMap<>();
+
+        pendings.forEach(n -> {
+            try {
+                resolved.put(n, formulas.get(n).calculate(nextInputs));
+            } catch (FormulaExecutionException ex) {
+                // Note: The formula stays pending, and will be retried at the next update.
+            }
+        });
+
+        inputs.clear();
+        inputs.putAll(nextInputs);
+        results.putAll(recalculated);
+        results.putAll(resolved);
+        pendings.removeAll(resolved.keySet());
+        recalculated.putAll(resolved);
+
+        return Collections.unmodifiableMap(recalculated);
+
+    }
+
+    /**
+     * Get the current results of all formulas.
+     *
+     * @return results by formula name. Values may be {@code null}.
+     * @since 1.0.0
+     */
+    public Map<String, String> getResults() {
+        return Collections.unmodifiableMap(new HashMap<>(results));
+    }
+
+    /**
+     * Get the names of the pending formulas, that have not been calculated successfully yet.
+     *
+     * @return names of the pending formulas
+     * @since 1.0.0
+     */
+    public Set<String> getPendingFormulas() {
+        return Set.copyOf(pendings);
+    }
+
+    /**
+     * Get the current input values.
+     *
+     * @return input values
+     * @since 1.0.0
+     */
+    public Map<String, String> getInputs() {
+        return Map.copyOf(inputs);
+    }
+
+    private Map<String, String> calculate(Set<String> names, Map<String, String> values) {
+
+        Map<String, String> calculated = new HashMap<>();
+
+        names.forEach(n -> calculated.put(n, formulas.get(n).calculate(values)));
+
+        return calculated;
+
+    }
+
+    /**
+     * Returns a string representation of this.
+     *
+     * @return a string representation
+     * @since 1.0.0
+     */
+    @Override
+    public String toString() {
+        return "IncrementalEvaluator{" + "inputs=" + inputs + ", results=" + results + ", pendings=" + pendings
+                + '}';
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2024, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.formula.catalog;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicReference;
+import jp.mydns.projectk.formula.Formula;
+import jp.mydns.projectk.formula.FormulaParseException;
+import jp.mydns.projectk.formula.parser.Parser;
+
+/**
+ * {@link FormulaCatalog} that can be reloaded in place when the formula definition files are changed. Each reload
+ * makes a new catalog, takes over the parsed formulas whose text is not changed, parses only the added and the changed
+ * formulas, and then publishes the new catalog atomically. A reload that fails publishes nothing.
+ * <p>
+ * The catalog is copy-on-write. Reading takes no lock; a caller that needs a consistent set of formulas for a series
+ * of calculations gets the {@link #getSnapshot() snapshot} once and reads from it, and a reload in the meantime does
+ * not affect it.
+ * <p>
+ * This class is thread-safe.
+ *
+ * @author riru
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public final class ReloadableFormulaCatalog {
+
+    private final Path path;
+    private final Parser parser;
+    private final AtomicReference<FormulaCatalog> current;
+
+    private ReloadableFormulaCatalog(Path path, Parser parser, FormulaCatalog catalog) {
+        this.path = path;
+        this.parser = parser;
+        this.current = new AtomicReference<>(catalog);
+    }
+
+    /**
+     * Index the formula definitions. No formula is parsed until it is got.
+     *
+     * @param path path of the formula definition file, or the directory that contains them
+     * @param parser the parser that parses the formulas
+     * @return the {@code ReloadableFormulaCatalog}
+     * @throws NullPointerException if any argument is {@code null}
+     * @throws IOException if an I/O error occurs, a file contains an invalid line, or a name is duplicated
+     * @since 1.0.0
+     * @see FormulaCatalog#index(Path, Parser)
+     */
+    public static ReloadableFormulaCatalog open(Path path, Parser parser) throws IOException {
+        return new ReloadableFormulaCatalog(path, parser, FormulaCatalog.index(path, parser));
+    }
+
+    /**
+     * Reload the formula definitions. The formulas whose text is not changed are kept as they are, and the formula
+     * that has not been parsed yet stays so.
+     *
+     * @return names of the formulas that are added, changed or removed
+     * @throws IOException if an I/O error occurs, a file contains an invalid line, or a name is duplicated
+     * @throws FormulaParseException if an added or changed formula is invalid
+     * @since 1.0.0
+     */
+    public synchronized Set<String> reload() throws IOException {
+
+        FormulaCatalog previous = current.get();
+        FormulaCatalog next = FormulaCatalog.index(path, parser);
+
+        Set<String> changed = next.inherit(previous);
+        next.compile(changed);
+
+        Set<String> differences = new TreeSet<>(changed);
+        previous.getNames().stream().filter(n -> !next.getNames().contains(n)).forEach(differences::add);
+
+        current.set(next);
+
+        return differences;
+
+    }
+
+    /**
+     * Get the current catalog. It is never changed by the later reloads.
+     *
+     * @return the {@code FormulaCatalog}
+     * @since 1.0.0
+     */
+    public FormulaCatalog getSnapshot() {
+        return current.get();
+    }
+
+    /**
+     * Get the formula from the current catalog.
+     *
+     * @param name name of the formula
+     * @return the formula. It is {@code null} if absent.
+     * @throws NullPointerException if {@code name} is {@code null}
+     * @throws FormulaParseException if the formula is invalid
+     * @since 1.0.0
+     * @see FormulaCatalog#get(String)
+     */
+    public Formula get(String name) {
+        return current.get().get(Objects.requireNonNull(name));
+    }
+
+    /**
+     * Returns a string representation of this.
+     *
+     * @return a string representation
+     * @since 1.0.0
+     */
+    @Override
+    public String toString() {
+        return "ReloadableFormulaCatalog{" + "path=" + path + ", current=" + current.get() + '}';
+    }
+}
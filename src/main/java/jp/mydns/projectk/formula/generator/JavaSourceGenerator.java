@@ -0,0 +1,596 @@
+/*
+ * Copyright (c) 2024, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.formula.generator;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+import jp.mydns.projectk.formula.Element;
+import jp.mydns.projectk.formula.Formula;
+import jp.mydns.projectk.formula.FormulaParseException;
+import jp.mydns.projectk.formula.Function;
+import jp.mydns.projectk.formula.impl.BooleanFunction;
+import jp.mydns.projectk.formula.impl.FixedValueElement;
+import jp.mydns.projectk.formula.impl.FormulaImpl;
+import jp.mydns.projectk.formula.impl.FunctionElement;
+import jp.mydns.projectk.formula.impl.InputElement;
+import jp.mydns.projectk.formula.impl.NumericFunction;
+import jp.mydns.projectk.formula.impl.TemporalFunction;
+import jp.mydns.projectk.formula.parser.Parser;
+
+/**
+ * Generator of the Java source code of the formulas. A generated class implements {@link Formula} and calculates the
+ * same result as the parsed formula without parsing it at runtime. The concatenation of the elements, the input values
+ * and the literal values are emitted as straight-line code, and each function is held in a static final field of its
+ * own class that was specialized with the literal arguments when the class is initialized. So each call site is
+ * monomorphic and visible to the JIT compiler.
+ * <p>
+ * A function can be precompiled only if its class is public and has a public constructor without parameters. The
+ * functions that depend on runtime resources, for example {@code Lookup}, cannot be precompiled.
+ * <p>
+ * This class is thread-safe.
+ *
+ * @author riru
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public final class JavaSourceGenerator {
+
+    private static final String IDENTIFIER = "\\p{javaJavaIdentifierStart}\\p{javaJavaIdentifierPart}*";
+    private static final Pattern PACKAGE_NAME = Pattern.compile(IDENTIFIER + "(\\." + IDENTIFIER + ")*");
+    private static final String GENERATED = "@javax.annotation.processing.Generated(\"%s\")"
+            .formatted(JavaSourceGenerator.class.getName());
+    private static final int BUCKET_SIZE = 256;
+    private static final String WRAPPED_MESSAGE = "Occurs unexpected exception while calculating formula.";
+
+    private final String packageName;
+    private final Parser parser;
+
+    /**
+     * Constructor.
+     *
+     * @param packageName package name of the generated classes
+     * @param parser the parser that parses the formulas
+     * @throws NullPointerException if any argument is {@code null}
+     * @throws IllegalArgumentException if {@code packageName} is invalid
+     * @since 1.0.0
+     */
+    public JavaSourceGenerator(String packageName, Parser parser) {
+
+        if (!PACKAGE_NAME.matcher(Objects.requireNonNull(packageName)).matches()) {
+            throw new IllegalArgumentException("Invalid package name. [%s]".formatted(packageName));
+        }
+
+        this.packageName = packageName;
+        this.parser = Objects.requireNonNull(parser);
+
+    }
+
+    /**
+     * Get the class name for the formula name. The characters that cannot be a part of Java identifier separate the
+     * words, and each word is capitalized. A character other than ASCII is written as {@code U} and its code point in
+     * hexadecimal, so the name of the source file does not depend on the file system encoding.
+     *
+     * @param formulaName name of the formula
+     * @return the class name
+     * @throws NullPointerException if {@code formulaName} is {@code null}
+     * @since 1.0.0
+     */
+    public static String classNameOf(String formulaName) {
+
+        StringBuilder sb = new StringBuilder();
+        boolean capital = true;
+
+        for (int c : formulaName.codePoints().toArray()) {
+
+            if (!Character.isJavaIdentifierPart(c) || Character.isIdentifierIgnorable(c)) {
+                capital = true;
+                continue;
+            }
+
+            if (c > 0x7F) {
+                sb.append('U').append(Integer.toHexString(c).toUpperCase(Locale.ROOT));
+                capital = true;
+                continue;
+            }
+
+            sb.appendCodePoint(capital ? Character.toUpperCase(c) : c);
+            capital = false;
+
+        }
+
+        if (sb.isEmpty() || !Character.isJavaIdentifierStart(sb.codePointAt(0)) || sb.toString().equals("_")) {
+            sb.insert(0, 'F');
+        }
+
+        return sb.toString();
+
+    }
+
+    /**
+     * Generate the source code of the formula class.
+     *
+     * @param className simple name of the class
+     * @param formulaName name of the formula
+     * @param text the formula text
+     * @return the source code
+     * @throws NullPointerException if any argument is {@code null}
+     * @throws FormulaParseException if the formula text is invalid
+     * @throws IllegalArgumentException if the formula contains a function that cannot be precompiled
+     * @since 1.0.0
+     */
+    public String generate(String className, String formulaName, String text) {
+
+        Objects.requireNonNull(className);
+        Objects.requireNonNull(formulaName);
+
+        Emitter emitter = new Emitter(className);
+        String root = emitter.formula(parser.parse(text));
+
+        StringBuilder sb = new StringBuilder();
+
+        sb.append("package ").append(packageName).append(";\n\n");
+        sb.append("/**\n");
+        sb.append(" * Precompiled formula. See {@link #NAME} and {@link #SOURCE}.\n");
+        sb.append(" */\n");
+        sb.append(GENERATED).append('\n');
+        sb.append("public final class ").append(className)
+                .append(" implements jp.mydns.projectk.formula.Formula {\n\n");
+        sb.append("    /**\n     * Name of the formula.\n     */\n");
+        sb.append("    public static final String NAME = ").append(literalOf(formulaName)).append(";\n\n");
+        sb.append("    /**\n     * Text of the formula.\n     */\n");
+        sb.append("    public static final String SOURCE = ").append(literalOf(text)).append(";\n\n");
+        sb.append("    /**\n     * The formula.\n     */\n");
+        sb.append("    public static final ").append(className).append(" INSTANCE = new ").append(className)
+                .append("();\n\n");
+        sb.append(emitter.fields);
+        sb.append("\n    private ").append(className).append("() {\n    }\n\n");
+        sb.append("    @Override\n");
+        sb.append("    public String calculate(java.util.Map<String, String> inputs) {\n");
+        sb.append("        return ").append(root).append("(java.util.Objects.requireNonNull(inputs));\n");
+        sb.append("    }\n");
+        sb.append(emitter.methods);
+        sb.append("\n    @Override\n");
+        sb.append("    public String toString() {\n");
+        sb.append("        return \"").append(className).append("{name=\" + NAME + '}';\n");
+        sb.append("    }\n");
+        sb.append("}\n");
+
+        return sb.toString();
+
+    }
+
+    /**
+     * Generate the source code of the index class. It gets the formula class by the formula name, and initializes only
+     * the formula class that is got.
+     *
+     * @param className simple name of the index class
+     * @param classNames simple names of the formula classes by formula name
+     * @return the source code
+     * @throws NullPointerException if any argument is {@code null}, or {@code classNames} contains {@code null}
+     * @since 1.0.0
+     */
+    public String generateIndex(String className, Map<String, String> classNames) {
+
+        Objects.requireNonNull(className);
+
+        // Note: The formulas are divided into the buckets by the hash of the name, because the code of a method must
+        //       be smaller than 64 KiB.
+        int bucketCount = Math.max(1, (classNames.size() + BUCKET_SIZE - 1) / BUCKET_SIZE);
+        List<SortedMap<String, String>> buckets = new ArrayList<>();
+
+        for (int i = 0; i < bucketCount; i++) {
+            buckets.add(new TreeMap<>());
+        }
+
+        classNames.forEach((n, c) -> buckets.get(Math.floorMod(n.hashCode(), bucketCount))
+                .put(n, Objects.requireNonNull(c)));
+
+        StringBuilder sb = new StringBuilder();
+
+        sb.append("package ").append(packageName).append(";\n\n");
+        sb.append("/**\n");
+        sb.append(" * Index of the precompiled formulas.\n");
+        sb.append(" */\n");
+        sb.append(GENERATED).append('\n');
+        sb.append("public final class ").append(className).append(" {\n\n");
+        sb.append("    /**\n     * Names of the formulas.\n     */\n");
+        sb.append("    public static final java.util.Set<String> NAMES = names();\n\n");
+        sb.append("    private ").append(className).append("() {\n    }\n\n");
+        sb.append("    /**\n");
+        sb.append("     * Get the formula.\n");
+        sb.append("     *\n");
+        sb.append("     * @param name name of the formula\n");
+        sb.append("     * @return the formula. It is {@code null} if absent.\n");
+        sb.append("     * @throws NullPointerException if {@code name} is {@code null}\n");
+        sb.append("     */\n");
+        sb.append("    public static jp.mydns.projectk.formula.Formula get(String name) {\n");
+        sb.append("        return switch (Math.floorMod(name.hashCode(), ").append(bucketCount).append(")) {\n");
+
+        for (int i = 0; i < bucketCount; i++) {
+            sb.append("            case ").append(i).append(" -> get").append(i).append("(name);\n");
+        }
+
+        sb.append("            default -> null;\n");
+        sb.append("        };\n");
+        sb.append("    }\n\n");
+        sb.append("    private static java.util.Set<String> names() {\n\n");
+        sb.append("        java.util.Set<String> names = new java.util.HashSet<>();\n\n");
+
+        for (int i = 0; i < bucketCount; i++) {
+            sb.append("        names").append(i).append("(names);\n");
+        }
+
+        sb.append("\n        return java.util.Set.copyOf(names);\n\n");
+        sb.append("    }\n");
+
+        for (int i = 0; i < bucketCount; i++) {
+
+            sb.append("\n    private static jp.mydns.projectk.formula.Formula get").append(i)
+                    .append("(String name) {\n");
+            sb.append("        return switch (name) {\n");
+            buckets.get(i).forEach((n, c) -> sb.append("            case ").append(literalOf(n)).append(" -> ")
+                    .append(c).append(".INSTANCE;\n"));
+            sb.append("            default -> null;\n");
+            sb.append("        };\n");
+            sb.append("    }\n\n");
+
+            sb.append("    private static void names").append(i).append("(java.util.Set<String> names) {\n");
+            buckets.get(i).keySet().forEach(n -> sb.append("        names.add(").append(literalOf(n)).append(");\n"));
+            sb.append("    }\n");
+
+        }
+
+        sb.append("}\n");
+
+        return sb.toString();
+
+    }
+
+    /**
+     * Get the Java string literal of the value. The characters other than the printable ASCII are escaped, so the
+     * source code does not depend on its encoding.
+     *
+     * @param value the value. It may be {@code null}.
+     * @return the Java string literal, or {@code null} literal
+     * @since 1.0.0
+     */
+    public static String literalOf(String value) {
+
+        if (value == null) {
+            return "null";
+        }
+
+        StringBuilder sb = new StringBuilder("\"");
+
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"' ->
+                    sb.append("\\\"");
+                case '\\' ->
+                    sb.append("\\\\");
+                case '\n' ->
+                    sb.append("\\n");
+                case '\r' ->
+                    sb.append("\\r");
+                case '\t' ->
+                    sb.append("\\t");
+                default -> {
+                    if (c < 0x20 || c > 0x7E) {
+                        sb.append("\\u%04X".formatted((int) c));
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+
+        return sb.append('"').toString();
+
+    }
+
+    /**
+     * Returns a string representation of this.
+     *
+     * @return a string representation
+     * @since 1.0.0
+     */
+    @Override
+    public String toString() {
+        return "JavaSourceGenerator{" + "packageName=" + packageName + '}';
+    }
+
+    private static class Emitter {
+
+        private final String className;
+        private final StringBuilder fields = new StringBuilder();
+        private final StringBuilder methods = new StringBuilder();
+        private final Map<Formula, String> formulas = new IdentityHashMap<>();
+        private final Map<FunctionElement, Integer> functions = new IdentityHashMap<>();
+        private final Map<FunctionElement, String> typedMethods = new IdentityHashMap<>();
+        private int count;
+
+        Emitter(String className) {
+            this.className = className;
+        }
+
+        String formula(Formula formula) {
+
+            String emitted = formulas.get(formula);
+
+            if (emitted != null) {
+                return emitted;
+            }
+
+            if (!(formula instanceof FormulaImpl f)) {
+                throw new IllegalArgumentException("Unknown formula. [%s]".formatted(formula.getClass().getName()));
+            }
+
+            List<String> values = f.getElements().stream().map(this::element).toList();
+            String name = "f" + count++;
+
+            StringBuilder sb = new StringBuilder();
+
+            sb.append("\n    private static String ").append(name).append("(java.util.Map<String, String> in) {\n");
+
+            if (values.isEmpty()) {
+                sb.append("        return \"\";\n");
+            } else if (values.size() == 1) {
+                sb.append("        return ").append(values.get(0)).append(";\n");
+            } else {
+
+                StringBuilder nullCheck = new StringBuilder();
+
+                for (int i = 0; i < values.size(); i++) {
+
+                    sb.append("        String v").append(i).append(" = ").append(values.get(i)).append(";\n");
+
+                    if (!isNonNullLiteral(f.getElements().get(i))) {
+                        nullCheck.append(nullCheck.isEmpty() ? "" : " || ").append('v').append(i).append(" == null");
+                    }
+                }
+
+                StringBuilder join = new StringBuilder();
+
+                for (int i = 0; i < values.size(); i++) {
+                    join.append(i == 0 ? "" : " + ").append('v').append(i);
+                }
+
+                if (nullCheck.isEmpty()) {
+                    sb.append("        return ").append(join).append(";\n");
+                } else {
+                    sb.append("        return ").append(nullCheck).append(" ? null : ").append(join).append(";\n");
+                }
+            }
+
+            sb.append("    }\n");
+
+            methods.append(sb);
+            formulas.put(formula, name);
+
+            return name;
+
+        }
+
+        private static boolean isNonNullLiteral(Element element) {
+            return element instanceof FixedValueElement e && e.getValue() != null;
+        }
+
+        private String element(Element element) {
+
+            if (element instanceof FixedValueElement e) {
+                return literalOf(e.getValue());
+            }
+
+            if (element instanceof InputElement e) {
+                return "in.get(" + literalOf(e.getName()) + ")";
+            }
+
+            if (element instanceof FunctionElement e) {
+                return "e" + function(e) + "(in)";
+            }
+
+            throw new IllegalArgumentException("Unknown element. [%s]".formatted(element.getClass().getName()));
+
+        }
+
+        private int function(FunctionElement element) {
+
+            Integer emitted = functions.get(element);
+
+            if (emitted != null) {
+                return emitted;
+            }
+
+            String type = typeOf(element.getFunction());
+            List<Formula> args = element.getArgs();
+
+            StringBuilder arguments = new StringBuilder();
+
+            for (Formula arg : args) {
+                arguments.append(arguments.isEmpty() ? "" : ",\n").append("            ").append(argument(arg));
+            }
+
+            int id = count++;
+
+            fields.append("    private static final ").append(type).append(" F").append(id).append(" = (").append(type)
+                    .append(") new ").append(type).append("().specialize(").append(literalsOf(args)).append(", ")
+                    .append(args.size()).append(");\n");
+
+            methods.append("\n    private static jp.mydns.projectk.formula.Function.Argument[] a").append(id)
+                    .append("(java.util.Map<String, String> in) {\n");
+            methods.append("        return new jp.mydns.projectk.formula.Function.Argument[]{");
+            methods.append(arguments.isEmpty() ? "" : "\n" + arguments + "\n        ").append("};\n");
+            methods.append("    }\n");
+
+            methods.append(call("String", "e" + id, "F" + id + ".execute(a" + id + "(in))"));
+
+            functions.put(element, id);
+
+            return id;
+
+        }
+
+        private String argument(Formula arg) {
+
+            String value = formula(arg);
+
+            if (!(arg instanceof FormulaImpl f && f.getElements().size() == 1
+                    && f.getElements().get(0) instanceof FunctionElement e)) {
+                return "() -> " + value + "(in)";
+            }
+
+            String typed = typedMethod(e);
+
+            if (typed == null) {
+                return "() -> " + value + "(in)";
+            }
+
+            Function function = e.getFunction();
+            String type;
+            String method;
+
+            if (function instanceof TemporalFunction) {
+                type = "jp.mydns.projectk.formula.impl.TemporalArgument";
+                method = "public java.time.LocalDateTime resolveLocalDateTime()";
+            } else if (function instanceof NumericFunction) {
+                type = "jp.mydns.projectk.formula.impl.NumericArgument";
+                method = "public jp.mydns.projectk.formula.impl.Numeric resolveNumeric()";
+            } else {
+                type = "jp.mydns.projectk.formula.impl.BooleanArgument";
+                method = "public boolean resolveBoolean()";
+            }
+
+            return "new " + type + "() {\n"
+                    + "                @Override\n"
+                    + "                public String resolve() {\n"
+                    + "                    return " + value + "(in);\n"
+                    + "                }\n\n"
+                    + "                @Override\n"
+                    + "                " + method + " {\n"
+                    + "                    return " + typed + "(in);\n"
+                    + "                }\n"
+                    + "            }";
+
+        }
+
+        // Note: Same as FunctionElement, an argument that consists only of a function with a typed result is passed
+        //       without the string. The order of the checks follows FunctionElement.
+        private String typedMethod(FunctionElement element) {
+
+            String emitted = typedMethods.get(element);
+
+            if (emitted != null) {
+                return emitted;
+            }
+
+            Function function = element.getFunction();
+            int id = function(element);
+            String name;
+
+            if (function instanceof TemporalFunction) {
+                name = "t" + id;
+                methods.append(call("java.time.LocalDateTime", name, "F" + id + ".executeTemporal(a" + id + "(in))"));
+            } else if (function instanceof NumericFunction) {
+                name = "n" + id;
+                methods.append(call("jp.mydns.projectk.formula.impl.Numeric", name,
+                        "F" + id + ".executeNumeric(a" + id + "(in))"));
+            } else if (function instanceof BooleanFunction) {
+                name = "b" + id;
+                methods.append(call("boolean", name, "F" + id + ".executeBoolean(a" + id + "(in))"));
+            } else {
+                return null;
+            }
+
+            typedMethods.put(element, name);
+
+            return name;
+
+        }
+
+        private static String call(String type, String name, String expression) {
+            return "\n    private static " + type + " " + name + "(java.util.Map<String, String> in) {\n"
+                    + "        try {\n"
+                    + "            return " + expression + ";\n"
+                    + "        } catch (jp.mydns.projectk.formula.FormulaExecutionException ex) {\n"
+                    + "            throw ex;\n"
+                    + "        } catch (RuntimeException ex) {\n"
+                    + "            throw new jp.mydns.projectk.formula.FormulaExecutionException(\n"
+                    + "                    " + literalOf(WRAPPED_MESSAGE) + ");\n"
+                    + "        }\n"
+                    + "    }\n";
+        }
+
+        private static String literalsOf(List<Formula> args) {
+
+            Map<Integer, String> literals = new TreeMap<>(FunctionElement.literalsOf(args));
+
+            if (literals.isEmpty()) {
+                return "java.util.Map.of()";
+            }
+
+            StringBuilder sb = new StringBuilder("java.util.Map.ofEntries(");
+
+            literals.forEach((i, v) -> sb.append(sb.charAt(sb.length() - 1) == '(' ? "" : ", ")
+                    .append("java.util.Map.entry(").append(i).append(", ").append(literalOf(v)).append(')'));
+
+            return sb.append(')').toString();
+
+        }
+
+        private String typeOf(Function function) {
+
+            Class<?> type = function.getClass();
+
+            if (!Modifier.isPublic(type.getModifiers()) || type.getCanonicalName() == null || type.isHidden()
+                    || (type.getEnclosingClass() != null && !Modifier.isStatic(type.getModifiers()))) {
+                throw new IllegalArgumentException("Function cannot be precompiled. [%s] in %s"
+                        .formatted(type.getName(), className));
+            }
+
+            try {
+                Constructor<?> constructor = type.getConstructor();
+                if (!Modifier.isPublic(constructor.getModifiers())) {
+                    throw new NoSuchMethodException();
+                }
+            } catch (NoSuchMethodException ex) {
+                throw new IllegalArgumentException("Function cannot be precompiled. [%s] in %s"
+                        .formatted(type.getName(), className));
+            }
+
+            return type.getCanonicalName();
+
+        }
+    }
+}
@@ -46,7 +46,41 @@ public abstract class AbstractFunction implements Function {
      */
     @Override
     public String execute(Argument... args) {
-        return calculate(getArgumentScheme().requireValid(args));
+
+        Argument[] validArgs = getArgumentScheme().requireValid(args);
+        FunctionMemo memo = getMemo();
+
+        return memo == null || hasTypedArgument(validArgs)
+                ? calculate(validArgs) : memo.execute(validArgs, this::calculate);
+
+    }
+
+    private static boolean hasTypedArgument(Argument[] args) {
+
+        for (Argument arg : args) {
+            if (arg instanceof TemporalArgument || arg instanceof NumericArgument || arg instanceof BooleanArgument) {
+                return true;
+            }
+        }
+
+        return false;
+
+    }
+
+    /**
+     * Get the memo of results of this function. Default is none, override it to opt into memorization.
+     * <p>
+     * Only a function that always resolves all of the arguments and whose result depends only on the argument values
+     * should opt in, because the memo resolves all of the arguments before calling {@link #calculate(Argument...)}.
+     * <p>
+     * The memo is skipped when an argument carries a typed value, such as a {@link TemporalArgument}, because making
+     * the key would resolve it through the string and defeat passing the typed value between nested functions.
+     *
+     * @return the {@code FunctionMemo}. {@code null} if this function does not memorize results.
+     * @since 1.0.0
+     */
+    protected FunctionMemo getMemo() {
+        return null;
     }
 
     /**
@@ -87,8 +87,8 @@ public class ArgumentSchemeImpl implements Function.ArgumentScheme {
             final var reCtx = RepeatArgdef.class.cast(reArg).getRepeatContext();
             final int reInc = getNumOfContained(reArg);
 
-            min = staticArgsCount + reCtx.getMinIteration() * reInc;
-            max = staticArgsCount + reCtx.getMaxIteration() * reInc;
+            min = saturate(staticArgsCount + (long) reCtx.getMinIteration() * reInc);
+            max = saturate(staticArgsCount + (long) reCtx.getMaxIteration() * reInc);
             inc = reInc;
 
         } else {
@@ -106,6 +106,11 @@ public class ArgumentSchemeImpl implements Function.ArgumentScheme {
 
     }
 
+    // Note: An unlimited repeat such as Integer.MAX_VALUE iterations must not overflow.
+    private int saturate(long count) {
+        return (int) Math.min(count, Integer.MAX_VALUE);
+    }
+
     private boolean isRepeatable(Argdef argdef) {
         return RepeatArgdef.class.isAssignableFrom(argdef.getClass());
     }
@@ -0,0 +1,553 @@
+/*
+ * Copyright (c) 2024, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.formula.impl;
+
+import java.nio.IntBuffer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import jp.mydns.projectk.formula.Element;
+import jp.mydns.projectk.formula.Formula;
+import jp.mydns.projectk.formula.FormulaExecutionException;
+import jp.mydns.projectk.formula.Function;
+
+/**
+ * Formula that encoded in a flat {@code int} array. The nodes are not objects, so a catalog of millions of nodes has
+ * no object header and no pointer for each node. The literal values, the input names and the functions are referred
+ * by index of the {@link ConstantPool}, which can be shared by many formulas. The result is same as the formula that
+ * was compiled. The code can also be a view of the off-heap memory of {@link OffHeapFormulaStore}.
+ * <p>
+ * <b>Code</b>
+ * <table border="1"><caption>Node layout. The root node is a formula node at offset 0.</caption>
+ * <thead><tr><th>Node</th><th>Layout</th></tr></thead>
+ * <tbody>
+ * <tr><td>Formula</td><td>{@code FORMULA}, number of elements, offset of each element</td></tr>
+ * <tr><td>Literal value</td><td>{@code LITERAL}, index of the value in the pool</td></tr>
+ * <tr><td>Null literal value</td><td>{@code NULL_LITERAL}, 0</td></tr>
+ * <tr><td>Input value</td><td>{@code INPUT}, index of the name in the pool</td></tr>
+ * <tr><td>Function</td><td>{@code FUNCTION}, index of the function in the pool, number of arguments, offset of each
+ * argument formula node</td></tr>
+ * </tbody></table>
+ * <p>
+ * This class is immutable and thread-safe.
+ *
+ * @author riru
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public final class CompactFormula implements Formula {
+
+    /**
+     * Operation code of the formula node.
+     *
+     * @since 1.0.0
+     */
+    public static final int FORMULA = 0;
+
+    /**
+     * Operation code of the literal value node.
+     *
+     * @since 1.0.0
+     */
+    public static final int LITERAL = 1;
+
+    /**
+     * Operation code of the {@code null} literal value node.
+     *
+     * @since 1.0.0
+     */
+    public static final int NULL_LITERAL = 2;
+
+    /**
+     * Operation code of the input value node.
+     *
+     * @since 1.0.0
+     */
+    public static final int INPUT = 3;
+
+    /**
+     * Operation code of the function node.
+     *
+     * @since 1.0.0
+     */
+    public static final int FUNCTION = 4;
+
+    private final ConstantPool pool;
+    private final IntBuffer code;
+
+    /**
+     * Construct with the code.
+     *
+     * @param pool the constant pool
+     * @param code the code. It may be a view of the off-heap memory.
+     * @since 1.0.0
+     */
+    CompactFormula(ConstantPool pool, IntBuffer code) {
+        this.pool = pool;
+        this.code = code;
+    }
+
+    /**
+     * Compile the formula with a new constant pool.
+     *
+     * @param formula the formula that made by the parser
+     * @return the {@code CompactFormula}
+     * @throws NullPointerException if {@code formula} is {@code null}
+     * @throws IllegalArgumentException if {@code formula} contains an unknown kind of element
+     * @since 1.0.0
+     */
+    public static CompactFormula compile(Formula formula) {
+        return compile(formula, new ConstantPool());
+    }
+
+    /**
+     * Compile the formula with the constant pool.
+     *
+     * @param formula the formula that made by the parser
+     * @param pool the constant pool. Constants of {@code formula} are added to it.
+     * @return the {@code CompactFormula}
+     * @throws NullPointerException if any argument is {@code null}
+     * @throws IllegalArgumentException if {@code formula} contains an unknown kind of element
+     * @since 1.0.0
+     */
+    public static CompactFormula compile(Formula formula, ConstantPool pool) {
+
+        return new CompactFormula(pool, IntBuffer.wrap(encode(formula, pool)));
+    }
+
+    /**
+     * Encode the formula to the code.
+     *
+     * @param formula the formula that made by the parser
+     * @param pool the constant pool. Constants of {@code formula} are added to it.
+     * @return the code
+     * @throws NullPointerException if any argument is {@code null}
+     * @throws IllegalArgumentException if {@code formula} contains an unknown kind of element
+     * @since 1.0.0
+     */
+    static int[] encode(Formula formula, ConstantPool pool) {
+
+        Objects.requireNonNull(formula);
+        Objects.requireNonNull(pool);
+
+        CodeWriter writer = new CodeWriter(pool);
+        writer.writeFormula(formula);
+
+        return writer.toCode();
+
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws NullPointerException if {@code inputs} is {@code null}
+     * @throws FormulaExecutionException if an error occurred while calculating formula
+     * @since 1.0.0
+     */
+    @Override
+    public String calculate(Map<String, String> inputs) {
+        return calculateFormula(0, Objects.requireNonNull(inputs));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The specialized formula is compiled with a new constant pool, so the pool of this formula does not grow by
+     * specializing it. Use {@link #compile(Formula, ConstantPool)} to share the pool explicitly.
+     *
+     * @since 1.0.0
+     */
+    @Override
+    public CompactFormula specialize(Map<String, String> knownInputs) {
+
+        // Note: The specialized functions are new instances by each call, so they must not be added to the shared pool.
+        return compile(toFormula().specialize(knownInputs));
+
+    }
+
+    /**
+     * Restore the formula of the object tree.
+     *
+     * @return the {@code Formula}
+     * @since 1.0.0
+     */
+    public Formula toFormula() {
+        return toFormula(0);
+    }
+
+    /**
+     * Get the code.
+     *
+     * @return copy of the code
+     * @since 1.0.0
+     */
+    public int[] getCode() {
+
+        int[] copy = new int[code.limit()];
+        code.get(0, copy);
+
+        return copy;
+
+    }
+
+    /**
+     * Get the constant pool.
+     *
+     * @return the {@code ConstantPool}
+     * @since 1.0.0
+     */
+    public ConstantPool getPool() {
+        return pool;
+    }
+
+    private String calculateFormula(int offset, Map<String, String> inputs) {
+
+        int count = code.get(offset + 1);
+
+        if (count == 1) {
+            return calculateElement(code.get(offset + 2), inputs);
+        }
+
+        String[] values = new String[count];
+        boolean hasNull = false;
+
+        for (int i = 0; i < count; i++) {
+            values[i] = calculateElement(code.get(offset + 2 + i), inputs);
+            hasNull |= values[i] == null;
+        }
+
+        if (hasNull) {
+            return null;
+        }
+
+        StringBuilder sb = new StringBuilder();
+
+        for (String v : values) {
+            sb.append(v);
+        }
+
+        return sb.toString();
+
+    }
+
+    private String calculateElement(int offset, Map<String, String> inputs) {
+        return switch (code.get(offset)) {
+            case LITERAL ->
+                pool.getString(code.get(offset + 1));
+            case NULL_LITERAL ->
+                null;
+            case INPUT ->
+                inputs.get(pool.getString(code.get(offset + 1)));
+            default ->
+                calculateFunction(offset, inputs);
+        };
+    }
+
+    private String calculateFunction(int offset, Map<String, String> inputs) {
+        try {
+            return pool.getFunction(code.get(offset + 1)).execute(argumentsOf(offset, inputs));
+        } catch (FormulaExecutionException ex) {
+            throw ex;
+        } catch (RuntimeException ex) {
+            throw new FormulaExecutionException("Occurs unexpected exception while calculating formula.");
+        }
+    }
+
+    private LocalDateTime calculateTemporal(int offset, Map<String, String> inputs) {
+        try {
+            return TemporalFunction.class.cast(pool.getFunction(code.get(offset + 1)))
+                    .executeTemporal(argumentsOf(offset, inputs));
+        } catch (FormulaExecutionException ex) {
+            throw ex;
+        } catch (RuntimeException ex) {
+            throw new FormulaExecutionException("Occurs unexpected exception while calculating formula.");
+        }
+    }
+
+    private boolean calculateBoolean(int offset, Map<String, String> inputs) {
+        try {
+            return BooleanFunction.class.cast(pool.getFunction(code.get(offset + 1)))
+                    .executeBoolean(argumentsOf(offset, inputs));
+        } catch (FormulaExecutionException ex) {
+            throw ex;
+        } catch (RuntimeException ex) {
+            throw new FormulaExecutionException("Occurs unexpected exception while calculating formula.");
+        }
+    }
+
+    private Numeric calculateNumeric(int offset, Map<String, String> inputs) {
+        try {
+            return NumericFunction.class.cast(pool.getFunction(code.get(offset + 1)))
+                    .executeNumeric(argumentsOf(offset, inputs));
+        } catch (FormulaExecutionException ex) {
+            throw ex;
+        } catch (RuntimeException ex) {
+            throw new FormulaExecutionException("Occurs unexpected exception while calculating formula.");
+        }
+    }
+
+    private Function.Argument[] argumentsOf(int offset, Map<String, String> inputs) {
+
+        Function.Argument[] arguments = new Function.Argument[code.get(offset + 2)];
+
+        for (int i = 0; i < arguments.length; i++) {
+
+            int arg = code.get(offset + 3 + i);
+
+            // Note: An argument formula that consists only of a function with a typed result is evaluated without
+            //       the string, as same as FunctionElement.
+            if (code.get(arg + 1) == 1 && code.get(code.get(arg + 2)) == FUNCTION) {
+
+                int element = code.get(arg + 2);
+                Function function = pool.getFunction(code.get(element + 1));
+
+                if (function instanceof TemporalFunction) {
+                    arguments[i] = new TemporalArgumentImpl(arg, element, inputs);
+                    continue;
+                } else if (function instanceof NumericFunction) {
+                    arguments[i] = new NumericArgumentImpl(arg, element, inputs);
+                    continue;
+                } else if (function instanceof BooleanFunction) {
+                    arguments[i] = new BooleanArgumentImpl(arg, element, inputs);
+                    continue;
+                }
+            }
+
+            arguments[i] = new ArgumentImpl(arg, inputs);
+
+        }
+
+        return arguments;
+
+    }
+
+    private Formula toFormula(int offset) {
+
+        List<Element> elements = new ArrayList<>();
+
+        for (int i = 0; i < code.get(offset + 1); i++) {
+            elements.add(toElement(code.get(offset + 2 + i)));
+        }
+
+        return new FormulaImpl(elements);
+
+    }
+
+    private Element toElement(int offset) {
+        return switch (code.get(offset)) {
+            case LITERAL ->
+                new FixedValueElement(pool.getString(code.get(offset + 1)));
+            case NULL_LITERAL ->
+                new FixedValueElement(null);
+            case INPUT ->
+                new InputElement(pool.getString(code.get(offset + 1)));
+            default -> {
+                List<Formula> args = new ArrayList<>();
+                for (int i = 0; i < code.get(offset + 2); i++) {
+                    args.add(toFormula(code.get(offset + 3 + i)));
+                }
+                yield new FunctionElement(pool.getFunction(code.get(offset + 1)), args);
+            }
+        };
+    }
+
+    /**
+     * Returns a string representation of this.
+     *
+     * @return a string representation
+     * @since 1.0.0
+     */
+    @Override
+    public String toString() {
+        return "CompactFormula{" + "code=" + Arrays.toString(getCode()) + ", pool=" + pool + '}';
+    }
+
+    private static class CodeWriter {
+
+        private final ConstantPool pool;
+        private int[] code = new int[64];
+        private int size;
+
+        CodeWriter(ConstantPool pool) {
+            this.pool = pool;
+        }
+
+        int writeFormula(Formula formula) {
+
+            if (formula instanceof CompactFormula c) {
+                return writeFormula(c.toFormula());
+            }
+
+            if (!(formula instanceof FormulaImpl f)) {
+                throw new IllegalArgumentException("Unknown formula. [%s]".formatted(formula.getClass().getName()));
+            }
+
+            List<Element> elements = f.getElements();
+            int offset = reserve(2 + elements.size());
+
+            code[offset] = FORMULA;
+            code[offset + 1] = elements.size();
+
+            for (int i = 0; i < elements.size(); i++) {
+                int element = writeElement(elements.get(i));
+                code[offset + 2 + i] = element;
+            }
+
+            return offset;
+
+        }
+
+        private int writeElement(Element element) {
+
+            if (element instanceof FixedValueElement e) {
+                int offset = reserve(2);
+                code[offset] = e.getValue() == null ? NULL_LITERAL : LITERAL;
+                code[offset + 1] = e.getValue() == null ? 0 : pool.indexOf(e.getValue());
+                return offset;
+            }
+
+            if (element instanceof InputElement e) {
+                int offset = reserve(2);
+                code[offset] = INPUT;
+                code[offset + 1] = pool.indexOf(e.getName());
+                return offset;
+            }
+
+            if (element instanceof FunctionElement e) {
+
+                List<Formula> args = e.getArgs();
+                int offset = reserve(3 + args.size());
+
+                code[offset] = FUNCTION;
+                code[offset + 1] = pool.indexOf(e.getFunction());
+                code[offset + 2] = args.size();
+
+                for (int i = 0; i < args.size(); i++) {
+                    int arg = writeFormula(args.get(i));
+                    code[offset + 3 + i] = arg;
+                }
+
+                return offset;
+
+            }
+
+            throw new IllegalArgumentException("Unknown element. [%s]".formatted(element.getClass().getName()));
+
+        }
+
+        private int reserve(int length) {
+
+            if (size + length > code.length) {
+                code = Arrays.copyOf(code, Math.max(code.length * 2, size + length));
+            }
+
+            int offset = size;
+            size += length;
+
+            return offset;
+
+        }
+
+        int[] toCode() {
+            return Arrays.copyOf(code, size);
+        }
+    }
+
+    private class ArgumentImpl implements Function.Argument {
+
+        private final int offset;
+        private final Map<String, String> inputs;
+
+        ArgumentImpl(int offset, Map<String, String> inputs) {
+            this.offset = offset;
+            this.inputs = inputs;
+        }
+
+        @Override
+        public String resolve() {
+            return calculateFormula(offset, inputs);
+        }
+
+        @Override
+        public String toString() {
+            return "Function.Argument{" + "offset=" + offset + ", inputs=" + inputs + '}';
+        }
+    }
+
+    private class TemporalArgumentImpl extends ArgumentImpl implements TemporalArgument {
+
+        private final int element;
+        private final Map<String, String> inputs;
+
+        TemporalArgumentImpl(int offset, int element, Map<String, String> inputs) {
+            super(offset, inputs);
+            this.element = element;
+            this.inputs = inputs;
+        }
+
+        @Override
+        public LocalDateTime resolveLocalDateTime() {
+            return calculateTemporal(element, inputs);
+        }
+    }
+
+    private class BooleanArgumentImpl extends ArgumentImpl implements BooleanArgument {
+
+        private final int element;
+        private final Map<String, String> inputs;
+
+        BooleanArgumentImpl(int offset, int element, Map<String, String> inputs) {
+            super(offset, inputs);
+            this.element = element;
+            this.inputs = inputs;
+        }
+
+        @Override
+        public boolean resolveBoolean() {
+            return calculateBoolean(element, inputs);
+        }
+    }
+
+    private class NumericArgumentImpl extends ArgumentImpl implements NumericArgument {
+
+        private final int element;
+        private final Map<String, String> inputs;
+
+        NumericArgumentImpl(int offset, int element, Map<String, String> inputs) {
+            super(offset, inputs);
+            this.element = element;
+            this.inputs = inputs;
+        }
+
+        @Override
+        public Numeric resolveNumeric() {
+            return calculateNumeric(element, inputs);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2024, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.formula.impl;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Objects;
+import jp.mydns.projectk.formula.Function;
+
+/**
+ * Constant pool of the compact formulas. It holds the literal values, the input names and the functions that referred
+ * by index from the code of {@link CompactFormula}. A pool can be shared by many compact formulas, then each distinct
+ * constant is held only once.
+ * <p>
+ * Constants are only appended and never removed. This class is thread-safe.
+ *
+ * @author riru
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public final class ConstantPool {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final Map<String, Integer> stringIndexes = new HashMap<>();
+    private final Map<Function, Integer> functionIndexes = new IdentityHashMap<>();
+
+    private volatile String[] strings = new String[INITIAL_CAPACITY];
+    private volatile Function[] functions = new Function[INITIAL_CAPACITY];
+    private int stringCount;
+    private int functionCount;
+
+    /**
+     * Constructor.
+     *
+     * @since 1.0.0
+     */
+    public ConstantPool() {
+    }
+
+    /**
+     * Get the index of the string. It is added if absent.
+     *
+     * @param value the string
+     * @return index of {@code value}
+     * @throws NullPointerException if {@code value} is {@code null}
+     * @since 1.0.0
+     */
+    public synchronized int indexOf(String value) {
+
+        Integer index = stringIndexes.get(Objects.requireNonNull(value));
+
+        if (index != null) {
+            return index;
+        }
+
+        String[] current = strings.length == stringCount ? Arrays.copyOf(strings, stringCount * 2) : strings;
+        current[stringCount] = value;
+
+        // Note: The volatile write publishes the new constant to the readers.
+        strings = current;
+        stringIndexes.put(value, stringCount);
+
+        return stringCount++;
+
+    }
+
+    /**
+     * Get the index of the function. The function is identified by identity. It is added if absent.
+     *
+     * @param function the function
+     * @return index of {@code function}
+     * @throws NullPointerException if {@code function} is {@code null}
+     * @since 1.0.0
+     */
+    public synchronized int indexOf(Function function) {
+
+        Integer index = functionIndexes.get(Objects.requireNonNull(function));
+
+        if (index != null) {
+            return index;
+        }
+
+        Function[] current = functions.length == functionCount
+                ? Arrays.copyOf(functions, functionCount * 2) : functions;
+        current[functionCount] = function;
+
+        // Note: The volatile write publishes the new constant to the readers.
+        functions = current;
+        functionIndexes.put(function, functionCount);
+
+        return functionCount++;
+
+    }
+
+    /**
+     * Get the string.
+     *
+     * @param index index of the string
+     * @return the string
+     * @throws ArrayIndexOutOfBoundsException if {@code index} is out of range
+     * @since 1.0.0
+     */
+    public String getString(int index) {
+        return strings[index];
+    }
+
+    /**
+     * Get the function.
+     *
+     * @param index index of the function
+     * @return the function
+     * @throws ArrayIndexOutOfBoundsException if {@code index} is out of range
+     * @since 1.0.0
+     */
+    public Function getFunction(int index) {
+        return functions[index];
+    }
+
+    /**
+     * Get the number of strings.
+     *
+     * @return number of strings
+     * @since 1.0.0
+     */
+    public synchronized int getStringCount() {
+        return stringCount;
+    }
+
+    /**
+     * Get the number of functions.
+     *
+     * @return number of functions
+     * @since 1.0.0
+     */
+    public synchronized int getFunctionCount() {
+        return functionCount;
+    }
+
+    /**
+     * Returns a string representation of this.
+     *
+     * @return a string representation
+     * @since 1.0.0
+     */
+    @Override
+    public synchronized String toString() {
+        return "ConstantPool{" + "strings=" + stringCount + ", functions=" + functionCount + '}';
+    }
+}
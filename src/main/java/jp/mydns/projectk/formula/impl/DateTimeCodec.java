@@ -0,0 +1,452 @@
+/*
+ * Copyright (c) 2024, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.formula.impl;
+
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.Year;
+import java.time.format.DateTimeFormatter;
+import java.time.format.ResolverStyle;
+import java.util.Arrays;
+import java.util.Objects;
+import jp.mydns.projectk.formula.CacheStatistics;
+
+/**
+ * Parser and formatter of {@code LocalDateTime} that is equivalent to a {@code DateTimeFormatter}. The common fixed
+ * width shapes are processed by hand without the generic formatter machinery, and the others are delegated to the
+ * {@code DateTimeFormatter}. The results are always identical to the {@code DateTimeFormatter}.
+ * <p>
+ * The hand-rolled shapes are {@link #ISO_LOCAL_DATE_TIME} without a sign of year, and the patterns that consist of
+ * only {@code uuuu}, {@code MM}, {@code dd}, {@code HH}, {@code mm}, {@code ss} and separators such as
+ * {@code uuuuMMdd}, {@code uuuuMMddHHmmss} and {@code uuuu-MM-dd HH:mm:ss}. The year is hand-rolled only in the
+ * range from 0 to 9999.
+ * <p>
+ * This class is immutable and thread-safe.
+ *
+ * @author riru
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public final class DateTimeCodec {
+
+    /**
+     * The codec that equivalent to {@link DateTimeFormatter#ISO_LOCAL_DATE_TIME}.
+     *
+     * @since 1.0.0
+     */
+    public static final DateTimeCodec ISO_LOCAL_DATE_TIME = new DateTimeCodec(DateTimeFormatter.ISO_LOCAL_DATE_TIME,
+            null);
+
+    private static final int CACHE_SIZE = 256;
+    private static final LruCache<String, DateTimeCodec> CODECS = new LruCache<>(CACHE_SIZE);
+    private static final String SEPARATORS = "-/:. _";
+    private static final char FIELD = '\0';
+    private static final int YEAR = 0;
+    private static final int MONTH = 1;
+    private static final int DAY = 2;
+    private static final int HOUR = 3;
+    private static final int MINUTE = 4;
+    private static final int SECOND = 5;
+    private static final int ISO_MINUTE_LENGTH = 16;
+    private static final int ISO_SECOND_LENGTH = 19;
+    private static final int ISO_NANO_LENGTH = 29;
+    private static final int[] POWERS_OF_TEN = {1, 10, 100, 1_000, 10_000, 100_000, 1_000_000, 10_000_000,
+        100_000_000, 1_000_000_000};
+
+    private final DateTimeFormatter formatter;
+    private final Layout layout;
+
+    private DateTimeCodec(DateTimeFormatter formatter, Layout layout) {
+        this.formatter = formatter;
+        this.layout = layout;
+    }
+
+    /**
+     * Get the codec of the datetime pattern. The {@code DateTimeFormatter} is made with
+     * {@link ResolverStyle#STRICT}, and the codecs are cached.
+     *
+     * @param pattern datetime pattern of {@link DateTimeFormatter#ofPattern(String)}
+     * @return the codec
+     * @throws NullPointerException if {@code pattern} is {@code null}
+     * @throws IllegalArgumentException if {@code pattern} is invalid
+     * @since 1.0.0
+     */
+    public static DateTimeCodec ofPattern(String pattern) {
+        return CODECS.computeIfAbsent(Objects.requireNonNull(pattern), p -> new DateTimeCodec(
+                DateTimeFormatter.ofPattern(p).withResolverStyle(ResolverStyle.STRICT), Layout.compile(p)));
+    }
+
+    /**
+     * Get the statistics of the cache of the codecs made by {@link #ofPattern(String)}.
+     *
+     * @return current statistics
+     * @since 1.0.0
+     */
+    public static CacheStatistics getCacheStatistics() {
+        return CODECS.getStatistics();
+    }
+
+    /**
+     * Change the maximum size of the cache of the codecs made by {@link #ofPattern(String)}. Default is
+     * {@value #CACHE_SIZE}.
+     *
+     * @param maximumSize maximum number of cached codecs
+     * @throws IllegalArgumentException if {@code maximumSize} is negative
+     * @since 1.0.0
+     */
+    public static void setCacheSize(int maximumSize) {
+        CODECS.setMaximumSize(maximumSize);
+    }
+
+    /**
+     * Get the {@code DateTimeFormatter} that equivalent to this.
+     *
+     * @return the {@code DateTimeFormatter}
+     * @since 1.0.0
+     */
+    public DateTimeFormatter getFormatter() {
+        return formatter;
+    }
+
+    /**
+     * Parse the text to {@code LocalDateTime}.
+     *
+     * @param text the text to parse
+     * @return parsed {@code LocalDateTime}
+     * @throws NullPointerException if {@code text} is {@code null}
+     * @throws java.time.format.DateTimeParseException if unable to parse
+     * @since 1.0.0
+     */
+    public LocalDateTime parse(CharSequence text) {
+
+        Objects.requireNonNull(text);
+
+        LocalDateTime parsed = layout == null ? parseIso(text) : layout.parse(text);
+
+        return parsed != null ? parsed : LocalDateTime.parse(text, formatter);
+
+    }
+
+    /**
+     * Format the {@code LocalDateTime}.
+     *
+     * @param dateTime the {@code LocalDateTime} to format
+     * @return formatted text
+     * @throws NullPointerException if {@code dateTime} is {@code null}
+     * @throws java.time.DateTimeException if an error occurs during formatting
+     * @since 1.0.0
+     */
+    public String format(LocalDateTime dateTime) {
+
+        Objects.requireNonNull(dateTime);
+
+        if (dateTime.getYear() < 0 || dateTime.getYear() > 9999 || layout != null && !layout.isValid()) {
+            return dateTime.format(formatter);
+        }
+
+        return layout == null ? formatIso(dateTime) : layout.format(dateTime);
+
+    }
+
+    /**
+     * Parse the {@code ISO_LOCAL_DATE_TIME} text of the {@code LocalDateTime} with this codec. It is same as
+     * {@code parse(ISO_LOCAL_DATE_TIME.format(isoValue))}, but the text is not made if this codec accepts it as is.
+     *
+     * @param isoValue the {@code LocalDateTime} that represented by {@code ISO_LOCAL_DATE_TIME}
+     * @return parsed {@code LocalDateTime}
+     * @throws NullPointerException if {@code isoValue} is {@code null}
+     * @throws java.time.format.DateTimeParseException if unable to parse
+     * @since 1.0.0
+     */
+    public LocalDateTime reparse(LocalDateTime isoValue) {
+
+        Objects.requireNonNull(isoValue);
+
+        if (this == ISO_LOCAL_DATE_TIME) {
+            return isoValue;
+        }
+
+        if (layout != null && layout.isIsoSeconds() && isoValue.getNano() == 0 && isoValue.getYear() >= 0
+                && isoValue.getYear() <= 9999) {
+            return isoValue;
+        }
+
+        return parse(ISO_LOCAL_DATE_TIME.format(isoValue));
+
+    }
+
+    private static LocalDateTime parseIso(CharSequence text) {
+
+        int length = text.length();
+
+        if (length != ISO_MINUTE_LENGTH && length != ISO_SECOND_LENGTH
+                && (length <= ISO_SECOND_LENGTH + 1 || length > ISO_NANO_LENGTH)) {
+            return null;
+        }
+
+        if (text.charAt(4) != '-' || text.charAt(7) != '-' || text.charAt(10) != 'T' || text.charAt(13) != ':') {
+            return null;
+        }
+
+        int second = 0;
+        int nano = 0;
+
+        if (length > ISO_MINUTE_LENGTH) {
+
+            if (text.charAt(16) != ':') {
+                return null;
+            }
+
+            second = digits(text, 17, 2);
+
+        }
+
+        if (length > ISO_SECOND_LENGTH) {
+
+            if (text.charAt(19) != '.') {
+                return null;
+            }
+
+            int fraction = digits(text, 20, length - 20);
+            nano = fraction < 0 ? -1 : fraction * POWERS_OF_TEN[ISO_NANO_LENGTH - length];
+
+        }
+
+        return of(digits(text, 0, 4), digits(text, 5, 2), digits(text, 8, 2), digits(text, 11, 2),
+                digits(text, 14, 2), second, nano);
+
+    }
+
+    private static String formatIso(LocalDateTime dateTime) {
+
+        int nano = dateTime.getNano();
+        int fractionLength = 9;
+
+        while (nano != 0 && nano % 10 == 0) {
+            nano /= 10;
+            fractionLength--;
+        }
+
+        char[] buf = new char[nano == 0 ? ISO_SECOND_LENGTH : ISO_SECOND_LENGTH + 1 + fractionLength];
+
+        putDigits(buf, 0, 4, dateTime.getYear());
+        buf[4] = '-';
+        putDigits(buf, 5, 2, dateTime.getMonthValue());
+        buf[7] = '-';
+        putDigits(buf, 8, 2, dateTime.getDayOfMonth());
+        buf[10] = 'T';
+        putDigits(buf, 11, 2, dateTime.getHour());
+        buf[13] = ':';
+        putDigits(buf, 14, 2, dateTime.getMinute());
+        buf[16] = ':';
+        putDigits(buf, 17, 2, dateTime.getSecond());
+
+        if (nano != 0) {
+            buf[ISO_SECOND_LENGTH] = '.';
+            putDigits(buf, ISO_SECOND_LENGTH + 1, fractionLength, nano);
+        }
+
+        return new String(buf);
+
+    }
+
+    private static LocalDateTime of(int year, int month, int day, int hour, int minute, int second, int nano) {
+
+        if (year < 0 || month < 1 || month > 12 || day < 1 || hour < 0 || hour > 23 || minute < 0 || minute > 59
+                || second < 0 || second > 59 || nano < 0) {
+            return null;
+        }
+
+        if (day > Month.of(month).length(Year.isLeap(year))) {
+            return null;
+        }
+
+        return LocalDateTime.of(year, month, day, hour, minute, second, nano);
+
+    }
+
+    private static int digits(CharSequence text, int offset, int count) {
+
+        int value = 0;
+
+        for (int i = offset; i < offset + count; i++) {
+
+            char c = text.charAt(i);
+
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+
+            value = value * 10 + (c - '0');
+
+        }
+
+        return value;
+
+    }
+
+    private static void putDigits(char[] buf, int offset, int count, int value) {
+        for (int i = offset + count - 1; i >= offset; i--) {
+            buf[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    /**
+     * Returns a string representation of this.
+     *
+     * @return a string representation
+     * @since 1.0.0
+     */
+    @Override
+    public String toString() {
+        return "DateTimeCodec{" + "formatter=" + formatter + ", handRolled=" + (layout == null || layout.isValid())
+                + '}';
+    }
+
+    /**
+     * Fixed width layout of the datetime pattern. Each field is placed at a fixed position of a template, and the
+     * others are the literal characters.
+     *
+     * @param template template text. The field position is {@value #FIELD}.
+     * @param positions position of each field. {@code -1} if a field is not contained.
+     */
+    private record Layout(char[] template, int[] positions) {
+
+        private static final Layout UNSUPPORTED = new Layout(null, null);
+        private static final String LETTERS = "uMdHms";
+        private static final int[] WIDTHS = {4, 2, 2, 2, 2, 2};
+        private static final Layout ISO_SECONDS = compile("uuuu-MM-dd'T'HH:mm:ss");
+
+        static Layout compile(String pattern) {
+
+            StringBuilder template = new StringBuilder();
+            int[] positions = new int[LETTERS.length()];
+            Arrays.fill(positions, -1);
+
+            int i = 0;
+
+            while (i < pattern.length()) {
+
+                char c = pattern.charAt(i);
+
+                if (c == '\'') {
+
+                    if (i + 2 >= pattern.length() || pattern.charAt(i + 1) == '\'' || pattern.charAt(i + 2) != '\'') {
+                        return UNSUPPORTED;
+                    }
+
+                    template.append(pattern.charAt(i + 1));
+                    i += 3;
+                    continue;
+
+                }
+
+                if (SEPARATORS.indexOf(c) >= 0) {
+                    template.append(c);
+                    i++;
+                    continue;
+                }
+
+                int field = LETTERS.indexOf(c);
+                int end = i;
+
+                while (end < pattern.length() && pattern.charAt(end) == c) {
+                    end++;
+                }
+
+                if (field < 0 || end - i != WIDTHS[field] || positions[field] >= 0) {
+                    return UNSUPPORTED;
+                }
+
+                positions[field] = template.length();
+                template.append(String.valueOf(FIELD).repeat(WIDTHS[field]));
+                i = end;
+
+            }
+
+            return new Layout(template.toString().toCharArray(), positions);
+
+        }
+
+        boolean isValid() {
+            return template != null;
+        }
+
+        boolean isIsoSeconds() {
+            return isValid() && Arrays.equals(template, ISO_SECONDS.template)
+                    && Arrays.equals(positions, ISO_SECONDS.positions);
+        }
+
+        LocalDateTime parse(CharSequence text) {
+
+            if (!isValid() || text.length() != template.length) {
+                return null;
+            }
+
+            for (int field = YEAR; field <= MINUTE; field++) {
+                if (positions[field] < 0) {
+                    return null;
+                }
+            }
+
+            for (int i = 0; i < template.length; i++) {
+                if (template[i] != FIELD && template[i] != text.charAt(i)) {
+                    return null;
+                }
+            }
+
+            return DateTimeCodec.of(field(text, YEAR), field(text, MONTH), field(text, DAY), field(text, HOUR),
+                    field(text, MINUTE), positions[SECOND] < 0 ? 0 : field(text, SECOND), 0);
+
+        }
+
+        String format(LocalDateTime dateTime) {
+
+            char[] buf = template.clone();
+
+            put(buf, YEAR, dateTime.getYear());
+            put(buf, MONTH, dateTime.getMonthValue());
+            put(buf, DAY, dateTime.getDayOfMonth());
+            put(buf, HOUR, dateTime.getHour());
+            put(buf, MINUTE, dateTime.getMinute());
+            put(buf, SECOND, dateTime.getSecond());
+
+            return new String(buf);
+
+        }
+
+        private int field(CharSequence text, int field) {
+            return digits(text, positions[field], WIDTHS[field]);
+        }
+
+        private void put(char[] buf, int field, int value) {
+            if (positions[field] >= 0) {
+                putDigits(buf, positions[field], WIDTHS[field], value);
+            }
+        }
+    }
+}
@@ -0,0 +1,272 @@
+/*
+ * Copyright (c) 2024, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.formula.impl;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+import jp.mydns.projectk.formula.Element;
+import jp.mydns.projectk.formula.Formula;
+import jp.mydns.projectk.formula.FormulaParseException;
+import jp.mydns.projectk.formula.Function;
+
+/**
+ * Factory of the formula elements that returns one shared instance for the structurally identical elements. The same
+ * subtrees that appear in many formulas, such as {@code IfNull([name], ``)}, are held only once.
+ * <p>
+ * Elements are built from the bottom, so the children of an element are already shared, and two elements are
+ * identical if they are the same kind and have the same children. A function element is identical to another if it
+ * is made by the same function supplier with the same arguments. A function element whose function is not
+ * deterministic is never shared, because the function may keep the state of its call site.
+ * <p>
+ * The shared instances are weakly referenced, so the elements that no formula uses any longer can be garbage
+ * collected. The table of them is a concurrent map, so the parsers that share a factory do not serialize on it.
+ * <p>
+ * The factory returned by {@link #unshared()} makes a new element each time, and holds nothing.
+ * <p>
+ * This class is thread-safe.
+ *
+ * @author riru
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public final class ElementFactory {
+
+    private static final ElementFactory DEFAULT = new ElementFactory();
+    private static final ElementFactory UNSHARED = new ElementFactory(false);
+
+    private final ConcurrentMap<Object, CanonicalReference> canonicals = new ConcurrentHashMap<>();
+    private final ReferenceQueue<Object> queue = new ReferenceQueue<>();
+    private final boolean sharing;
+
+    /**
+     * Constructor.
+     *
+     * @since 1.0.0
+     */
+    public ElementFactory() {
+        this(true);
+    }
+
+    private ElementFactory(boolean sharing) {
+        this.sharing = sharing;
+    }
+
+    /**
+     * Get the factory that shared in this JVM. Function elements are shared only among the parsers that have the same
+     * function supplier, so the default factory can be used by any parser.
+     *
+     * @return the default {@code ElementFactory}
+     * @since 1.0.0
+     */
+    public static ElementFactory getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Get the factory that never shares the elements. Each call makes a new element, as the formulas that are parsed
+     * independently of each other.
+     *
+     * @return the {@code ElementFactory} that does not share the elements
+     * @since 1.0.0
+     */
+    public static ElementFactory unshared() {
+        return UNSHARED;
+    }
+
+    /**
+     * Get the literal value element.
+     *
+     * @param value the literal value
+     * @return the {@code FixedValueElement}
+     * @since 1.0.0
+     */
+    public FixedValueElement fixedValue(String value) {
+        return intern(new FixedValueKey(value), () -> new FixedValueElement(value));
+    }
+
+    /**
+     * Get the input value element.
+     *
+     * @param name name of the input value
+     * @return the {@code InputElement}
+     * @throws NullPointerException if {@code name} is {@code null}
+     * @since 1.0.0
+     */
+    public InputElement input(String name) {
+        return intern(new InputKey(Objects.requireNonNull(name)), () -> new InputElement(name));
+    }
+
+    /**
+     * Get the formula of the elements.
+     *
+     * @param elements the elements. They should be made by this factory.
+     * @return the {@code FormulaImpl}
+     * @throws NullPointerException if {@code elements} is {@code null} or contains {@code null}
+     * @since 1.0.0
+     */
+    public FormulaImpl formula(List<Element> elements) {
+        List<Element> copied = List.copyOf(elements);
+        return intern(new FormulaKey(copied), () -> new FormulaImpl(copied));
+    }
+
+    /**
+     * Get the function element. The function is made by {@code supplier} and specialized with the literal arguments.
+     *
+     * @param supplier supplier of the function
+     * @param args function arguments. They should be made by this factory.
+     * @return the {@code FunctionElement}
+     * @throws NullPointerException if any argument is {@code null} or if {@code args} contains {@code null}
+     * @throws FormulaParseException if a literal argument is invalid
+     * @since 1.0.0
+     * @see Function#specialize(Map, int)
+     */
+    public FunctionElement function(Supplier<? extends Function> supplier, List<Formula> args) {
+
+        Objects.requireNonNull(supplier);
+        List<Formula> copied = List.copyOf(args);
+
+        if (!sharing) {
+            return new FunctionElement(supplier.get().specialize(FunctionElement.literalsOf(copied), copied.size()),
+                    copied);
+        }
+
+        FunctionKey key = new FunctionKey(supplier, copied);
+
+        FunctionElement shared = lookup(key);
+
+        if (shared != null) {
+            return shared;
+        }
+
+        Function function = supplier.get().specialize(FunctionElement.literalsOf(copied), copied.size());
+        FunctionElement element = new FunctionElement(function, copied);
+
+        return function.isDeterministic() ? intern(key, () -> element) : element;
+
+    }
+
+    /**
+     * Get the number of the shared elements that are alive.
+     *
+     * @return the number of the shared elements
+     * @since 1.0.0
+     */
+    public int size() {
+        expunge();
+        return canonicals.size();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <E> E lookup(Object key) {
+
+        expunge();
+
+        CanonicalReference reference = canonicals.get(key);
+
+        return reference == null ? null : (E) reference.get();
+
+    }
+
+    @SuppressWarnings("unchecked")
+    private <E> E intern(Object key, Supplier<E> builder) {
+
+        if (!sharing) {
+            return builder.get();
+        }
+
+        expunge();
+
+        while (true) {
+
+            CanonicalReference reference = canonicals.get(key);
+            E shared = reference == null ? null : (E) reference.get();
+
+            if (shared != null) {
+                return shared;
+            }
+
+            // Note: A concurrent thread may intern the same key first, then its element is used instead of this.
+            E element = builder.get();
+            CanonicalReference created = new CanonicalReference(element, key, queue);
+
+            if (reference == null ? canonicals.putIfAbsent(key, created) == null
+                    : canonicals.replace(key, reference, created)) {
+                return element;
+            }
+
+        }
+    }
+
+    private void expunge() {
+
+        Object reference;
+
+        while ((reference = queue.poll()) != null) {
+            CanonicalReference canonical = (CanonicalReference) reference;
+            canonicals.remove(canonical.key, canonical);
+        }
+    }
+
+    /**
+     * Returns a string representation of this.
+     *
+     * @return a string representation
+     * @since 1.0.0
+     */
+    @Override
+    public String toString() {
+        return "ElementFactory{" + "sharing=" + sharing + ", size=" + canonicals.size() + '}';
+    }
+
+    private static final class CanonicalReference extends WeakReference<Object> {
+
+        private final Object key;
+
+        CanonicalReference(Object referent, Object key, ReferenceQueue<Object> queue) {
+            super(referent, queue);
+            this.key = key;
+        }
+    }
+
+    // Note: The children in the keys are shared instances, so they are compared by identity.
+    private record FixedValueKey(String value) {
+    }
+
+    private record InputKey(String name) {
+    }
+
+    private record FormulaKey(List<Element> elements) {
+    }
+
+    private record FunctionKey(Object supplier, List<Formula> args) {
+    }
+}
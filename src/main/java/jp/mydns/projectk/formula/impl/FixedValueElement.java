@@ -61,6 +61,16 @@ public class FixedValueElement implements Element {
         return value;
     }
 
+    /**
+     * Get this element value.
+     *
+     * @return this element value. It may be {@code null}.
+     * @since 1.0.0
+     */
+    public String getValue() {
+        return value;
+    }
+
     /**
      * Returns a string representation of this.
      *
@@ -75,6 +75,41 @@ public class FormulaImpl implements Formula {
 
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Known input values are substituted with fixed values, and then the functions are folded into fixed values if
+     * possible, and the branches that are never taken are eliminated.
+     *
+     * @throws NullPointerException if {@code knownInputs} is {@code null}
+     * @since 1.0.0
+     */
+    @Override
+    public Formula specialize(Map<String, String> knownInputs) {
+        return new Specializer(knownInputs).specialize(this);
+    }
+
+    /**
+     * Whether this formula consists only of fixed values. A constant formula returns the same result for any input
+     * values.
+     *
+     * @return {@code true} if constant
+     * @since 1.0.0
+     */
+    public boolean isConstant() {
+        return elements.stream().allMatch(FixedValueElement.class::isInstance);
+    }
+
+    /**
+     * Get the elements of this formula.
+     *
+     * @return elements of formula
+     * @since 1.0.0
+     */
+    public List<Element> getElements() {
+        return elements;
+    }
+
     /**
      * Returns a string representation of this.
      *
@@ -25,6 +25,8 @@
  */
 package jp.mydns.projectk.formula.impl;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -44,6 +46,7 @@ public class FunctionElement implements Element {
 
     private final Function function;
     private final List<Formula> args;
+    private final FunctionElement[] typedArgs;
 
     /**
      * Constructor.
@@ -56,6 +59,7 @@ public class FunctionElement implements Element {
     public FunctionElement(Function function, List<Formula> args) {
         this.function = Objects.requireNonNull(function);
         this.args = List.copyOf(args);
+        this.typedArgs = this.args.stream().map(FunctionElement::typedOf).toArray(FunctionElement[]::new);
     }
 
     /**
@@ -71,7 +75,7 @@ public class FunctionElement implements Element {
         Objects.requireNonNull(inputs);
 
         try {
-            return function.execute(args.stream().map(a -> new ArgumentImpl(a, inputs)).toArray(Function.Argument[]::new));
+            return function.execute(argumentsOf(inputs));
         } catch (FormulaExecutionException ex) {
             throw ex;
         } catch (RuntimeException ex) {
@@ -79,6 +83,122 @@ public class FunctionElement implements Element {
         }
     }
 
+    private LocalDateTime calculateTemporal(Map<String, String> inputs) {
+        try {
+            return TemporalFunction.class.cast(function).executeTemporal(argumentsOf(inputs));
+        } catch (FormulaExecutionException ex) {
+            throw ex;
+        } catch (RuntimeException ex) {
+            throw new FormulaExecutionException("Occurs unexpected exception while calculating formula.");
+        }
+    }
+
+    private boolean calculateBoolean(Map<String, String> inputs) {
+        try {
+            return BooleanFunction.class.cast(function).executeBoolean(argumentsOf(inputs));
+        } catch (FormulaExecutionException ex) {
+            throw ex;
+        } catch (RuntimeException ex) {
+            throw new FormulaExecutionException("Occurs unexpected exception while calculating formula.");
+        }
+    }
+
+    private Numeric calculateNumeric(Map<String, String> inputs) {
+        try {
+            return NumericFunction.class.cast(function).executeNumeric(argumentsOf(inputs));
+        } catch (FormulaExecutionException ex) {
+            throw ex;
+        } catch (RuntimeException ex) {
+            throw new FormulaExecutionException("Occurs unexpected exception while calculating formula.");
+        }
+    }
+
+    private Function.Argument[] argumentsOf(Map<String, String> inputs) {
+
+        Function.Argument[] arguments = new Function.Argument[args.size()];
+
+        for (int i = 0; i < arguments.length; i++) {
+
+            FunctionElement typed = typedArgs[i];
+
+            if (typed == null) {
+                arguments[i] = new ArgumentImpl(args.get(i), inputs);
+            } else if (typed.function instanceof TemporalFunction) {
+                arguments[i] = new TemporalArgumentImpl(args.get(i), typed, inputs);
+            } else if (typed.function instanceof NumericFunction) {
+                arguments[i] = new NumericArgumentImpl(args.get(i), typed, inputs);
+            } else {
+                arguments[i] = new BooleanArgumentImpl(args.get(i), typed, inputs);
+            }
+        }
+
+        return arguments;
+
+    }
+
+    // Note: An argument formula that consists only of a function with a typed result is evaluated without the string.
+    private static FunctionElement typedOf(Formula arg) {
+
+        if (arg instanceof FormulaImpl f && f.getElements().size() == 1
+                && f.getElements().get(0) instanceof FunctionElement e
+                && (e.function instanceof TemporalFunction || e.function instanceof BooleanFunction
+                || e.function instanceof NumericFunction)) {
+            return e;
+        }
+
+        return null;
+
+    }
+
+    /**
+     * Get the literal values of the function arguments. A constant argument is treated as a literal.
+     *
+     * @param args function arguments
+     * @return literal argument values by argument index. The arguments that are not literal are not contained.
+     * @throws NullPointerException if {@code args} is {@code null} or if {@code args} contains {@code null}
+     * @since 1.0.0
+     * @see Function#specialize(Map)
+     */
+    public static Map<Integer, String> literalsOf(List<Formula> args) {
+
+        Map<Integer, String> literals = new HashMap<>();
+
+        for (int i = 0; i < args.size(); i++) {
+
+            if (Objects.requireNonNull(args.get(i)) instanceof FormulaImpl f && f.isConstant()) {
+
+                String value = f.calculate(Map.of());
+
+                if (value != null) {
+                    literals.put(i, value);
+                }
+            }
+        }
+
+        return literals;
+
+    }
+
+    /**
+     * Get the formula function.
+     *
+     * @return the {@code Function}
+     * @since 1.0.0
+     */
+    public Function getFunction() {
+        return function;
+    }
+
+    /**
+     * Get the function arguments.
+     *
+     * @return function arguments
+     * @since 1.0.0
+     */
+    public List<Formula> getArgs() {
+        return args;
+    }
+
     /**
      * Returns a string representation of this.
      *
@@ -109,4 +229,55 @@ public class FunctionElement implements Element {
             return "Function.Argument{" + "formula=" + formula + ", inputs=" + inputs + '}';
         }
     }
+
+    private class TemporalArgumentImpl extends ArgumentImpl implements TemporalArgument {
+
+        private final FunctionElement element;
+        private final Map<String, String> inputs;
+
+        TemporalArgumentImpl(Formula formula, FunctionElement element, Map<String, String> inputs) {
+            super(formula, inputs);
+            this.element = element;
+            this.inputs = inputs;
+        }
+
+        @Override
+        public LocalDateTime resolveLocalDateTime() {
+            return element.calculateTemporal(inputs);
+        }
+    }
+
+    private class BooleanArgumentImpl extends ArgumentImpl implements BooleanArgument {
+
+        private final FunctionElement element;
+        private final Map<String, String> inputs;
+
+        BooleanArgumentImpl(Formula formula, FunctionElement element, Map<String, String> inputs) {
+            super(formula, inputs);
+            this.element = element;
+            this.inputs = inputs;
+        }
+
+        @Override
+        public boolean resolveBoolean() {
+            return element.calculateBoolean(inputs);
+        }
+    }
+
+    private class NumericArgumentImpl extends ArgumentImpl implements NumericArgument {
+
+        private final FunctionElement element;
+        private final Map<String, String> inputs;
+
+        NumericArgumentImpl(Formula formula, FunctionElement element, Map<String, String> inputs) {
+            super(formula, inputs);
+            this.element = element;
+            this.inputs = inputs;
+        }
+
+        @Override
+        public Numeric resolveNumeric() {
+            return element.calculateNumeric(inputs);
+        }
+    }
 }
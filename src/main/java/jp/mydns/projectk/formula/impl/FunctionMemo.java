@@ -0,0 +1,237 @@
+/*
+ * Copyright (c) 2024, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.formula.impl;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import jp.mydns.projectk.formula.CacheStatistics;
+import jp.mydns.projectk.formula.FormulaExecutionException;
+import jp.mydns.projectk.formula.Function;
+
+/**
+ * Bounded memo of formula function results, keyed by the resolved argument values.
+ * <p>
+ * The memo watches its own hit rate. If the hit rate within a sampling window falls below the minimum, the memo is
+ * bypassed for a while, and then it is tried again from an empty state. So the call site that receives a different
+ * value each time does not pay the cost of hashing for nothing.
+ * <p>
+ * Neither the lookup nor the hit rate accounting takes a lock, so the threads that evaluate the same formula do not
+ * serialize on the memo.
+ * <p>
+ * An instance held by a function instance becomes a per-call-site memo, because the {@code Parser} creates a function
+ * instance for each call site. An instance held by a static field becomes a memo shared by all call sites.
+ *
+ * @author riru
+ * @version 1.0.0
+ * @since 1.0.0
+ * @see AbstractFunction#getMemo()
+ */
+public class FunctionMemo {
+
+    private static final int DEFAULT_SAMPLING_WINDOW = 1024;
+    private static final double DEFAULT_MINIMUM_HIT_RATE = 0.25;
+    private static final int DEFAULT_BYPASS_WINDOWS = 16;
+
+    private static final Object NULL_KEY = new Object();
+    private static final String NULL_RESULT = new String();
+
+    private final LruCache<Object, String> cache;
+    private final int samplingWindow;
+    private final double minimumHitRate;
+    private final int bypassCount;
+
+    private final AtomicInteger windowLookups = new AtomicInteger();
+    private final AtomicInteger windowHits = new AtomicInteger();
+    private final AtomicInteger bypassRemaining = new AtomicInteger();
+
+    /**
+     * Construct with default adaptive settings.
+     *
+     * @param maximumSize maximum number of memorized results
+     * @throws IllegalArgumentException if {@code maximumSize} is negative
+     * @since 1.0.0
+     */
+    public FunctionMemo(int maximumSize) {
+        this(maximumSize, DEFAULT_SAMPLING_WINDOW, DEFAULT_MINIMUM_HIT_RATE,
+                DEFAULT_SAMPLING_WINDOW * DEFAULT_BYPASS_WINDOWS);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param maximumSize maximum number of memorized results
+     * @param samplingWindow number of lookups to judge the hit rate
+     * @param minimumHitRate minimum hit rate to keep the memo enabled
+     * @param bypassCount number of calls that bypass the memo when the hit rate falls below the minimum
+     * @throws IllegalArgumentException if {@code maximumSize} or {@code bypassCount} is negative, or if
+     * {@code samplingWindow} is not positive
+     * @since 1.0.0
+     */
+    public FunctionMemo(int maximumSize, int samplingWindow, double minimumHitRate, int bypassCount) {
+
+        if (samplingWindow <= 0) {
+            throw new IllegalArgumentException("Sampling window must be positive.");
+        }
+
+        if (bypassCount < 0) {
+            throw new IllegalArgumentException("Bypass count can not negative.");
+        }
+
+        this.cache = new LruCache<>(maximumSize);
+        this.samplingWindow = samplingWindow;
+        this.minimumHitRate = minimumHitRate;
+        this.bypassCount = bypassCount;
+
+    }
+
+    /**
+     * Get the memorized result, or calculate and memorize it. All arguments are resolved before lookup, and the
+     * {@code calculation} receives the resolved values as fixed value arguments.
+     *
+     * @param args function arguments
+     * @param calculation calculation of the function
+     * @return result of the function. It may be {@code null}.
+     * @throws NullPointerException if any argument is {@code null} or if {@code args} contains {@code null}
+     * @throws FormulaExecutionException if occurs an any error in calculation
+     * @since 1.0.0
+     */
+    public String execute(Function.Argument[] args,
+            java.util.function.Function<Function.Argument[], String> calculation) {
+
+        Objects.requireNonNull(calculation);
+
+        if (!admit()) {
+            return calculation.apply(args);
+        }
+
+        String[] values = new String[args.length];
+
+        for (int i = 0; i < args.length; i++) {
+            values[i] = args[i].resolve();
+        }
+
+        Object key = keyOf(values);
+        String memorized = cache.get(key);
+
+        boolean keepEnabled = record(memorized != null);
+
+        if (memorized != null) {
+            return memorized == NULL_RESULT ? null : memorized;
+        }
+
+        Function.Argument[] resolved = new Function.Argument[values.length];
+
+        for (int i = 0; i < values.length; i++) {
+            resolved[i] = Function.Argument.of(values[i]);
+        }
+
+        String result = calculation.apply(resolved);
+
+        if (keepEnabled) {
+            cache.put(key, result == null ? NULL_RESULT : result);
+        }
+
+        return result;
+
+    }
+
+    /**
+     * Whether lookups are currently enabled.
+     *
+     * @return {@code true} if enabled, {@code false} if bypassed due to low hit rate
+     * @since 1.0.0
+     */
+    public boolean isEnabled() {
+        return bypassRemaining.get() <= 0;
+    }
+
+    /**
+     * Get the statistics of the memorized results.
+     *
+     * @return current statistics
+     * @since 1.0.0
+     */
+    public CacheStatistics getStatistics() {
+        return cache.getStatistics();
+    }
+
+    private static Object keyOf(String[] values) {
+
+        // Note: A single value is the key itself, so the most common call does not allocate a list.
+        if (values.length == 1) {
+            return values[0] == null ? NULL_KEY : values[0];
+        }
+
+        return Arrays.asList(values);
+
+    }
+
+    private boolean admit() {
+
+        // Note: The counter is read before it is decremented, so the enabled memo does not write to it.
+        return bypassRemaining.get() <= 0 || bypassRemaining.getAndDecrement() <= 0;
+
+    }
+
+    private boolean record(boolean hit) {
+
+        if (hit) {
+            windowHits.incrementAndGet();
+        }
+
+        int lookups = windowLookups.incrementAndGet();
+
+        // Note: Only the thread that fills the window judges it. The lookups counted meanwhile go to the next window.
+        if (lookups != samplingWindow) {
+            return true;
+        }
+
+        int hits = windowHits.getAndSet(0);
+        windowLookups.addAndGet(-lookups);
+
+        boolean keepEnabled = (double) hits / lookups >= minimumHitRate;
+
+        if (!keepEnabled) {
+            bypassRemaining.set(bypassCount);
+            cache.clear();
+        }
+
+        return keepEnabled;
+
+    }
+
+    /**
+     * Returns a string representation of this.
+     *
+     * @return a string representation
+     * @since 1.0.0
+     */
+    @Override
+    public String toString() {
+        return "FunctionMemo{" + "enabled=" + isEnabled() + ", statistics=" + getStatistics() + '}';
+    }
+}
@@ -65,6 +65,16 @@ public class InputElement implements Element {
         return Objects.requireNonNull(inputs).get(name);
     }
 
+    /**
+     * Get the name of input value.
+     *
+     * @return name of input value
+     * @since 1.0.0
+     */
+    public String getName() {
+        return name;
+    }
+
     /**
      * Returns a string representation of this.
      *
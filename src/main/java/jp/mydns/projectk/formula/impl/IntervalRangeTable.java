@@ -0,0 +1,323 @@
+/*
+ * Copyright (c) 2024, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.formula.impl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import jp.mydns.projectk.formula.RangeTable;
+
+/**
+ * {@code RangeTable} that finds the range by binary search over the ranges sorted by the lower bound. Each range also
+ * keeps the greatest upper bound of the ranges up to it, so the search walks back over the overlapping ranges only,
+ * and stops at the first range that cannot reach the key. Ranges that do not overlap are found in O(log n).
+ * <p>
+ * A range contains the lower bound and does not contain the upper bound. A {@code null} bound is unbounded.
+ * <p>
+ * This class is immutable and thread-safe.
+ *
+ * @author riru
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public final class IntervalRangeTable implements RangeTable {
+
+    private final Order order;
+    private final Comparable<Object>[] lowers;
+    private final Comparable<Object>[] uppers;
+    private final Comparable<Object>[] reaches;
+    private final String[] values;
+
+    /**
+     * Constructor.
+     *
+     * @param order order of the bounds and the keys
+     * @param ranges the ranges. If the ranges have the same lower bound and overlap, the latter is chosen.
+     * @throws NullPointerException if any argument is {@code null}, or {@code ranges} contains {@code null}
+     * @throws IllegalArgumentException if a bound is invalid in {@code order}, or the lower bound is not less than the
+     * upper bound
+     * @since 1.0.0
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public IntervalRangeTable(Order order, List<Range> ranges) {
+
+        this.order = Objects.requireNonNull(order);
+
+        Range[] sorted = ranges.toArray(Range[]::new);
+        Comparable<Object>[] lowerKeys = new Comparable[sorted.length];
+
+        for (int i = 0; i < sorted.length; i++) {
+            lowerKeys[i] = requireBound(sorted[i].lower());
+        }
+
+        Integer[] indexes = new Integer[sorted.length];
+        Arrays.setAll(indexes, i -> i);
+        Arrays.sort(indexes, Comparator.comparing(i -> lowerKeys[i], Comparator.nullsFirst(Comparator.naturalOrder())));
+
+        this.lowers = new Comparable[sorted.length];
+        this.uppers = new Comparable[sorted.length];
+        this.reaches = new Comparable[sorted.length];
+        this.values = new String[sorted.length];
+
+        Comparable<Object> reach = null;
+
+        for (int i = 0; i < indexes.length; i++) {
+
+            Range range = sorted[indexes[i]];
+            Comparable<Object> upper = requireBound(range.upper());
+
+            if (lowerKeys[indexes[i]] != null && upper != null && lowerKeys[indexes[i]].compareTo(upper) >= 0) {
+                throw new IllegalArgumentException("Lower bound must be less than upper bound. [%s]".formatted(range));
+            }
+
+            if (i == 0) {
+                reach = upper;
+            } else if (reach != null) {
+                reach = upper == null || reach.compareTo(upper) < 0 ? upper : reach;
+            }
+
+            this.lowers[i] = lowerKeys[indexes[i]];
+            this.uppers[i] = upper;
+            this.reaches[i] = reach;
+            this.values[i] = range.value();
+
+        }
+    }
+
+    private Comparable<Object> requireBound(String bound) {
+
+        if (bound == null) {
+            return null;
+        }
+
+        Comparable<Object> key = order.keyOf(bound);
+
+        if (key == null) {
+            throw new IllegalArgumentException("Invalid bound. [%s]".formatted(bound));
+        }
+
+        return key;
+
+    }
+
+    /**
+     * Load the ranges from a tab-separated file. Each line consists of the lower bound, the upper bound and the value.
+     * An empty bound is unbounded. Empty lines and the lines beginning with {@code #} are ignored.
+     *
+     * @param path path of the file. It is read as UTF-8.
+     * @param order order of the bounds and the keys
+     * @return the {@code IntervalRangeTable}
+     * @throws NullPointerException if any argument is {@code null}
+     * @throws IOException if an I/O error occurs or the file contains an invalid line
+     * @since 1.0.0
+     */
+    public static IntervalRangeTable load(Path path, Order order) throws IOException {
+
+        Objects.requireNonNull(path);
+        Objects.requireNonNull(order);
+
+        List<Range> ranges = new ArrayList<>();
+
+        try (BufferedReader reader = Files.newBufferedReader(path, UTF_8)) {
+
+            String line;
+            int lineNumber = 0;
+
+            while ((line = reader.readLine()) != null) {
+
+                lineNumber++;
+
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+
+                String[] fields = line.split("\t", -1);
+
+                if (fields.length != 3) {
+                    throw new IOException("Invalid range table line. [%s:%d]".formatted(path, lineNumber));
+                }
+
+                ranges.add(new Range(emptyToNull(fields[0]), emptyToNull(fields[1]), fields[2]));
+
+            }
+        }
+
+        try {
+            return new IntervalRangeTable(order, ranges);
+        } catch (IllegalArgumentException ex) {
+            throw new IOException("Invalid range table. [%s]".formatted(path), ex);
+        }
+    }
+
+    private static String emptyToNull(String field) {
+        return field.isEmpty() ? null : field;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return the value of the range. It is {@code null} if no range contains the key, or the key is invalid in the
+     * order of this table.
+     * @since 1.0.0
+     */
+    @Override
+    public String get(String key) {
+
+        Comparable<Object> k = order.keyOf(Objects.requireNonNull(key));
+
+        if (k == null) {
+            return null;
+        }
+
+        int low = 0;
+        int high = lowers.length - 1;
+        int last = -1;
+
+        while (low <= high) {
+
+            int mid = (low + high) >>> 1;
+
+            if (lowers[mid] == null || lowers[mid].compareTo(k) <= 0) {
+                last = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+
+        }
+
+        for (int i = last; i >= 0; i--) {
+
+            if (reaches[i] != null && reaches[i].compareTo(k) <= 0) {
+                break;
+            }
+
+            if (uppers[i] == null || k.compareTo(uppers[i]) < 0) {
+                return values[i];
+            }
+
+        }
+
+        return null;
+
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since 1.0.0
+     */
+    @Override
+    public int size() {
+        return values.length;
+    }
+
+    /**
+     * Returns a string representation of this.
+     *
+     * @return a string representation
+     * @since 1.0.0
+     */
+    @Override
+    public String toString() {
+        return "IntervalRangeTable{" + "order=" + order + ", size=" + values.length + '}';
+    }
+
+    /**
+     * A range and its value.
+     *
+     * @param lower the lower bound that is contained. It is {@code null} if unbounded.
+     * @param upper the upper bound that is not contained. It is {@code null} if unbounded.
+     * @param value the value
+     * @author riru
+     * @version 1.0.0
+     * @since 1.0.0
+     */
+    public record Range(String lower, String upper, String value) {
+
+        /**
+         * Constructor.
+         *
+         * @param lower the lower bound that is contained. It is {@code null} if unbounded.
+         * @param upper the upper bound that is not contained. It is {@code null} if unbounded.
+         * @param value the value
+         * @throws NullPointerException if {@code value} is {@code null}
+         * @since 1.0.0
+         */
+        public Range {
+            Objects.requireNonNull(value);
+        }
+    }
+
+    /**
+     * Order of the bounds and the keys.
+     *
+     * @author riru
+     * @version 1.0.0
+     * @since 1.0.0
+     */
+    public enum Order {
+
+        /**
+         * Order of {@link String#compareTo(String)}. It suits ISO-8601 dates and datetimes.
+         *
+         * @since 1.0.0
+         */
+        TEXT {
+            @Override
+            @SuppressWarnings("unchecked")
+            Comparable<Object> keyOf(String value) {
+                return (Comparable<Object>) (Comparable<?>) value;
+            }
+        },
+        /**
+         * Numerical order of the decimal numbers.
+         *
+         * @since 1.0.0
+         */
+        NUMBER {
+            @Override
+            @SuppressWarnings("unchecked")
+            Comparable<Object> keyOf(String value) {
+                try {
+                    return (Comparable<Object>) (Comparable<?>) new BigDecimal(value);
+                } catch (NumberFormatException ex) {
+                    return null;
+                }
+            }
+        };
+
+        abstract Comparable<Object> keyOf(String value);
+    }
+}
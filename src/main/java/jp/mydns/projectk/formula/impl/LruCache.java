@@ -0,0 +1,239 @@
+/*
+ * Copyright (c) 2024, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.formula.impl;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import jp.mydns.projectk.formula.CacheStatistics;
+
+/**
+ * Bounded cache that evicts an entry that was not used recently. The least recently used order is approximated by the
+ * second chance algorithm, so a lookup does not take a lock nor reorder the entries. All operations are thread-safe.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ * @author riru
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public class LruCache<K, V> {
+
+    private final ConcurrentMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final Queue<K> order = new ConcurrentLinkedQueue<>();
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+    private volatile int maximumSize;
+
+    /**
+     * Constructor.
+     *
+     * @param maximumSize maximum number of entries
+     * @throws IllegalArgumentException if {@code maximumSize} is negative
+     * @since 1.0.0
+     */
+    public LruCache(int maximumSize) {
+        this.maximumSize = requireValidSize(maximumSize);
+    }
+
+    /**
+     * Get the cached value.
+     *
+     * @param key the key
+     * @return cached value. {@code null} if not cached.
+     * @throws NullPointerException if {@code key} is {@code null}
+     * @since 1.0.0
+     */
+    public V get(K key) {
+
+        Entry<V> entry = entries.get(Objects.requireNonNull(key));
+
+        if (entry == null) {
+            missCount.increment();
+            return null;
+        }
+
+        hitCount.increment();
+
+        // Note: The flag is written only when it changes, so the frequently used entry is not written each time.
+        if (!entry.referenced) {
+            entry.referenced = true;
+        }
+
+        return entry.value;
+
+    }
+
+    /**
+     * Put the value. If the number of entries exceeds the maximum size, the entries that were not used recently are
+     * evicted.
+     *
+     * @param key the key
+     * @param value the value
+     * @throws NullPointerException if any argument is {@code null}
+     * @since 1.0.0
+     */
+    public void put(K key, V value) {
+
+        Entry<V> entry = new Entry<>(Objects.requireNonNull(value));
+
+        if (entries.put(Objects.requireNonNull(key), entry) == null) {
+            order.offer(key);
+        }
+
+        evictOverflow();
+
+    }
+
+    /**
+     * Get the cached value, or compute and cache it if not cached. The {@code mapping} is called without holding the
+     * lock, so it may be called more than once for the same key by concurrent threads.
+     *
+     * @param key the key
+     * @param mapping function that compute a value from key. It must not return {@code null}.
+     * @return cached or computed value
+     * @throws NullPointerException if any argument is {@code null} or if {@code mapping} returns {@code null}
+     * @since 1.0.0
+     */
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mapping) {
+
+        Objects.requireNonNull(mapping);
+
+        V value = get(key);
+
+        if (value == null) {
+            value = Objects.requireNonNull(mapping.apply(key));
+            put(key, value);
+        }
+
+        return value;
+
+    }
+
+    /**
+     * Change the maximum size. Overflowed entries are evicted immediately.
+     *
+     * @param maximumSize maximum number of entries
+     * @throws IllegalArgumentException if {@code maximumSize} is negative
+     * @since 1.0.0
+     */
+    public void setMaximumSize(int maximumSize) {
+        this.maximumSize = requireValidSize(maximumSize);
+        evictOverflow();
+    }
+
+    /**
+     * Remove all entries. Statistics are not reset.
+     *
+     * @since 1.0.0
+     */
+    public void clear() {
+
+        // Note: The order is cleared first, so a concurrently put entry is never left out of the order.
+        order.clear();
+        entries.clear();
+
+    }
+
+    /**
+     * Get the statistics of this cache.
+     *
+     * @return current statistics
+     * @since 1.0.0
+     */
+    public CacheStatistics getStatistics() {
+        return new CacheStatistics(hitCount.sum(), missCount.sum(), evictionCount.sum(), entries.size(), maximumSize);
+    }
+
+    private void evictOverflow() {
+
+        int secondChances = 0;
+
+        while (entries.size() > maximumSize) {
+
+            K key = order.poll();
+
+            if (key == null) {
+                return;
+            }
+
+            Entry<V> entry = entries.get(key);
+
+            if (entry == null) {
+                continue;
+            }
+
+            if (entry.referenced && secondChances++ < maximumSize) {
+                entry.referenced = false;
+                order.offer(key);
+                continue;
+            }
+
+            if (entries.remove(key, entry)) {
+                evictionCount.increment();
+            } else if (entries.containsKey(key)) {
+                order.offer(key);
+            }
+
+        }
+    }
+
+    private int requireValidSize(int size) {
+
+        if (size < 0) {
+            throw new IllegalArgumentException("Maximum size can not negative.");
+        }
+
+        return size;
+
+    }
+
+    /**
+     * Returns a string representation of this.
+     *
+     * @return a string representation
+     * @since 1.0.0
+     */
+    @Override
+    public String toString() {
+        return "LruCache{" + "statistics=" + getStatistics() + '}';
+    }
+
+    private static class Entry<V> {
+
+        private final V value;
+        private volatile boolean referenced;
+
+        private Entry(V value) {
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,263 @@
+/*
+ * Copyright (c) 2024, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.formula.impl;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import jp.mydns.projectk.formula.LookupTable;
+
+/**
+ * {@code LookupTable} that reads a sorted dictionary file through a read-only memory mapping. The file is never read
+ * onto the heap, so a table with millions of entries costs no heap, and the processes that map the same file share
+ * the page cache. A key is found by binary search over the mapped index, comparing the bytes in place; only the value
+ * that was found is copied.
+ * <p>
+ * <b>File format</b>
+ * <table border="1"><caption>Dictionary file layout. All integers are big-endian.</caption>
+ * <thead><tr><th>Offset</th><th>Size</th><th>Description</th></tr></thead>
+ * <tbody>
+ * <tr><td>0</td><td>4</td><td>Magic number {@code "KFLT"}.</td></tr>
+ * <tr><td>4</td><td>4</td><td>Format version. It is {@code 1}.</td></tr>
+ * <tr><td>8</td><td>4</td><td>Number of entries.</td></tr>
+ * <tr><td>12</td><td>16 * entries</td><td>Index entries in ascending order of the UTF-8 key bytes. Each entry is the
+ * offset and the length of the key, and the offset and the length of the value.</td></tr>
+ * <tr><td>...</td><td>...</td><td>UTF-8 bytes of the keys and the values.</td></tr>
+ * </tbody></table>
+ * <p>
+ * The file is written by {@link #write(Path, Map)}. It must be smaller than 2 GiB.
+ * <p>
+ * This class is immutable and thread-safe.
+ *
+ * @author riru
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public final class MappedLookupTable implements LookupTable {
+
+    private static final int MAGIC = 0x4B464C54;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 12;
+    private static final int ENTRY_SIZE = 16;
+
+    private final Path path;
+    private final ByteBuffer buffer;
+    private final int size;
+
+    private MappedLookupTable(Path path, ByteBuffer buffer, int size) {
+        this.path = path;
+        this.buffer = buffer;
+        this.size = size;
+    }
+
+    /**
+     * Open the dictionary file. The mapping is kept after the file channel is closed, until this table is garbage
+     * collected.
+     *
+     * @param path path of the dictionary file
+     * @return the {@code MappedLookupTable}
+     * @throws NullPointerException if {@code path} is {@code null}
+     * @throws IOException if an I/O error occurs or the file is not a valid dictionary file
+     * @since 1.0.0
+     */
+    public static MappedLookupTable open(Path path) throws IOException {
+
+        Objects.requireNonNull(path);
+
+        MappedByteBuffer buffer;
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Too large lookup table file. [%s]".formatted(path));
+            }
+
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+        }
+
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a lookup table file. [%s]".formatted(path));
+        }
+
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Unsupported lookup table version. [%s]".formatted(path));
+        }
+
+        int size = buffer.getInt(8);
+
+        if (size < 0 || HEADER_SIZE + (long) size * ENTRY_SIZE > buffer.limit()) {
+            throw new IOException("Broken lookup table file. [%s]".formatted(path));
+        }
+
+        return new MappedLookupTable(path, buffer, size);
+
+    }
+
+    /**
+     * Write the entries as a dictionary file. An existing file is replaced.
+     *
+     * @param path path of the dictionary file
+     * @param entries the entries
+     * @throws NullPointerException if any argument is {@code null}, or {@code entries} contains {@code null}
+     * @throws IllegalArgumentException if the file would be 2 GiB or larger
+     * @throws IOException if an I/O error occurs
+     * @since 1.0.0
+     */
+    public static void write(Path path, Map<String, String> entries) throws IOException {
+
+        Objects.requireNonNull(path);
+        Objects.requireNonNull(entries);
+
+        byte[][] keys = new byte[entries.size()][];
+        byte[][] values = new byte[entries.size()][];
+        Integer[] order = new Integer[entries.size()];
+
+        int n = 0;
+        long dataSize = 0;
+
+        for (Map.Entry<String, String> e : entries.entrySet()) {
+            keys[n] = e.getKey().getBytes(UTF_8);
+            values[n] = e.getValue().getBytes(UTF_8);
+            order[n] = n;
+            dataSize += keys[n].length + values[n].length;
+            n++;
+        }
+
+        long offset = HEADER_SIZE + (long) n * ENTRY_SIZE;
+
+        if (offset + dataSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too large lookup table.");
+        }
+
+        Arrays.sort(order, (a, b) -> Arrays.compareUnsigned(keys[a], keys[b]));
+
+        try (OutputStream os = Files.newOutputStream(path);
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(os))) {
+
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(n);
+
+            for (int i : order) {
+                out.writeInt((int) offset);
+                out.writeInt(keys[i].length);
+                offset += keys[i].length;
+                out.writeInt((int) offset);
+                out.writeInt(values[i].length);
+                offset += values[i].length;
+            }
+
+            for (int i : order) {
+                out.write(keys[i]);
+                out.write(values[i]);
+            }
+
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since 1.0.0
+     */
+    @Override
+    public String get(String key) {
+
+        byte[] target = key.getBytes(UTF_8);
+
+        int low = 0;
+        int high = size - 1;
+
+        while (low <= high) {
+
+            int mid = (low + high) >>> 1;
+            int entry = HEADER_SIZE + mid * ENTRY_SIZE;
+            int cmp = compareKey(buffer.getInt(entry), buffer.getInt(entry + 4), target);
+
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                byte[] value = new byte[buffer.getInt(entry + 12)];
+                buffer.get(buffer.getInt(entry + 8), value);
+                return new String(value, UTF_8);
+            }
+
+        }
+
+        return null;
+
+    }
+
+    private int compareKey(int offset, int length, byte[] target) {
+
+        int common = Math.min(length, target.length);
+
+        for (int i = 0; i < common; i++) {
+            int cmp = Byte.compareUnsigned(buffer.get(offset + i), target[i]);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+
+        return length - target.length;
+
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since 1.0.0
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns a string representation of this.
+     *
+     * @return a string representation
+     * @since 1.0.0
+     */
+    @Override
+    public String toString() {
+        return "MappedLookupTable{" + "path=" + path + ", size=" + size + '}';
+    }
+}
@@ -0,0 +1,413 @@
+/*
+ * Copyright (c) 2024, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.formula.impl;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.Objects;
+
+/**
+ * Decimal number of the arithmetic functions. A number whose unscaled value fits in {@code long} and whose scale is
+ * between 0 and {@value #MAX_FAST_SCALE} is held as the primitive {@code long} and the scale, and is calculated by the
+ * primitive arithmetic. The others, and the results that overflow, are held as {@code BigDecimal}.
+ * <p>
+ * The value and the scale of every result are same as the {@code BigDecimal} arithmetic, so the representation never
+ * affects the result. {@link #toString()} is the plain notation of {@link BigDecimal#toPlainString()}.
+ * <p>
+ * This class is immutable and thread-safe.
+ *
+ * @author riru
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public final class Numeric {
+
+    private static final int MAX_FAST_SCALE = 18;
+    private static final int MAX_FAST_DIGITS = 18;
+    private static final long[] POW10 = new long[MAX_FAST_SCALE + 1];
+
+    static {
+        POW10[0] = 1;
+        for (int i = 1; i < POW10.length; i++) {
+            POW10[i] = POW10[i - 1] * 10;
+        }
+    }
+
+    private final long unscaled;
+    private final int scale;
+    private final BigDecimal big;
+
+    private Numeric(long unscaled, int scale) {
+        this.unscaled = unscaled;
+        this.scale = scale;
+        this.big = null;
+    }
+
+    private Numeric(BigDecimal big) {
+        this.unscaled = 0;
+        this.scale = big.scale();
+        this.big = big;
+    }
+
+    /**
+     * Get the {@code Numeric} of the integer.
+     *
+     * @param value the value
+     * @return the {@code Numeric}
+     * @since 1.0.0
+     */
+    public static Numeric of(long value) {
+        return new Numeric(value, 0);
+    }
+
+    /**
+     * Get the {@code Numeric} of the decimal.
+     *
+     * @param value the value
+     * @return the {@code Numeric}
+     * @throws NullPointerException if {@code value} is {@code null}
+     * @since 1.0.0
+     */
+    public static Numeric of(BigDecimal value) {
+
+        if (value.scale() >= 0 && value.scale() <= MAX_FAST_SCALE && value.unscaledValue().bitLength() < Long.SIZE) {
+            return new Numeric(value.unscaledValue().longValue(), value.scale());
+        }
+
+        return new Numeric(value);
+
+    }
+
+    /**
+     * Parse the text as a decimal number. It accepts the same format as {@link BigDecimal#BigDecimal(String)}.
+     *
+     * @param text the text
+     * @return the {@code Numeric}
+     * @throws NullPointerException if {@code text} is {@code null}
+     * @throws NumberFormatException if {@code text} is not a decimal number
+     * @since 1.0.0
+     */
+    public static Numeric parse(String text) {
+
+        int length = text.length();
+        int i = 0;
+        boolean negative = false;
+
+        if (length > 0 && (text.charAt(0) == '-' || text.charAt(0) == '+')) {
+            negative = text.charAt(0) == '-';
+            i++;
+        }
+
+        long value = 0;
+        int digits = 0;
+        int point = -1;
+
+        for (; i < length; i++) {
+
+            char c = text.charAt(i);
+
+            if (c >= '0' && c <= '9') {
+                value = value * 10 + (c - '0');
+                digits++;
+            } else if (c == '.' && point < 0) {
+                point = digits;
+            } else {
+                digits = Integer.MAX_VALUE;
+                break;
+            }
+
+        }
+
+        // Note: The exponent, too many digits and the invalid texts are left to BigDecimal.
+        if (digits == 0 || digits > MAX_FAST_DIGITS) {
+            return of(new BigDecimal(text));
+        }
+
+        return new Numeric(negative ? -value : value, point < 0 ? 0 : digits - point);
+
+    }
+
+    /**
+     * Returns {@code this + augend}.
+     *
+     * @param augend value to add
+     * @return the sum
+     * @throws NullPointerException if {@code augend} is {@code null}
+     * @since 1.0.0
+     */
+    public Numeric add(Numeric augend) {
+
+        if (big == null && augend.big == null) {
+
+            int s = Math.max(scale, augend.scale);
+            long a = rescale(unscaled, s - scale);
+            long b = rescale(augend.unscaled, s - augend.scale);
+            long r = a + b;
+
+            if (a != Long.MIN_VALUE && b != Long.MIN_VALUE && ((a ^ r) & (b ^ r)) >= 0) {
+                return new Numeric(r, s);
+            }
+        }
+
+        return of(toBigDecimal().add(augend.toBigDecimal()));
+
+    }
+
+    /**
+     * Returns {@code this - subtrahend}.
+     *
+     * @param subtrahend value to subtract
+     * @return the difference
+     * @throws NullPointerException if {@code subtrahend} is {@code null}
+     * @since 1.0.0
+     */
+    public Numeric subtract(Numeric subtrahend) {
+
+        if (big == null && subtrahend.big == null) {
+
+            int s = Math.max(scale, subtrahend.scale);
+            long a = rescale(unscaled, s - scale);
+            long b = rescale(subtrahend.unscaled, s - subtrahend.scale);
+            long r = a - b;
+
+            if (a != Long.MIN_VALUE && b != Long.MIN_VALUE && ((a ^ b) & (a ^ r)) >= 0) {
+                return new Numeric(r, s);
+            }
+        }
+
+        return of(toBigDecimal().subtract(subtrahend.toBigDecimal()));
+
+    }
+
+    /**
+     * Returns {@code this * multiplicand}.
+     *
+     * @param multiplicand value to multiply
+     * @return the product
+     * @throws NullPointerException if {@code multiplicand} is {@code null}
+     * @since 1.0.0
+     */
+    public Numeric multiply(Numeric multiplicand) {
+
+        if (big == null && multiplicand.big == null && scale + multiplicand.scale <= MAX_FAST_SCALE) {
+
+            long a = unscaled;
+            long b = multiplicand.unscaled;
+            long high = Math.multiplyHigh(a, b);
+            long low = a * b;
+
+            if ((high == 0 && low >= 0) || (high == -1 && low < 0)) {
+                return new Numeric(low, scale + multiplicand.scale);
+            }
+        }
+
+        return of(toBigDecimal().multiply(multiplicand.toBigDecimal()));
+
+    }
+
+    /**
+     * Returns {@code this / divisor}. The quotient is rounded to {@link MathContext#DECIMAL128} if it does not
+     * terminate, and its trailing zeros in the fraction are removed.
+     *
+     * @param divisor value to divide by
+     * @return the quotient
+     * @throws NullPointerException if {@code divisor} is {@code null}
+     * @throws ArithmeticException if {@code divisor} is zero
+     * @since 1.0.0
+     */
+    public Numeric divide(Numeric divisor) {
+
+        if (big == null && divisor.big == null && scale == 0 && divisor.scale == 0 && divisor.unscaled != 0
+                && unscaled % divisor.unscaled == 0 && (unscaled != Long.MIN_VALUE || divisor.unscaled != -1)) {
+            return new Numeric(unscaled / divisor.unscaled, 0);
+        }
+
+        BigDecimal quotient = toBigDecimal().divide(divisor.toBigDecimal(), MathContext.DECIMAL128)
+                .stripTrailingZeros();
+
+        return of(quotient.scale() < 0 ? quotient.setScale(0) : quotient);
+
+    }
+
+    /**
+     * Returns {@code this / divisor} rounded half up to the scale.
+     *
+     * @param divisor value to divide by
+     * @param newScale scale of the quotient
+     * @return the quotient
+     * @throws NullPointerException if {@code divisor} is {@code null}
+     * @throws ArithmeticException if {@code divisor} is zero
+     * @since 1.0.0
+     */
+    public Numeric divide(Numeric divisor, int newScale) {
+        return of(toBigDecimal().divide(divisor.toBigDecimal(), newScale, RoundingMode.HALF_UP));
+    }
+
+    /**
+     * Returns this rounded half up to the scale. The scale of the result is {@code newScale}.
+     *
+     * @param newScale scale of the result
+     * @return the rounded value
+     * @since 1.0.0
+     */
+    public Numeric round(int newScale) {
+
+        if (big == null && newScale >= 0 && newScale <= MAX_FAST_SCALE) {
+
+            if (newScale >= scale) {
+
+                long p = POW10[newScale - scale];
+                long high = Math.multiplyHigh(unscaled, p);
+                long low = unscaled * p;
+
+                if ((high == 0 && low >= 0) || (high == -1 && low < 0)) {
+                    return new Numeric(low, newScale);
+                }
+
+            } else {
+
+                long p = POW10[scale - newScale];
+                long quotient = unscaled / p;
+                long remainder = Math.abs(unscaled % p);
+
+                return new Numeric(remainder * 2 >= p ? quotient + Long.signum(unscaled) : quotient, newScale);
+
+            }
+        }
+
+        return of(toBigDecimal().setScale(newScale, RoundingMode.HALF_UP));
+
+    }
+
+    private static long rescale(long value, int shift) {
+
+        if (shift == 0) {
+            return value;
+        }
+
+        long p = POW10[shift];
+        long high = Math.multiplyHigh(value, p);
+        long low = value * p;
+
+        // Note: Long.MIN_VALUE makes the caller fall back to BigDecimal.
+        return (high == 0 && low >= 0) || (high == -1 && low < 0) ? low : Long.MIN_VALUE;
+
+    }
+
+    /**
+     * Get the signum. It is same as {@link BigDecimal#signum()}.
+     *
+     * @return -1, 0, or 1 as the value is negative, zero, or positive
+     * @since 1.0.0
+     */
+    public int signum() {
+        return big != null ? big.signum() : Long.signum(unscaled);
+    }
+
+    /**
+     * Get the scale. It is same as {@link BigDecimal#scale()}.
+     *
+     * @return the scale
+     * @since 1.0.0
+     */
+    public int scale() {
+        return scale;
+    }
+
+    /**
+     * Get the value as {@code BigDecimal}.
+     *
+     * @return the {@code BigDecimal}
+     * @since 1.0.0
+     */
+    public BigDecimal toBigDecimal() {
+        return big != null ? big : BigDecimal.valueOf(unscaled, scale);
+    }
+
+    /**
+     * Indicates whether some other object is "equal to" this. Two {@code Numeric} are equal if the value and the scale
+     * are equal, as same as {@link BigDecimal#equals(Object)}.
+     *
+     * @param other an object
+     * @return {@code true} if equal, otherwise {@code false}
+     * @since 1.0.0
+     */
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof Numeric n && (big == null && n.big == null
+                ? unscaled == n.unscaled && scale == n.scale : toBigDecimal().equals(n.toBigDecimal()));
+    }
+
+    /**
+     * Returns a hash code value.
+     *
+     * @return a hash code value
+     * @since 1.0.0
+     */
+    @Override
+    public int hashCode() {
+        return big == null ? Objects.hash(unscaled, scale) : big.hashCode();
+    }
+
+    /**
+     * Returns the plain notation of this number. It is same as {@link BigDecimal#toPlainString()}.
+     *
+     * @return the plain notation
+     * @since 1.0.0
+     */
+    @Override
+    public String toString() {
+
+        if (big != null) {
+            return big.toPlainString();
+        }
+
+        if (scale == 0) {
+            return Long.toString(unscaled);
+        }
+
+        String text = Long.toString(unscaled);
+        String digits = unscaled < 0 ? text.substring(1) : text;
+        StringBuilder sb = new StringBuilder(digits.length() + scale + 3);
+
+        if (unscaled < 0) {
+            sb.append('-');
+        }
+
+        if (digits.length() <= scale) {
+            sb.append("0.");
+            sb.append("0".repeat(scale - digits.length()));
+            sb.append(digits);
+        } else {
+            sb.append(digits, 0, digits.length() - scale).append('.').append(digits, digits.length() - scale,
+                    digits.length());
+        }
+
+        return sb.toString();
+
+    }
+}
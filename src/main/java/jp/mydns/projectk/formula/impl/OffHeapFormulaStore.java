@@ -0,0 +1,285 @@
+/*
+ * Copyright (c) 2024, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.formula.impl;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Objects;
+import jp.mydns.projectk.formula.Formula;
+
+/**
+ * Store of the compiled formulas in the off-heap memory. The code of all formulas is written to a direct buffer or to
+ * a memory-mapped file, so a catalog of millions of formulas adds nothing to the heap that the garbage collector must
+ * scan except the {@link ConstantPool}. {@link #get(int)} returns a {@link CompactFormula} whose code is a view of
+ * that memory; the formula reads the instructions straight from it, and it is the only heap object while it is used.
+ * <p>
+ * <b>Memory layout</b>
+ * <table border="1"><caption>Layout of the memory. All values are {@code int} in the native byte order.</caption>
+ * <thead><tr><th>Offset</th><th>Size</th><th>Description</th></tr></thead>
+ * <tbody>
+ * <tr><td>0</td><td>...</td><td>Code of each formula.</td></tr>
+ * <tr><td>...</td><td>formulas + 1</td><td>Start offset of each formula, and the end offset of the last one.</td></tr>
+ * <tr><td>...</td><td>1</td><td>Number of formulas.</td></tr>
+ * </tbody></table>
+ * <p>
+ * The memory refers to the constants by index of the pool, so it is valid only with the pool of this store. It must
+ * be smaller than 2 GiB.
+ * <p>
+ * This class is immutable and thread-safe.
+ *
+ * @author riru
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public final class OffHeapFormulaStore {
+
+    private static final int MAX_SIZE = (Integer.MAX_VALUE - 8) / Integer.BYTES;
+
+    private final ConstantPool pool;
+    private final ByteBuffer buffer;
+    private final IntBuffer code;
+    private final int size;
+    private final int table;
+
+    private OffHeapFormulaStore(ConstantPool pool, ByteBuffer buffer) {
+        this.pool = pool;
+        this.buffer = buffer;
+        this.code = buffer.order(ByteOrder.nativeOrder()).asIntBuffer();
+        this.size = code.get(code.limit() - 1);
+        this.table = code.limit() - 2 - size;
+    }
+
+    /**
+     * Store the formulas in a direct buffer.
+     *
+     * @param formulas the formulas that made by the parser
+     * @param pool the constant pool. Constants of {@code formulas} are added to it.
+     * @return the {@code OffHeapFormulaStore}
+     * @throws NullPointerException if any argument is {@code null}, or {@code formulas} contains {@code null}
+     * @throws IllegalArgumentException if {@code formulas} contains an unknown kind of element, or the code would be 2
+     * GiB or larger
+     * @since 1.0.0
+     */
+    public static OffHeapFormulaStore allocate(List<? extends Formula> formulas, ConstantPool pool) {
+
+        Objects.requireNonNull(formulas);
+        Objects.requireNonNull(pool);
+
+        DirectSink sink = new DirectSink();
+        write(formulas, pool, sink);
+
+        return new OffHeapFormulaStore(pool, sink.toBuffer());
+
+    }
+
+    /**
+     * Store the formulas in a memory-mapped file. An existing file is replaced. The file is only the backing storage
+     * of this store, not a portable format. The mapping is kept after the file channel is closed, until this store is
+     * garbage collected.
+     *
+     * @param path path of the file
+     * @param formulas the formulas that made by the parser
+     * @param pool the constant pool. Constants of {@code formulas} are added to it.
+     * @return the {@code OffHeapFormulaStore}
+     * @throws NullPointerException if any argument is {@code null}, or {@code formulas} contains {@code null}
+     * @throws IllegalArgumentException if {@code formulas} contains an unknown kind of element, or the code would be 2
+     * GiB or larger
+     * @throws IOException if an I/O error occurs
+     * @since 1.0.0
+     */
+    public static OffHeapFormulaStore map(Path path, List<? extends Formula> formulas, ConstantPool pool)
+            throws IOException {
+
+        Objects.requireNonNull(path);
+        Objects.requireNonNull(formulas);
+        Objects.requireNonNull(pool);
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+
+            try {
+                write(formulas, pool, new FileSink(channel));
+            } catch (UncheckedIOException ex) {
+                throw ex.getCause();
+            }
+
+            return new OffHeapFormulaStore(pool, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+
+        }
+    }
+
+    private static void write(List<? extends Formula> formulas, ConstantPool pool, Sink sink) {
+
+        int[] starts = new int[formulas.size() + 1];
+        long position = 0;
+
+        for (int i = 0; i < formulas.size(); i++) {
+
+            int[] formula = CompactFormula.encode(formulas.get(i), pool);
+
+            starts[i] = (int) position;
+            position += formula.length;
+
+            if (position + starts.length + 1 > MAX_SIZE) {
+                throw new IllegalArgumentException("Too large formulas.");
+            }
+
+            sink.write(formula);
+
+        }
+
+        starts[formulas.size()] = (int) position;
+
+        sink.write(starts);
+        sink.write(new int[]{formulas.size()});
+
+    }
+
+    /**
+     * Get the formula.
+     *
+     * @param index index of the formula
+     * @return the formula that reads the code from the off-heap memory
+     * @throws IndexOutOfBoundsException if {@code index} is out of range
+     * @since 1.0.0
+     */
+    public CompactFormula get(int index) {
+
+        Objects.checkIndex(index, size);
+
+        int start = code.get(table + index);
+
+        return new CompactFormula(pool, code.slice(start, code.get(table + index + 1) - start));
+
+    }
+
+    /**
+     * Get the number of formulas.
+     *
+     * @return number of formulas
+     * @since 1.0.0
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get the constant pool.
+     *
+     * @return the {@code ConstantPool}
+     * @since 1.0.0
+     */
+    public ConstantPool getPool() {
+        return pool;
+    }
+
+    /**
+     * Get the size of the off-heap memory.
+     *
+     * @return size of the memory in bytes
+     * @since 1.0.0
+     */
+    public int getMemorySize() {
+        return buffer.limit();
+    }
+
+    /**
+     * Returns a string representation of this.
+     *
+     * @return a string representation
+     * @since 1.0.0
+     */
+    @Override
+    public String toString() {
+        return "OffHeapFormulaStore{" + "size=" + size + ", memorySize=" + buffer.limit() + ", pool=" + pool + '}';
+    }
+
+    private interface Sink {
+
+        void write(int[] values);
+    }
+
+    private static class DirectSink implements Sink {
+
+        private ByteBuffer buffer = ByteBuffer.allocateDirect(4096).order(ByteOrder.nativeOrder());
+
+        @Override
+        public void write(int[] values) {
+
+            int length = values.length * Integer.BYTES;
+
+            if (buffer.remaining() < length) {
+
+                // Note: The size is limited to 2 GiB by the caller, so the capacity does not overflow.
+                long capacity = Math.max(buffer.capacity() * 2L, buffer.position() + (long) length);
+                ByteBuffer grown = ByteBuffer.allocateDirect((int) Math.min(capacity, Integer.MAX_VALUE - 8))
+                        .order(ByteOrder.nativeOrder());
+
+                buffer = grown.put(buffer.flip());
+
+            }
+
+            buffer.asIntBuffer().put(values);
+            buffer.position(buffer.position() + length);
+
+        }
+
+        ByteBuffer toBuffer() {
+            return buffer.flip().slice().asReadOnlyBuffer();
+        }
+    }
+
+    private static class FileSink implements Sink {
+
+        private final FileChannel channel;
+
+        FileSink(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        public void write(int[] values) {
+
+            ByteBuffer bytes = ByteBuffer.allocate(values.length * Integer.BYTES).order(ByteOrder.nativeOrder());
+            bytes.asIntBuffer().put(values);
+
+            try {
+                while (bytes.hasRemaining()) {
+                    channel.write(bytes);
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,260 @@
+/*
+ * Copyright (c) 2024, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.formula.impl;
+
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.time.ZoneOffset;
+import java.util.Objects;
+import jp.mydns.projectk.formula.CacheStatistics;
+
+/**
+ * Amount of time that consists of a date-based {@code Period} and a time-based {@code Duration}. The parsed values are
+ * cached, and an amount without years and months is added by the arithmetic of the epoch seconds.
+ * <p>
+ * This class is immutable and thread-safe.
+ *
+ * @author riru
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public final class PeriodDuration {
+
+    private static final int CACHE_SIZE = 256;
+    private static final LruCache<String, PeriodDuration> CACHE = new LruCache<>(CACHE_SIZE);
+    private static final long SECONDS_PER_DAY = 24 * 60 * 60;
+    private static final int NANOS_PER_SECOND = 1_000_000_000;
+    private static final long FAST_LIMIT = 100_000L * 366 * SECONDS_PER_DAY;
+    private static final int FAST_YEAR_LIMIT = 999_000_000;
+
+    private final Period period;
+    private final Duration duration;
+    private final boolean timeBased;
+    private final long seconds;
+    private final int nanos;
+
+    /**
+     * Constructor.
+     *
+     * @param period date-based amount
+     * @param duration time-based amount
+     * @throws NullPointerException if any argument is {@code null}
+     * @since 1.0.0
+     */
+    public PeriodDuration(Period period, Duration duration) {
+
+        this.period = Objects.requireNonNull(period);
+        this.duration = Objects.requireNonNull(duration);
+
+        long totalSeconds = Long.MAX_VALUE;
+
+        if (period.getYears() == 0 && period.getMonths() == 0) {
+            try {
+                totalSeconds = Math.addExact(Math.multiplyExact(period.getDays(), SECONDS_PER_DAY),
+                        duration.getSeconds());
+            } catch (ArithmeticException ex) {
+                // Note: Too large to add as the epoch seconds.
+            }
+        }
+
+        this.timeBased = totalSeconds >= -FAST_LIMIT && totalSeconds <= FAST_LIMIT;
+        this.seconds = totalSeconds;
+        this.nanos = duration.getNano();
+
+    }
+
+    /**
+     * Parse the text to {@code PeriodDuration}. The format is {@code [-]P[nY][nM][nD][T[nH][nM][nS]]} and case is
+     * insensitive. The parsed values are cached.
+     *
+     * @param text the text to parse
+     * @return parsed {@code PeriodDuration}
+     * @throws NullPointerException if {@code text} is {@code null}
+     * @throws java.time.format.DateTimeParseException if unable to parse
+     * @since 1.0.0
+     */
+    public static PeriodDuration parse(String text) {
+        return CACHE.computeIfAbsent(Objects.requireNonNull(text), PeriodDuration::parseText);
+    }
+
+    /**
+     * Get the statistics of the cache of the durations made by {@link #parse(String)}.
+     *
+     * @return current statistics
+     * @since 1.0.0
+     */
+    public static CacheStatistics getCacheStatistics() {
+        return CACHE.getStatistics();
+    }
+
+    /**
+     * Change the maximum size of the cache of the durations made by {@link #parse(String)}. Default is
+     * {@value #CACHE_SIZE}.
+     *
+     * @param maximumSize maximum number of cached durations
+     * @throws IllegalArgumentException if {@code maximumSize} is negative
+     * @since 1.0.0
+     */
+    public static void setCacheSize(int maximumSize) {
+        CACHE.setMaximumSize(maximumSize);
+    }
+
+    private static PeriodDuration parseText(String text) {
+
+        String pattern = text.toUpperCase();
+        boolean isNegative = pattern.startsWith("-");
+        String sign = isNegative ? "-" : "";
+
+        if (isNegative) {
+            pattern = pattern.substring(1);
+        }
+
+        if (pattern.startsWith("PT")) {
+            return new PeriodDuration(Period.ZERO, Duration.parse(sign + pattern));
+        }
+
+        int posT = pattern.indexOf('T');
+
+        if (posT < 0) {
+            return new PeriodDuration(Period.parse(sign + pattern), Duration.ZERO);
+        }
+
+        return new PeriodDuration(Period.parse(sign + pattern.substring(0, posT)),
+                Duration.parse(sign + "P" + pattern.substring(posT)));
+
+    }
+
+    /**
+     * Get the date-based amount.
+     *
+     * @return the {@code Period}
+     * @since 1.0.0
+     */
+    public Period getPeriod() {
+        return period;
+    }
+
+    /**
+     * Get the time-based amount.
+     *
+     * @return the {@code Duration}
+     * @since 1.0.0
+     */
+    public Duration getDuration() {
+        return duration;
+    }
+
+    /**
+     * Add this amount to the datetime. It is same as {@code dateTime.plus(getPeriod()).plus(getDuration())}.
+     *
+     * @param dateTime the datetime
+     * @return the datetime this amount was added
+     * @throws NullPointerException if {@code dateTime} is {@code null}
+     * @throws DateTimeException if the result exceeds the supported range
+     * @since 1.0.0
+     */
+    public LocalDateTime addTo(LocalDateTime dateTime) {
+
+        if (!timeBased || Math.abs(dateTime.getYear()) > FAST_YEAR_LIMIT) {
+            return dateTime.plus(period).plus(duration);
+        }
+
+        long epochSecond = dateTime.toEpochSecond(ZoneOffset.UTC) + seconds;
+        int nano = dateTime.getNano() + nanos;
+
+        if (nano >= NANOS_PER_SECOND) {
+            epochSecond++;
+            nano -= NANOS_PER_SECOND;
+        }
+
+        return LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC);
+
+    }
+
+    /**
+     * Add this amount to the datetimes at once. Each datetime is the pair of the local epoch seconds, that is the
+     * seconds from {@code 1970-01-01T00:00:00} in the local time without an offset, and the nano of second. The
+     * results are stored in the same arrays.
+     *
+     * @param localEpochSeconds local epoch seconds
+     * @param nanosOfSecond nano of second, from 0 to 999,999,999
+     * @throws NullPointerException if any argument is {@code null}
+     * @throws IllegalArgumentException if the arrays have different lengths
+     * @throws DateTimeException if a value is invalid or if a result exceeds the supported range
+     * @since 1.0.0
+     */
+    public void addTo(long[] localEpochSeconds, int[] nanosOfSecond) {
+
+        if (localEpochSeconds.length != nanosOfSecond.length) {
+            throw new IllegalArgumentException("Arrays must have the same length.");
+        }
+
+        long min = LocalDateTime.MIN.toEpochSecond(ZoneOffset.UTC);
+        long max = LocalDateTime.MAX.toEpochSecond(ZoneOffset.UTC);
+
+        for (int i = 0; i < localEpochSeconds.length; i++) {
+
+            long epochSecond = localEpochSeconds[i];
+            int nano = nanosOfSecond[i];
+
+            if (timeBased && epochSecond >= min + FAST_LIMIT && epochSecond <= max - FAST_LIMIT
+                    && nano >= 0 && nano < NANOS_PER_SECOND) {
+
+                epochSecond += seconds;
+                nano += nanos;
+
+                if (nano >= NANOS_PER_SECOND) {
+                    epochSecond++;
+                    nano -= NANOS_PER_SECOND;
+                }
+
+                localEpochSeconds[i] = epochSecond;
+                nanosOfSecond[i] = nano;
+                continue;
+
+            }
+
+            LocalDateTime added = addTo(LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC));
+
+            localEpochSeconds[i] = added.toEpochSecond(ZoneOffset.UTC);
+            nanosOfSecond[i] = added.getNano();
+
+        }
+    }
+
+    /**
+     * Returns a string representation of this.
+     *
+     * @return a string representation
+     * @since 1.0.0
+     */
+    @Override
+    public String toString() {
+        return "PeriodDuration{" + "period=" + period + ", duration=" + duration + '}';
+    }
+}
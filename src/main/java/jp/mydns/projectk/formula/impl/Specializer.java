@@ -0,0 +1,293 @@
+/*
+ * Copyright (c) 2024, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.formula.impl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import jp.mydns.projectk.formula.Element;
+import jp.mydns.projectk.formula.Formula;
+import jp.mydns.projectk.formula.FormulaExecutionException;
+import jp.mydns.projectk.formula.FormulaParseException;
+import jp.mydns.projectk.formula.Function;
+import jp.mydns.projectk.formula.impl.function.And;
+import jp.mydns.projectk.formula.impl.function.Case;
+import jp.mydns.projectk.formula.impl.function.If;
+import jp.mydns.projectk.formula.impl.function.IfNull;
+import jp.mydns.projectk.formula.impl.function.Or;
+
+/**
+ * Partial evaluator of the {@code FormulaImpl}. It substitutes the known input values with fixed values, folds the
+ * deterministic functions whose arguments are all constant, and eliminates the branches of {@code If}, {@code Case},
+ * {@code IfNull}, {@code And} and {@code Or} that are never taken.
+ * <p>
+ * An error that occurs while folding is not thrown here. The function is left as is, so the error occurs when the
+ * specialized formula is calculated, same as the original formula.
+ *
+ * @author riru
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+class Specializer {
+
+    private final Map<String, String> knownInputs;
+
+    /**
+     * Constructor.
+     *
+     * @param knownInputs input values known in advance
+     * @throws NullPointerException if {@code knownInputs} is {@code null}
+     * @since 1.0.0
+     */
+    Specializer(Map<String, String> knownInputs) {
+        this.knownInputs = new HashMap<>(knownInputs);
+    }
+
+    /**
+     * Specialize the formula.
+     *
+     * @param formula the {@code Formula}
+     * @return specialized formula. It is {@code formula} itself if it is not a {@code FormulaImpl}.
+     * @since 1.0.0
+     */
+    Formula specialize(Formula formula) {
+
+        if (!(formula instanceof FormulaImpl f)) {
+            return formula;
+        }
+
+        List<Element> elements = new ArrayList<>();
+
+        f.getElements().forEach(e -> elements.addAll(specializeElement(e)));
+
+        return new FormulaImpl(joinFixedValues(elements));
+
+    }
+
+    private List<Element> specializeElement(Element element) {
+
+        if (element instanceof InputElement i && knownInputs.containsKey(i.getName())) {
+            return List.of(new FixedValueElement(knownInputs.get(i.getName())));
+        }
+
+        if (element instanceof FunctionElement f) {
+            return specializeFunction(f);
+        }
+
+        return List.of(element);
+
+    }
+
+    private List<Element> specializeFunction(FunctionElement element) {
+
+        List<Formula> args = element.getArgs().stream().map(this::specialize).toList();
+        Function function = bindLiterals(element.getFunction(), args);
+
+        if (function.getArgumentScheme().isValid(args.stream().map(a -> Function.Argument.of(null))
+                .toArray(Function.Argument[]::new))) {
+
+            Optional<List<Element>> taken = eliminateBranches(function, args);
+
+            if (taken.isPresent()) {
+                return taken.get();
+            }
+        }
+
+        FunctionElement specialized = new FunctionElement(function, args);
+
+        if (function.isDeterministic() && args.stream().allMatch(this::isConstant)) {
+            try {
+                return List.of(new FixedValueElement(specialized.calculate(Map.of())));
+            } catch (FormulaExecutionException ignore) {
+                // Note: Leave it to occur when calculating.
+            }
+        }
+
+        return List.of(specialized);
+
+    }
+
+    private Function bindLiterals(Function function, List<Formula> args) {
+        try {
+            return function.specialize(FunctionElement.literalsOf(args), args.size());
+        } catch (FormulaParseException ex) {
+            // Note: Leave it to occur when calculating.
+            return function;
+        }
+    }
+
+    private Optional<List<Element>> eliminateBranches(Function function, List<Formula> args) {
+
+        if (function instanceof If) {
+            return constantOf(args.get(0)).map(c -> Boolean.parseBoolean(c.value()) ? args.get(1) : args.get(2))
+                    .flatMap(this::elementsOf);
+        }
+
+        if (function instanceof IfNull) {
+            return constantOf(args.get(0)).map(c -> c.value() != null ? args.get(0) : args.get(1))
+                    .flatMap(this::elementsOf);
+        }
+
+        if (function instanceof Case) {
+            return eliminateCases(function, args);
+        }
+
+        if (function instanceof And) {
+            return eliminateLogicalArgs(function, args, false);
+        }
+
+        if (function instanceof Or) {
+            return eliminateLogicalArgs(function, args, true);
+        }
+
+        return Optional.empty();
+
+    }
+
+    private Optional<List<Element>> eliminateCases(Function function, List<Formula> args) {
+
+        Optional<Constant> confirmation = constantOf(args.get(0));
+
+        if (confirmation.isEmpty()) {
+            return Optional.empty();
+        }
+
+        List<Formula> remains = new ArrayList<>();
+        remains.add(args.get(0));
+
+        int i = 1;
+
+        // Note: Cases that never match are removed until a case that cannot be decided.
+        for (; i < args.size() - 1; i += 2) {
+
+            Optional<Constant> compare = constantOf(args.get(i));
+
+            if (compare.isEmpty()) {
+                break;
+            }
+
+            if (Objects.equals(compare.get().value(), confirmation.get().value())) {
+                return elementsOf(args.get(i + 1));
+            }
+        }
+
+        if (i >= args.size() - 1) {
+            return elementsOf(args.get(args.size() - 1));
+        }
+
+        remains.addAll(args.subList(i, args.size()));
+
+        return Optional.of(List.of(new FunctionElement(bindLiterals(function, remains), remains)));
+
+    }
+
+    private Optional<List<Element>> eliminateLogicalArgs(Function function, List<Formula> args, boolean decisive) {
+
+        List<Formula> remains = new ArrayList<>();
+
+        for (Formula arg : args) {
+
+            Optional<Boolean> value = constantOf(arg).map(Constant::value).map(Boolean::parseBoolean);
+
+            if (value.isEmpty()) {
+                remains.add(arg);
+                continue;
+            }
+
+            if (value.get() == decisive) {
+
+                // Note: The arguments after the decisive value are never resolved.
+                if (remains.isEmpty()) {
+                    return Optional.of(List.of(new FixedValueElement(Boolean.toString(decisive))));
+                }
+
+                remains.add(arg);
+                break;
+
+            }
+        }
+
+        if (remains.isEmpty()) {
+            return Optional.of(List.of(new FixedValueElement(Boolean.toString(!decisive))));
+        }
+
+        return Optional.of(List.of(new FunctionElement(function, remains)));
+
+    }
+
+    private List<Element> joinFixedValues(List<Element> elements) {
+
+        if (!elements.isEmpty() && elements.stream().allMatch(FixedValueElement.class::isInstance)) {
+            return List.of(new FixedValueElement(new FormulaImpl(elements).calculate(Map.of())));
+        }
+
+        List<Element> joined = new ArrayList<>();
+        StringBuilder pending = null;
+
+        for (Element e : elements) {
+
+            if (e instanceof FixedValueElement f && f.getValue() != null) {
+                pending = pending == null ? new StringBuilder(f.getValue()) : pending.append(f.getValue());
+                continue;
+            }
+
+            if (pending != null) {
+                joined.add(new FixedValueElement(pending.toString()));
+                pending = null;
+            }
+
+            joined.add(e);
+
+        }
+
+        if (pending != null) {
+            joined.add(new FixedValueElement(pending.toString()));
+        }
+
+        return joined;
+
+    }
+
+    private boolean isConstant(Formula formula) {
+        return formula instanceof FormulaImpl f && f.isConstant();
+    }
+
+    private Optional<Constant> constantOf(Formula formula) {
+        return Optional.of(formula).filter(this::isConstant).map(f -> new Constant(f.calculate(Map.of())));
+    }
+
+    private Optional<List<Element>> elementsOf(Formula formula) {
+        return Optional.of(formula).filter(FormulaImpl.class::isInstance).map(FormulaImpl.class::cast)
+                .map(FormulaImpl::getElements);
+    }
+
+    private record Constant(String value) {
+
+    }
+}
@@ -0,0 +1,354 @@
+/*
+ * Copyright (c) 2024, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.formula.impl;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.regex.Pattern;
+import jp.mydns.projectk.formula.CacheStatistics;
+import jp.mydns.projectk.formula.FormulaExecutionException;
+import jp.mydns.projectk.formula.Function;
+
+/**
+ * Utilities that resolve the {@code Function.Argument} into the typed values of the implementation. The typed
+ * arguments, such as {@link NumericArgument}, are used without going through the string, and the parsed datetime
+ * patterns, zone ids and regular expressions are cached. The statistics and the maximum size of each cache are
+ * available from this class.
+ *
+ * @author riru
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public final class TypedArguments {
+
+    private static final int DEFAULT_CACHE_SIZE = 256;
+
+    private static final LruCache<String, ZoneId> ZONE_IDS = new LruCache<>(DEFAULT_CACHE_SIZE);
+
+    private static final LruCache<String, Pattern> PATTERNS = new LruCache<>(DEFAULT_CACHE_SIZE);
+
+    private TypedArguments() {
+    }
+
+    /**
+     * Checks that the specified {@code Argument} is valid {@code LocalDateTime}.
+     *
+     * @param value {@code DateTimeFormatter} as {@code Argument}
+     * @return the {@code LocalDateTime} that made from {@code value}
+     * @throws FormulaExecutionException if {@code value} is invalid as {@code LocalDateTime}
+     * @since 1.0.0
+     */
+    public static LocalDateTime requireLocalDateTime(Function.Argument value) {
+        return requireLocalDateTime(value, DateTimeCodec.ISO_LOCAL_DATE_TIME);
+    }
+
+    /**
+     * Checks that the specified {@code Argument} is valid {@code LocalDateTime}.
+     *
+     * @param value {@code LocalDateTime} as {@code Argument}
+     * @param pattern the {@code Argument}
+     * @return the {@code LocalDateTime} that made from {@code value}
+     * @throws FormulaExecutionException if {@code value} is invalid as {@code LocalDateTime}, or if
+     * {@code pattern} is invalid as {@code DateTimeFormatter}.
+     * @since 1.0.0
+     */
+    public static LocalDateTime requireLocalDateTime(Function.Argument value, Function.Argument pattern) {
+        return requireLocalDateTime(value, requireDateTimeFormat(pattern));
+    }
+
+    /**
+     * Checks that the specified {@code Argument} is valid {@code LocalDateTime}.
+     *
+     * @param value {@code LocalDateTime} as {@code Argument}
+     * @param formatter the {@code DateTimeFormatter} of {@code value}
+     * @return the {@code LocalDateTime} that made from {@code value}
+     * @throws FormulaExecutionException if {@code value} is invalid as {@code LocalDateTime}
+     * @since 1.0.0
+     */
+    public static LocalDateTime requireLocalDateTime(Function.Argument value, DateTimeFormatter formatter) {
+        try {
+            return LocalDateTime.parse(value.resolve(), formatter);
+        } catch (RuntimeException ex) {
+            throw new FormulaExecutionException("Must be [%s] format.".formatted(formatter));
+        }
+    }
+
+    /**
+     * Checks that the specified {@code Argument} is valid {@code LocalDateTime}. If {@code value} is a
+     * {@code TemporalArgument}, its {@code LocalDateTime} is used without going through the string.
+     *
+     * @param value {@code LocalDateTime} as {@code Argument}
+     * @param codec the {@code DateTimeCodec} of {@code value}
+     * @return the {@code LocalDateTime} that made from {@code value}
+     * @throws FormulaExecutionException if {@code value} is invalid as {@code LocalDateTime}
+     * @since 1.0.0
+     */
+    public static LocalDateTime requireLocalDateTime(Function.Argument value, DateTimeCodec codec) {
+        try {
+            return value instanceof TemporalArgument t
+                    ? codec.reparse(t.resolveLocalDateTime()) : codec.parse(value.resolve());
+        } catch (RuntimeException ex) {
+            throw new FormulaExecutionException("Must be [%s] format.".formatted(codec.getFormatter()));
+        }
+    }
+
+    /**
+     * Checks that the specified {@code Argument} is valid {@code ZoneId}.
+     *
+     * @param value {@code ZoneId} as {@code Argument}
+     * @return the {@code ZoneId} that made from {@code value}
+     * @throws FormulaExecutionException if {@code value} is invalid as {@code ZoneId}
+     * @since 1.0.0
+     */
+    public static ZoneId requireZoneId(Function.Argument value) {
+
+        String zoneId = value.resolve();
+
+        try {
+            return ZONE_IDS.computeIfAbsent(zoneId, ZoneId::of);
+        } catch (RuntimeException ex) {
+            throw new FormulaExecutionException("Must be valid zone id. But [%s].".formatted(zoneId));
+        }
+    }
+
+    /**
+     * Checks that the specified {@code Argument} is valid {@code DateTimeFormatter}.
+     *
+     * @param value {@code DateTimeFormatter} as {@code Argument}
+     * @return the {@code DateTimeFormatter} that made from {@code value}
+     * @throws FormulaExecutionException if {@code value} is invalid as {@code DateTimeFormatter}
+     * @since 1.0.0
+     */
+    public static DateTimeFormatter requireDateTimeFormat(Function.Argument value) {
+
+        String pattern = value.resolve();
+
+        try {
+            return DateTimeCodec.ofPattern(pattern).getFormatter();
+        } catch (RuntimeException ex) {
+            throw new FormulaExecutionException("Must be valid datetime format. But [%s].".formatted(pattern));
+        }
+    }
+
+    /**
+     * Checks that the specified {@code Argument} is valid datetime pattern, and get the {@code DateTimeCodec}
+     * of it.
+     *
+     * @param value datetime pattern as {@code Argument}
+     * @return the {@code DateTimeCodec} that made from {@code value}
+     * @throws FormulaExecutionException if {@code value} is invalid as datetime pattern
+     * @since 1.0.0
+     * @see DateTimeCodec#ofPattern(String)
+     */
+    public static DateTimeCodec requireDateTimeCodec(Function.Argument value) {
+
+        String pattern = value.resolve();
+
+        try {
+            return DateTimeCodec.ofPattern(pattern);
+        } catch (RuntimeException ex) {
+            throw new FormulaExecutionException("Must be valid datetime format. But [%s].".formatted(pattern));
+        }
+    }
+
+    /**
+     * Get the statistics of the cache of the datetime patterns used by
+     * {@link #requireDateTimeFormat(Function.Argument)} and {@link #requireDateTimeCodec(Function.Argument)}.
+     *
+     * @return current statistics
+     * @since 1.0.0
+     * @see DateTimeCodec#getCacheStatistics()
+     */
+    public static CacheStatistics getDateTimeFormatCacheStatistics() {
+        return DateTimeCodec.getCacheStatistics();
+    }
+
+    /**
+     * Change the maximum size of the cache of the datetime patterns used by
+     * {@link #requireDateTimeFormat(Function.Argument)} and {@link #requireDateTimeCodec(Function.Argument)}. Default
+     * is {@value #DEFAULT_CACHE_SIZE}.
+     *
+     * @param maximumSize maximum number of cached patterns
+     * @throws IllegalArgumentException if {@code maximumSize} is negative
+     * @since 1.0.0
+     * @see DateTimeCodec#setCacheSize(int)
+     */
+    public static void setDateTimeFormatCacheSize(int maximumSize) {
+        DateTimeCodec.setCacheSize(maximumSize);
+    }
+
+    /**
+     * Get the statistics of the cache of the zone converters used by the {@code TzCnv} function.
+     *
+     * @return current statistics
+     * @since 1.0.0
+     * @see ZoneConverter#getCacheStatistics()
+     */
+    public static CacheStatistics getZoneConverterCacheStatistics() {
+        return ZoneConverter.getCacheStatistics();
+    }
+
+    /**
+     * Change the maximum size of the cache of the zone converters used by the {@code TzCnv} function. Default
+     * is {@value #DEFAULT_CACHE_SIZE}.
+     *
+     * @param maximumSize maximum number of cached converters
+     * @throws IllegalArgumentException if {@code maximumSize} is negative
+     * @since 1.0.0
+     * @see ZoneConverter#setCacheSize(int)
+     */
+    public static void setZoneConverterCacheSize(int maximumSize) {
+        ZoneConverter.setCacheSize(maximumSize);
+    }
+
+    /**
+     * Get the statistics of the cache of the durations used by the {@code TimeAdd} function.
+     *
+     * @return current statistics
+     * @since 1.0.0
+     * @see PeriodDuration#getCacheStatistics()
+     */
+    public static CacheStatistics getDurationCacheStatistics() {
+        return PeriodDuration.getCacheStatistics();
+    }
+
+    /**
+     * Change the maximum size of the cache of the durations used by the {@code TimeAdd} function. Default is
+     * {@value #DEFAULT_CACHE_SIZE}.
+     *
+     * @param maximumSize maximum number of cached durations
+     * @throws IllegalArgumentException if {@code maximumSize} is negative
+     * @since 1.0.0
+     * @see PeriodDuration#setCacheSize(int)
+     */
+    public static void setDurationCacheSize(int maximumSize) {
+        PeriodDuration.setCacheSize(maximumSize);
+    }
+
+    /**
+     * Get the statistics of the cache of {@code ZoneId} used by {@link #requireZoneId(Function.Argument)}.
+     *
+     * @return current statistics
+     * @since 1.0.0
+     */
+    public static CacheStatistics getZoneIdCacheStatistics() {
+        return ZONE_IDS.getStatistics();
+    }
+
+    /**
+     * Change the maximum size of the cache of {@code ZoneId} used by {@link #requireZoneId(Function.Argument)}. Default
+     * is {@value #DEFAULT_CACHE_SIZE}.
+     *
+     * @param maximumSize maximum number of cached zone ids
+     * @throws IllegalArgumentException if {@code maximumSize} is negative
+     * @since 1.0.0
+     */
+    public static void setZoneIdCacheSize(int maximumSize) {
+        ZONE_IDS.setMaximumSize(maximumSize);
+    }
+
+    /**
+     * Checks that the specified {@code Argument} is valid regular expression, and get the compiled
+     * {@code Pattern} of it.
+     *
+     * @param value regular expression as {@code Argument}
+     * @return the {@code Pattern} that made from {@code value}
+     * @throws FormulaExecutionException if {@code value} is invalid as regular expression
+     * @since 1.0.0
+     */
+    public static Pattern requirePattern(Function.Argument value) {
+
+        String regex = value.resolve();
+
+        try {
+            return PATTERNS.computeIfAbsent(regex, Pattern::compile);
+        } catch (RuntimeException ex) {
+            throw new FormulaExecutionException("Must be valid regular expression. But [%s].".formatted(regex));
+        }
+    }
+
+    /**
+     * Get the statistics of the cache of {@code Pattern} used by {@link #requirePattern(Function.Argument)}.
+     *
+     * @return current statistics
+     * @since 1.0.0
+     */
+    public static CacheStatistics getPatternCacheStatistics() {
+        return PATTERNS.getStatistics();
+    }
+
+    /**
+     * Change the maximum size of the cache of {@code Pattern} used by {@link #requirePattern(Function.Argument)}.
+     * Default is {@value #DEFAULT_CACHE_SIZE}.
+     *
+     * @param maximumSize maximum number of cached patterns
+     * @throws IllegalArgumentException if {@code maximumSize} is negative
+     * @since 1.0.0
+     */
+    public static void setPatternCacheSize(int maximumSize) {
+        PATTERNS.setMaximumSize(maximumSize);
+    }
+
+    /**
+     * Resolve the specified {@code Argument} as {@code boolean}. The string {@code "true"} is interpreted as
+     * {@code true} ignoring case, and the others are interpreted as {@code false}. If {@code value} is a
+     * {@code BooleanArgument}, its {@code boolean} is used without going through the string.
+     *
+     * @param value {@code boolean} as {@code Argument}
+     * @return the {@code boolean} that made from {@code value}
+     * @throws FormulaExecutionException if occurs an any error while resolving {@code value}
+     * @since 1.0.0
+     */
+    public static boolean resolveBoolean(Function.Argument value) {
+        return value instanceof BooleanArgument b ? b.resolveBoolean() : Boolean.parseBoolean(value.resolve());
+    }
+
+    /**
+     * Resolve the specified {@code Argument} as {@code Numeric}. If {@code value} is a
+     * {@code NumericArgument}, its {@code Numeric} is used without going through the string.
+     *
+     * @param value {@code Numeric} as {@code Argument}
+     * @return the {@code Numeric} that made from {@code value}. It is {@code null} if {@code value} is
+     * {@code null}.
+     * @throws FormulaExecutionException if {@code value} is invalid as number
+     * @since 1.0.0
+     */
+    public static Numeric resolveNumeric(Function.Argument value) {
+
+        if (value instanceof NumericArgument n) {
+            return n.resolveNumeric();
+        }
+
+        String number = value.resolve();
+
+        try {
+            return number == null ? null : Numeric.parse(number);
+        } catch (RuntimeException ex) {
+            throw new FormulaExecutionException("Must be valid number. But [%s].".formatted(number));
+        }
+    }
+}
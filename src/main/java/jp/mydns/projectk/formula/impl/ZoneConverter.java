@@ -0,0 +1,276 @@
+/*
+ * Copyright (c) 2024, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.formula.impl;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.List;
+import java.util.Objects;
+import jp.mydns.projectk.formula.CacheStatistics;
+
+/**
+ * Converter of the local datetime from a time zone to another time zone. The result is same as
+ * {@code ZonedDateTime.of(dateTime, sourceZoneId).withZoneSameInstant(resultZoneId).toLocalDateTime()}.
+ * <p>
+ * A fixed offset zone such as {@code UTC} and {@code +09:00} is converted by the arithmetic of the epoch seconds. A
+ * region zone reuses the transition window that was found last time, because the consecutive values usually fall
+ * inside the same DST period. A local datetime in a gap or an overlap is converted by {@code ZonedDateTime}.
+ * <p>
+ * This class is thread-safe.
+ *
+ * @author riru
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public final class ZoneConverter {
+
+    private static final int CACHE_SIZE = 256;
+    private static final long FAST_RANGE = 100_000L * 366 * 24 * 60 * 60;
+    private static final LruCache<List<ZoneId>, ZoneConverter> CONVERTERS = new LruCache<>(CACHE_SIZE);
+
+    private final ZoneId sourceZoneId;
+    private final ZoneId resultZoneId;
+    private final ZoneRules sourceRules;
+    private final ZoneRules resultRules;
+    private final Integer fixedShift;
+    private volatile Window sourceWindow;
+    private volatile Window resultWindow;
+
+    private ZoneConverter(ZoneId sourceZoneId, ZoneId resultZoneId) {
+
+        this.sourceZoneId = sourceZoneId;
+        this.resultZoneId = resultZoneId;
+        this.sourceRules = sourceZoneId.getRules();
+        this.resultRules = resultZoneId.getRules();
+
+        this.fixedShift = sourceRules.isFixedOffset() && resultRules.isFixedOffset()
+                ? resultRules.getOffset(Instant.EPOCH).getTotalSeconds()
+                - sourceRules.getOffset(Instant.EPOCH).getTotalSeconds()
+                : null;
+
+        this.sourceWindow = Window.EMPTY;
+        this.resultWindow = Window.EMPTY;
+
+    }
+
+    /**
+     * Get the converter. The converters are cached.
+     *
+     * @param sourceZoneId time zone of the source datetime
+     * @param resultZoneId time zone of the result datetime
+     * @return the converter
+     * @throws NullPointerException if any argument is {@code null}
+     * @since 1.0.0
+     */
+    public static ZoneConverter of(ZoneId sourceZoneId, ZoneId resultZoneId) {
+        return CONVERTERS.computeIfAbsent(List.of(sourceZoneId, resultZoneId),
+                k -> new ZoneConverter(k.get(0), k.get(1)));
+    }
+
+    /**
+     * Get the statistics of the cache of the converters made by {@link #of(ZoneId, ZoneId)}.
+     *
+     * @return current statistics
+     * @since 1.0.0
+     */
+    public static CacheStatistics getCacheStatistics() {
+        return CONVERTERS.getStatistics();
+    }
+
+    /**
+     * Change the maximum size of the cache of the converters made by {@link #of(ZoneId, ZoneId)}. Default is
+     * {@value #CACHE_SIZE}.
+     *
+     * @param maximumSize maximum number of cached converters
+     * @throws IllegalArgumentException if {@code maximumSize} is negative
+     * @since 1.0.0
+     */
+    public static void setCacheSize(int maximumSize) {
+        CONVERTERS.setMaximumSize(maximumSize);
+    }
+
+    /**
+     * Convert the local datetime.
+     *
+     * @param dateTime local datetime in the source time zone
+     * @return local datetime in the result time zone
+     * @throws NullPointerException if {@code dateTime} is {@code null}
+     * @throws java.time.DateTimeException if the result exceeds the supported range
+     * @since 1.0.0
+     */
+    public LocalDateTime convert(LocalDateTime dateTime) {
+
+        Objects.requireNonNull(dateTime);
+
+        if (fixedShift != null) {
+            return fixedShift == 0 ? dateTime : dateTime.plusSeconds(fixedShift);
+        }
+
+        long local = dateTime.toEpochSecond(ZoneOffset.UTC);
+        long converted = convert(local);
+
+        return converted == Long.MIN_VALUE
+                ? ZonedDateTime.of(dateTime, sourceZoneId).withZoneSameInstant(resultZoneId).toLocalDateTime()
+                : LocalDateTime.ofEpochSecond(converted, dateTime.getNano(), ZoneOffset.UTC);
+
+    }
+
+    /**
+     * Convert the local datetimes at once. Each value is the local epoch seconds, that is the seconds from
+     * {@code 1970-01-01T00:00:00} in the local time without an offset.
+     *
+     * @param localEpochSeconds local epoch seconds in the source time zone
+     * @param results the array to store the local epoch seconds in the result time zone. It may be same as
+     * {@code localEpochSeconds}.
+     * @throws NullPointerException if any argument is {@code null}
+     * @throws IllegalArgumentException if {@code results} is shorter than {@code localEpochSeconds}
+     * @throws java.time.DateTimeException if a value exceeds the supported range
+     * @since 1.0.0
+     */
+    public void convert(long[] localEpochSeconds, long[] results) {
+
+        if (results.length < localEpochSeconds.length) {
+            throw new IllegalArgumentException("Results array is too short.");
+        }
+
+        for (int i = 0; i < localEpochSeconds.length; i++) {
+
+            long local = localEpochSeconds[i];
+
+            if (fixedShift != null) {
+                results[i] = local + fixedShift;
+                continue;
+            }
+
+            long converted = convert(local);
+
+            results[i] = converted != Long.MIN_VALUE ? converted
+                    : ZonedDateTime.of(LocalDateTime.ofEpochSecond(local, 0, ZoneOffset.UTC), sourceZoneId)
+                            .withZoneSameInstant(resultZoneId).toLocalDateTime().toEpochSecond(ZoneOffset.UTC);
+
+        }
+    }
+
+    // Note: Returns Long.MIN_VALUE if the local time is in a gap or an overlap, or is too far to use the windows.
+    private long convert(long local) {
+
+        if (local < -FAST_RANGE || local > FAST_RANGE) {
+            return Long.MIN_VALUE;
+        }
+
+        Window src = sourceWindow;
+
+        if (!src.contains(local)) {
+
+            src = sourceWindowOf(local);
+
+            if (src == null) {
+                return Long.MIN_VALUE;
+            }
+
+            sourceWindow = src;
+
+        }
+
+        long instant = local - src.offset();
+
+        Window dst = resultWindow;
+
+        if (!dst.contains(instant)) {
+            dst = resultWindowOf(instant);
+            resultWindow = dst;
+        }
+
+        return instant + dst.offset();
+
+    }
+
+    // Note: The window of the local time that has only one valid offset.
+    private Window sourceWindowOf(long local) {
+
+        List<ZoneOffset> offsets = sourceRules.getValidOffsets(LocalDateTime.ofEpochSecond(local, 0, ZoneOffset.UTC));
+
+        if (offsets.size() != 1) {
+            return null;
+        }
+
+        int offset = offsets.get(0).getTotalSeconds();
+        long instant = local - offset;
+
+        ZoneOffsetTransition previous = sourceRules.previousTransition(Instant.ofEpochSecond(instant + 1));
+        ZoneOffsetTransition next = sourceRules.nextTransition(Instant.ofEpochSecond(instant));
+
+        long start = previous == null ? Long.MIN_VALUE
+                : previous.toEpochSecond() + Math.max(offset, previous.getOffsetBefore().getTotalSeconds());
+        long end = next == null ? Long.MAX_VALUE : next.toEpochSecond() + offset;
+
+        return new Window(start, end, offset);
+
+    }
+
+    private Window resultWindowOf(long instant) {
+
+        Instant at = Instant.ofEpochSecond(instant);
+        ZoneOffsetTransition previous = resultRules.previousTransition(at.plusSeconds(1));
+        ZoneOffsetTransition next = resultRules.nextTransition(at);
+
+        return new Window(previous == null ? Long.MIN_VALUE : previous.toEpochSecond(),
+                next == null ? Long.MAX_VALUE : next.toEpochSecond(), resultRules.getOffset(at).getTotalSeconds());
+
+    }
+
+    /**
+     * Returns a string representation of this.
+     *
+     * @return a string representation
+     * @since 1.0.0
+     */
+    @Override
+    public String toString() {
+        return "ZoneConverter{" + "sourceZoneId=" + sourceZoneId + ", resultZoneId=" + resultZoneId + '}';
+    }
+
+    /**
+     * Range of the epoch seconds that has the same offset.
+     *
+     * @param start start of range, inclusive
+     * @param end end of range, exclusive
+     * @param offset offset seconds
+     */
+    private record Window(long start, long end, int offset) {
+
+        static final Window EMPTY = new Window(0, 0, 0);
+
+        boolean contains(long epochSecond) {
+            return start <= epochSecond && epochSecond < end;
+        }
+    }
+}
@@ -25,7 +25,11 @@
  */
 package jp.mydns.projectk.formula.impl.function;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Objects;
+import jp.mydns.projectk.formula.FormulaFunction;
+import jp.mydns.projectk.formula.FormulaParseException;
 import jp.mydns.projectk.formula.Function;
 import jp.mydns.projectk.formula.impl.AbstractFunction;
 import jp.mydns.projectk.formula.impl.ArgdefImpl;
@@ -40,10 +44,28 @@ import jp.mydns.projectk.formula.impl.NestRepeatArgdefImpl;
  * @version 1.0.0
  * @since 1.0.0
  */
+@FormulaFunction("Case")
 public class Case extends AbstractFunction {
 
     private static final int REPEAT_MIN = 0;
-    private static final int REPEAT_MAX = 20;
+    private static final int REPEAT_MAX = Integer.MAX_VALUE;
+
+    private final Map<String, Integer> branches;
+    private final int argumentCount;
+
+    /**
+     * Constructor.
+     *
+     * @since 1.0.0
+     */
+    public Case() {
+        this(null, 0);
+    }
+
+    private Case(Map<String, Integer> branches, int argumentCount) {
+        this.branches = branches;
+        this.argumentCount = argumentCount;
+    }
 
     /**
      * Run this function. You can use {@code null} for all arguments, but {@code null} will not match anything.
@@ -68,6 +90,11 @@ public class Case extends AbstractFunction {
 
         String confirmation = args[0].resolve();
 
+        if (branches != null && args.length == argumentCount) {
+            Integer branch = branches.get(confirmation);
+            return args[branch != null ? branch : args.length - 1].resolve();
+        }
+
         for (int i = 1; i < args.length - 1; i = i + 2) {
             if (Objects.equals(confirmation, args[i].resolve())) {
                 return args[i + 1].resolve();
@@ -78,6 +105,56 @@ public class Case extends AbstractFunction {
 
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * If all of the {@code CompareValue} are literals, the case is chosen by a hash lookup instead of the comparison
+     * one by one.
+     *
+     * @throws FormulaParseException if the literal {@code CompareValue} are duplicated
+     * @since 1.0.0
+     */
+    @Override
+    public Case specialize(Map<Integer, String> literals, int argumentCount) {
+
+        if (argumentCount < 2 || argumentCount % 2 != 0) {
+            // Note: Leave it to occur when calculating.
+            return new Case();
+        }
+
+        Map<String, Integer> compiled = new HashMap<>();
+        boolean isAllLiteral = true;
+
+        for (int i = 1; i < argumentCount - 1; i += 2) {
+
+            String compare = literals.get(i);
+
+            if (compare == null) {
+                isAllLiteral = false;
+                continue;
+            }
+
+            // Note: A duplicated compare value never matches, because the former one matches first.
+            if (compiled.putIfAbsent(compare, i + 1) != null) {
+                throw new FormulaParseException("[Case] Duplicate compare value. [%s]".formatted(compare));
+            }
+        }
+
+        return isAllLiteral ? new Case(compiled, argumentCount) : new Case();
+
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return {@code true}
+     * @since 1.0.0
+     */
+    @Override
+    public boolean isDeterministic() {
+        return true;
+    }
+
     /**
      * {@inheritDoc}
      *
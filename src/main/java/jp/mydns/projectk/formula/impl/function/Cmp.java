@@ -25,11 +25,18 @@
  */
 package jp.mydns.projectk.formula.impl.function;
 
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Stream;
 import jp.mydns.projectk.formula.FormulaExecutionException;
+import jp.mydns.projectk.formula.FormulaFunction;
+import jp.mydns.projectk.formula.FormulaParseException;
 import jp.mydns.projectk.formula.Function;
 import jp.mydns.projectk.formula.impl.AbstractFunction;
 import jp.mydns.projectk.formula.impl.ArgdefImpl;
 import jp.mydns.projectk.formula.impl.ArgumentSchemeImpl;
+import jp.mydns.projectk.formula.impl.BooleanFunction;
 
 /**
  * A formula function that compares two texts in a specified way.
@@ -38,7 +45,23 @@ import jp.mydns.projectk.formula.impl.ArgumentSchemeImpl;
  * @version 1.0.0
  * @since 1.0.0
  */
-public class Cmp extends AbstractFunction {
+@FormulaFunction("Cmp")
+public class Cmp extends AbstractFunction implements BooleanFunction {
+
+    private final ComparisonWay comparisonWay;
+
+    /**
+     * Constructor.
+     *
+     * @since 1.0.0
+     */
+    public Cmp() {
+        this(null);
+    }
+
+    private Cmp(ComparisonWay comparisonWay) {
+        this.comparisonWay = comparisonWay;
+    }
 
     /**
      * Run this function.
@@ -67,46 +90,108 @@ public class Cmp extends AbstractFunction {
      */
     @Override
     public String calculate(Function.Argument... args) {
+        return Boolean.toString(calculateBoolean(args));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since 1.0.0
+     */
+    @Override
+    public boolean executeBoolean(Function.Argument... args) {
+        return calculateBoolean(getArgumentScheme().requireValid(args));
+    }
+
+    private boolean calculateBoolean(Function.Argument... args) {
 
         String value = args[0].resolve();
         String another = args[1].resolve();
-        String compWay = args[2].resolve();
+        String compWay = comparisonWay == null ? args[2].resolve() : null;
 
         if (value == null || another == null) {
-            return "false";
+            return false;
         }
 
-        if (compWay == null) {
-            throw new FormulaExecutionException("[Compare] Null comparison way.");
+        ComparisonWay way = comparisonWay != null ? comparisonWay : requireComparisonWay(compWay);
+
+        return way.test(value.compareTo(another));
+
+    }
+
+    /**
+     * Compare the values of two columns row by row. It is the batch form of this function, and requires the
+     * {@code ComparisonWay} to have been resolved by {@link #specialize(Map)}. A row that either value is {@code null}
+     * results {@code false}, as same as {@link #calculate(Function.Argument...)}.
+     *
+     * @param values the values being compared
+     * @param anothers the values to compare with {@code values}
+     * @param results the comparison results. It is overwritten.
+     * @throws NullPointerException if any argument is {@code null}
+     * @throws IllegalArgumentException if the length of arrays are different
+     * @throws IllegalStateException if the {@code ComparisonWay} is not resolved
+     * @since 1.0.0
+     */
+    public void compare(String[] values, String[] anothers, boolean[] results) {
+
+        Objects.requireNonNull(values);
+        Objects.requireNonNull(anothers);
+        Objects.requireNonNull(results);
+
+        if (values.length != anothers.length || values.length != results.length) {
+            throw new IllegalArgumentException("Mismatched column length.");
         }
 
-        int result = value.compareTo(another);
+        if (comparisonWay == null) {
+            throw new IllegalStateException("Comparison way is not resolved.");
+        }
+
+        comparisonWay.compare(values, anothers, results);
+
+    }
 
-        return Boolean.toString(switch (compWay) {
+    private ComparisonWay requireComparisonWay(String compWay) {
 
-            case "<" ->
-                result < 0;
+        if (compWay == null) {
+            throw new FormulaExecutionException("[Compare] Null comparison way.");
+        }
 
-            case ">" ->
-                result > 0;
+        return ComparisonWay.of(compWay).orElseThrow(() -> new FormulaExecutionException(
+                "[Compare] Unexpected comparison way. [%s]".formatted(compWay)));
 
-            case "=" ->
-                result == 0;
+    }
 
-            case "<=" ->
-                result <= 0;
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The literal {@code ComparisonWay} is resolved in advance.
+     *
+     * @throws FormulaParseException if the literal {@code ComparisonWay} is unexpected
+     * @since 1.0.0
+     */
+    @Override
+    public Cmp specialize(Map<Integer, String> literals) {
 
-            case ">=" ->
-                result >= 0;
+        String compWay = literals.get(2);
 
-            case "<>" ->
-                result != 0;
+        if (compWay == null) {
+            return new Cmp();
+        }
 
-            default ->
-                throw new FormulaExecutionException("[Compare] Unexpected comparison way. [%s]".formatted(compWay));
+        return new Cmp(ComparisonWay.of(compWay).orElseThrow(() -> new FormulaParseException(
+                "[Compare] Unexpected comparison way. [%s]".formatted(compWay))));
 
-        });
+    }
 
+    /**
+     * {@inheritDoc}
+     *
+     * @return {@code true}
+     * @since 1.0.0
+     */
+    @Override
+    public boolean isDeterministic() {
+        return true;
     }
 
     /**
@@ -121,4 +206,114 @@ public class Cmp extends AbstractFunction {
                 new ArgdefImpl("Another", "The value to compare with \"Value\""),
                 new ArgdefImpl("ComparisonWay", "\"<\" or \">\" or \"=\" or \"<=\" or \">=\" or \"<>\"."));
     }
+
+    // Note: Each way has its own body, so that the comparison of a specialized function is a direct branch on the
+    //       result of compareTo, and the column loop is compiled per way.
+    private enum ComparisonWay {
+
+        LESS("<") {
+            @Override
+            boolean test(int comparisonResult) {
+                return comparisonResult < 0;
+            }
+
+            @Override
+            void compare(String[] values, String[] anothers, boolean[] results) {
+                for (int i = 0; i < results.length; i++) {
+                    String v = values[i];
+                    String a = anothers[i];
+                    results[i] = v != null && a != null && v.compareTo(a) < 0;
+                }
+            }
+        },
+        GREATER(">") {
+            @Override
+            boolean test(int comparisonResult) {
+                return comparisonResult > 0;
+            }
+
+            @Override
+            void compare(String[] values, String[] anothers, boolean[] results) {
+                for (int i = 0; i < results.length; i++) {
+                    String v = values[i];
+                    String a = anothers[i];
+                    results[i] = v != null && a != null && v.compareTo(a) > 0;
+                }
+            }
+        },
+        EQUAL("=") {
+            @Override
+            boolean test(int comparisonResult) {
+                return comparisonResult == 0;
+            }
+
+            @Override
+            void compare(String[] values, String[] anothers, boolean[] results) {
+                for (int i = 0; i < results.length; i++) {
+                    String v = values[i];
+                    String a = anothers[i];
+                    results[i] = v != null && v.equals(a);
+                }
+            }
+        },
+        LESS_OR_EQUAL("<=") {
+            @Override
+            boolean test(int comparisonResult) {
+                return comparisonResult <= 0;
+            }
+
+            @Override
+            void compare(String[] values, String[] anothers, boolean[] results) {
+                for (int i = 0; i < results.length; i++) {
+                    String v = values[i];
+                    String a = anothers[i];
+                    results[i] = v != null && a != null && v.compareTo(a) <= 0;
+                }
+            }
+        },
+        GREATER_OR_EQUAL(">=") {
+            @Override
+            boolean test(int comparisonResult) {
+                return comparisonResult >= 0;
+            }
+
+            @Override
+            void compare(String[] values, String[] anothers, boolean[] results) {
+                for (int i = 0; i < results.length; i++) {
+                    String v = values[i];
+                    String a = anothers[i];
+                    results[i] = v != null && a != null && v.compareTo(a) >= 0;
+                }
+            }
+        },
+        NOT_EQUAL("<>") {
+            @Override
+            boolean test(int comparisonResult) {
+                return comparisonResult != 0;
+            }
+
+            @Override
+            void compare(String[] values, String[] anothers, boolean[] results) {
+                for (int i = 0; i < results.length; i++) {
+                    String v = values[i];
+                    String a = anothers[i];
+                    results[i] = v != null && a != null && !v.equals(a);
+                }
+            }
+        };
+
+        private final String symbol;
+
+        private ComparisonWay(String symbol) {
+            this.symbol = symbol;
+        }
+
+        static Optional<ComparisonWay> of(String symbol) {
+            return Stream.of(values()).filter(w -> w.symbol.equals(symbol)).findFirst();
+        }
+
+        abstract boolean test(int comparisonResult);
+
+        abstract void compare(String[] values, String[] anothers, boolean[] results);
+    }
 }
@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2024, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.formula.impl.function;
+
+import java.util.Map;
+import java.util.Objects;
+import jp.mydns.projectk.formula.FormulaExecutionException;
+import jp.mydns.projectk.formula.FormulaFunction;
+import jp.mydns.projectk.formula.FormulaParseException;
+import jp.mydns.projectk.formula.impl.AbstractFunction;
+import jp.mydns.projectk.formula.impl.ArgdefImpl;
+import jp.mydns.projectk.formula.impl.ArgumentSchemeImpl;
+import jp.mydns.projectk.formula.impl.Numeric;
+import jp.mydns.projectk.formula.impl.NumericFunction;
+import jp.mydns.projectk.formula.impl.RepeatArgdefImpl;
+import jp.mydns.projectk.formula.impl.TypedArguments;
+
+/**
+ * A formula function that divides a decimal number by another.
+ *
+ * @author riru
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+@FormulaFunction("Div")
+public class Div extends AbstractFunction implements NumericFunction {
+
+    private final Integer scale;
+
+    /**
+     * Constructor.
+     *
+     * @since 1.0.0
+     */
+    public Div() {
+        this(null);
+    }
+
+    private Div(Integer scale) {
+        this.scale = scale;
+    }
+
+    /**
+     * Run this function.
+     *
+     * @param args valid number arguments
+     * <table border="1"><caption>Arguments definition</caption>
+     * <thead><tr><th>#</th><th>name</th><th>type</th><th>description</th></tr></thead>
+     * <tbody>
+     * <tr><td>1</td><td>Dividend</td><td>Decimal</td><td>The value to be divided.</td></tr>
+     * <tr><td>2</td><td>Divisor</td><td>Decimal</td><td>The value to divide by.</td></tr>
+     * <tr><td>3</td><td>Scale</td><td>Integer</td><td>Scale of the quotient. The quotient is rounded half up. It can
+     * be omitted, then the quotient is rounded to 34 digits if it does not terminate, and its trailing zeros in the
+     * fraction are removed.</td></tr>
+     * </tbody></table>
+     * @return the quotient. If {@code Dividend} or {@code Divisor} is {@code null}, then {@code null}.
+     * @throws FormulaExecutionException if any value is invalid as number, or {@code Divisor} is zero
+     * @since 1.0.0
+     */
+    @Override
+    public String calculate(Argument... args) {
+        return Objects.toString(calculateNumeric(args), null);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since 1.0.0
+     */
+    @Override
+    public Numeric executeNumeric(Argument... args) {
+        return calculateNumeric(getArgumentScheme().requireValid(args));
+    }
+
+    private Numeric calculateNumeric(Argument... args) {
+
+        Numeric dividend = TypedArguments.resolveNumeric(args[0]);
+        Numeric divisor = dividend == null ? null : TypedArguments.resolveNumeric(args[1]);
+
+        if (divisor == null) {
+            return null;
+        }
+
+        Integer quotientScale = scale != null ? scale : args.length > 2 ? Argument.Utils.requireInt(args[2]) : null;
+
+        if (divisor.signum() == 0) {
+            throw new FormulaExecutionException("[Div] Division by zero.");
+        }
+
+        return quotientScale == null ? dividend.divide(divisor) : dividend.divide(divisor, quotientScale);
+
+    }
+
+    /**
+     * Divide the values of two columns row by row. It is the batch form of this function. A row that any value is
+     * {@code null} results {@code null}.
+     *
+     * @param dividends the values of "Dividend"
+     * @param divisors the values of "Divisor"
+     * @param scale the "Scale". It is {@code null} if omitted.
+     * @param results the results. It is overwritten.
+     * @throws NullPointerException if any argument is {@code null}
+     * @throws IllegalArgumentException if the length of arrays are different
+     * @throws ArithmeticException if a divisor is zero
+     * @since 1.0.0
+     */
+    public static void divide(Numeric[] dividends, Numeric[] divisors, Integer scale, Numeric[] results) {
+
+        Objects.requireNonNull(dividends);
+        Objects.requireNonNull(divisors);
+        Objects.requireNonNull(results);
+
+        if (dividends.length != divisors.length || dividends.length != results.length) {
+            throw new IllegalArgumentException("Mismatched column length.");
+        }
+
+        if (scale == null) {
+            for (int i = 0; i < results.length; i++) {
+                Numeric a = dividends[i];
+                Numeric b = divisors[i];
+                results[i] = a == null || b == null ? null : a.divide(b);
+            }
+        } else {
+            for (int i = 0; i < results.length; i++) {
+                Numeric a = dividends[i];
+                Numeric b = divisors[i];
+                results[i] = a == null || b == null ? null : a.divide(b, scale);
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The literal {@code Scale} is resolved in advance.
+     *
+     * @throws FormulaParseException if the literal {@code Scale} is invalid
+     * @since 1.0.0
+     */
+    @Override
+    public Div specialize(Map<Integer, String> literals) {
+        return new Div(Round.scaleOf("Div", literals.get(2)));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return {@code true}
+     * @since 1.0.0
+     */
+    @Override
+    public boolean isDeterministic() {
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since 1.0.0
+     */
+    @Override
+    public ArgumentScheme getArgumentScheme() {
+        return new ArgumentSchemeImpl(
+                new ArgdefImpl("Dividend", "The value to be divided."),
+                new ArgdefImpl("Divisor", "The value to divide by."),
+                new RepeatArgdefImpl("Scale", 0, 1, "Scale of the quotient."));
+    }
+}
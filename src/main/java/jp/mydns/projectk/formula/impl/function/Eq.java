@@ -26,10 +26,13 @@
 package jp.mydns.projectk.formula.impl.function;
 
 import java.util.Objects;
+import jp.mydns.projectk.formula.FormulaFunction;
 import jp.mydns.projectk.formula.Function;
 import jp.mydns.projectk.formula.impl.AbstractFunction;
 import jp.mydns.projectk.formula.impl.ArgdefImpl;
 import jp.mydns.projectk.formula.impl.ArgumentSchemeImpl;
+import jp.mydns.projectk.formula.impl.BooleanArgument;
+import jp.mydns.projectk.formula.impl.BooleanFunction;
 
 /**
  * A formula function that determines whether two values are equal.
@@ -38,7 +41,8 @@ import jp.mydns.projectk.formula.impl.ArgumentSchemeImpl;
  * @version 1.0.0
  * @since 1.0.0
  */
-public class Eq extends AbstractFunction {
+@FormulaFunction("Eq")
+public class Eq extends AbstractFunction implements BooleanFunction {
 
     /**
      * Run this function.
@@ -56,7 +60,39 @@ public class Eq extends AbstractFunction {
      */
     @Override
     public String calculate(Function.Argument... args) {
-        return Boolean.toString(Objects.equals(args[0].resolve(), args[1].resolve()));
+        return Boolean.toString(calculateBoolean(args));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since 1.0.0
+     */
+    @Override
+    public boolean executeBoolean(Function.Argument... args) {
+        return calculateBoolean(getArgumentScheme().requireValid(args));
+    }
+
+    private boolean calculateBoolean(Function.Argument... args) {
+
+        // Note: The string of a boolean is always "true" or "false", so it can be compared as boolean.
+        if (args[0] instanceof BooleanArgument value && args[1] instanceof BooleanArgument another) {
+            return value.resolveBoolean() == another.resolveBoolean();
+        }
+
+        return Objects.equals(args[0].resolve(), args[1].resolve());
+
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return {@code true}
+     * @since 1.0.0
+     */
+    @Override
+    public boolean isDeterministic() {
+        return true;
     }
 
     /**
@@ -25,10 +25,12 @@
  */
 package jp.mydns.projectk.formula.impl.function;
 
+import jp.mydns.projectk.formula.FormulaFunction;
 import jp.mydns.projectk.formula.Function;
 import jp.mydns.projectk.formula.impl.AbstractFunction;
 import jp.mydns.projectk.formula.impl.ArgdefImpl;
 import jp.mydns.projectk.formula.impl.ArgumentSchemeImpl;
+import jp.mydns.projectk.formula.impl.TypedArguments;
 
 /**
  * A formula function that returns {@code "true"} if the boolean value is {@code true} , otherwise {@code "false"} .
@@ -37,6 +39,7 @@ import jp.mydns.projectk.formula.impl.ArgumentSchemeImpl;
  * @version 1.0.0
  * @since 1.0.0
  */
+@FormulaFunction("If")
 public class If extends AbstractFunction {
 
     /**
@@ -58,7 +61,18 @@ public class If extends AbstractFunction {
      */
     @Override
     public String calculate(Function.Argument... args) {
-        return Boolean.parseBoolean(args[0].resolve()) ? args[1].resolve() : args[2].resolve();
+        return TypedArguments.resolveBoolean(args[0]) ? args[1].resolve() : args[2].resolve();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return {@code true}
+     * @since 1.0.0
+     */
+    @Override
+    public boolean isDeterministic() {
+        return true;
     }
 
     /**
@@ -26,6 +26,7 @@
 package jp.mydns.projectk.formula.impl.function;
 
 import java.util.Optional;
+import jp.mydns.projectk.formula.FormulaFunction;
 import jp.mydns.projectk.formula.Function;
 import jp.mydns.projectk.formula.impl.AbstractFunction;
 import jp.mydns.projectk.formula.impl.ArgdefImpl;
@@ -38,6 +39,7 @@ import jp.mydns.projectk.formula.impl.ArgumentSchemeImpl;
  * @version 1.0.0
  * @since 1.0.0
  */
+@FormulaFunction("IfNull")
 public class IfNull extends AbstractFunction {
 
     /**
@@ -59,6 +61,17 @@ public class IfNull extends AbstractFunction {
         return Optional.ofNullable(args[0].resolve()).orElseGet(args[1]::resolve);
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * @return {@code true}
+     * @since 1.0.0
+     */
+    @Override
+    public boolean isDeterministic() {
+        return true;
+    }
+
     /**
      * {@inheritDoc}
      *
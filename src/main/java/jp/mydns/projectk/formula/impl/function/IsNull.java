@@ -25,10 +25,12 @@
  */
 package jp.mydns.projectk.formula.impl.function;
 
+import jp.mydns.projectk.formula.FormulaFunction;
 import jp.mydns.projectk.formula.Function;
 import jp.mydns.projectk.formula.impl.AbstractFunction;
 import jp.mydns.projectk.formula.impl.ArgdefImpl;
 import jp.mydns.projectk.formula.impl.ArgumentSchemeImpl;
+import jp.mydns.projectk.formula.impl.BooleanFunction;
 
 /**
  * A formula function that determines {@code null}.
@@ -37,7 +39,8 @@ import jp.mydns.projectk.formula.impl.ArgumentSchemeImpl;
  * @version 1.0.0
  * @since 1.0.0
  */
-public class IsNull extends AbstractFunction {
+@FormulaFunction("IsNull")
+public class IsNull extends AbstractFunction implements BooleanFunction {
 
     /**
      * Run this function.
@@ -53,7 +56,32 @@ public class IsNull extends AbstractFunction {
      */
     @Override
     public String calculate(Function.Argument... args) {
-        return Boolean.toString(args[0].resolve() == null);
+        return Boolean.toString(calculateBoolean(args));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since 1.0.0
+     */
+    @Override
+    public boolean executeBoolean(Function.Argument... args) {
+        return calculateBoolean(getArgumentScheme().requireValid(args));
+    }
+
+    private boolean calculateBoolean(Function.Argument... args) {
+        return args[0].resolve() == null;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return {@code true}
+     * @since 1.0.0
+     */
+    @Override
+    public boolean isDeterministic() {
+        return true;
     }
 
     /**
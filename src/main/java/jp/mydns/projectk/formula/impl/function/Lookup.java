@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2024, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.formula.impl.function;
+
+import java.util.Map;
+import java.util.Objects;
+import jp.mydns.projectk.formula.FormulaExecutionException;
+import jp.mydns.projectk.formula.FormulaParseException;
+import jp.mydns.projectk.formula.LookupTable;
+import jp.mydns.projectk.formula.impl.AbstractFunction;
+import jp.mydns.projectk.formula.impl.ArgdefImpl;
+import jp.mydns.projectk.formula.impl.ArgumentSchemeImpl;
+import jp.mydns.projectk.formula.impl.RepeatArgdefImpl;
+
+/**
+ * A formula function that translates a key through a lookup table.
+ *
+ * @author riru
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public class Lookup extends AbstractFunction {
+
+    private final Map<String, LookupTable> tables;
+    private final LookupTable table;
+
+    /**
+     * Constructor.
+     *
+     * @param tables lookup tables by name
+     * @throws NullPointerException if {@code tables} is {@code null}
+     * @since 1.0.0
+     */
+    public Lookup(Map<String, LookupTable> tables) {
+        this(Objects.requireNonNull(tables), null);
+    }
+
+    private Lookup(Map<String, LookupTable> tables, LookupTable table) {
+        this.tables = tables;
+        this.table = table;
+    }
+
+    /**
+     * Run this function.
+     *
+     * @param args valid number arguments
+     * <table border="1"><caption>Arguments definition</caption>
+     * <thead><tr><th>#</th><th>name</th><th>type</th><th>description</th></tr></thead>
+     * <tbody>
+     * <tr><td>1</td><td>Table</td><td>Text</td><td>Name of the lookup table.</td></tr>
+     * <tr><td>2</td><td>Key</td><td>Text</td><td>The key to look up.</td></tr>
+     * <tr><td>3</td><td>DefaultValue</td><td>Text</td><td>Value returned if {@code "Key"} is not found. It can be
+     * omitted.</td></tr>
+     * </tbody></table>
+     * @return the value mapped to {@code Key}. If {@code Key} is {@code null} or not found, then
+     * {@code DefaultValue}, or {@code null} if it is omitted.
+     * @throws FormulaExecutionException if {@code Table} is not registered
+     * @since 1.0.0
+     */
+    @Override
+    public String calculate(Argument... args) {
+
+        LookupTable lookupTable = table != null ? table : requireTable(args[0].resolve());
+        String key = args[1].resolve();
+
+        String value = key == null ? null : lookupTable.get(key);
+
+        if (value == null && args.length > 2) {
+            return args[2].resolve();
+        }
+
+        return value;
+
+    }
+
+    private LookupTable requireTable(String name) {
+
+        LookupTable lookupTable = name == null ? null : tables.get(name);
+
+        if (lookupTable == null) {
+            throw new FormulaExecutionException("[Lookup] Missing table. [%s]".formatted(name));
+        }
+
+        return lookupTable;
+
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The literal {@code Table} is resolved in advance.
+     *
+     * @throws FormulaParseException if the literal {@code Table} is not registered
+     * @since 1.0.0
+     */
+    @Override
+    public Lookup specialize(Map<Integer, String> literals) {
+
+        String name = literals.get(0);
+
+        if (name == null) {
+            return new Lookup(tables, null);
+        }
+
+        LookupTable lookupTable = tables.get(name);
+
+        if (lookupTable == null) {
+            throw new FormulaParseException("[Lookup] Missing table. [%s]".formatted(name));
+        }
+
+        return new Lookup(tables, lookupTable);
+
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return {@code true}
+     * @since 1.0.0
+     */
+    @Override
+    public boolean isDeterministic() {
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since 1.0.0
+     */
+    @Override
+    public ArgumentScheme getArgumentScheme() {
+        return new ArgumentSchemeImpl(
+                new ArgdefImpl("Table", "Name of the lookup table."),
+                new ArgdefImpl("Key", "The key to look up."),
+                new RepeatArgdefImpl("DefaultValue", 0, 1, "Value returned if \"Key\" is not found."));
+    }
+}
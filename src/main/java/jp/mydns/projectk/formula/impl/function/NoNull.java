@@ -27,6 +27,7 @@ package jp.mydns.projectk.formula.impl.function;
 
 import java.util.Optional;
 import jp.mydns.projectk.formula.FormulaExecutionException;
+import jp.mydns.projectk.formula.FormulaFunction;
 import jp.mydns.projectk.formula.Function;
 import jp.mydns.projectk.formula.impl.AbstractFunction;
 import jp.mydns.projectk.formula.impl.ArgdefImpl;
@@ -39,6 +40,7 @@ import jp.mydns.projectk.formula.impl.ArgumentSchemeImpl;
  * @version 1.0.0
  * @since 1.0.0
  */
+@FormulaFunction("NoNull")
 public class NoNull extends AbstractFunction {
 
     /**
@@ -61,6 +63,17 @@ public class NoNull extends AbstractFunction {
                 .orElseThrow(() -> new FormulaExecutionException("[NoNull] A null was detected."));
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * @return {@code true}
+     * @since 1.0.0
+     */
+    @Override
+    public boolean isDeterministic() {
+        return true;
+    }
+
     /**
      * {@inheritDoc}
      *
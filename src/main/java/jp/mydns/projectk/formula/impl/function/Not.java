@@ -25,10 +25,13 @@
  */
 package jp.mydns.projectk.formula.impl.function;
 
+import jp.mydns.projectk.formula.FormulaFunction;
 import jp.mydns.projectk.formula.Function;
 import jp.mydns.projectk.formula.impl.AbstractFunction;
 import jp.mydns.projectk.formula.impl.ArgdefImpl;
 import jp.mydns.projectk.formula.impl.ArgumentSchemeImpl;
+import jp.mydns.projectk.formula.impl.BooleanFunction;
+import jp.mydns.projectk.formula.impl.TypedArguments;
 
 /**
  * A formula function that calculates an inverse boolean value.
@@ -37,7 +40,8 @@ import jp.mydns.projectk.formula.impl.ArgumentSchemeImpl;
  * @version 1.0.0
  * @since 1.0.0
  */
-public class Not extends AbstractFunction {
+@FormulaFunction("Not")
+public class Not extends AbstractFunction implements BooleanFunction {
 
     /**
      * Returns the inverse boolean value of the {@code "BoolValue"}.
@@ -55,7 +59,32 @@ public class Not extends AbstractFunction {
      */
     @Override
     public String calculate(Function.Argument... args) {
-        return Boolean.toString(!Boolean.parseBoolean(args[0].resolve()));
+        return Boolean.toString(calculateBoolean(args));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since 1.0.0
+     */
+    @Override
+    public boolean executeBoolean(Function.Argument... args) {
+        return calculateBoolean(getArgumentScheme().requireValid(args));
+    }
+
+    private boolean calculateBoolean(Function.Argument... args) {
+        return !TypedArguments.resolveBoolean(args[0]);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return {@code true}
+     * @since 1.0.0
+     */
+    @Override
+    public boolean isDeterministic() {
+        return true;
     }
 
     /**
@@ -25,11 +25,13 @@
  */
 package jp.mydns.projectk.formula.impl.function;
 
-import java.util.stream.Stream;
+import jp.mydns.projectk.formula.FormulaFunction;
 import jp.mydns.projectk.formula.Function;
 import jp.mydns.projectk.formula.impl.AbstractFunction;
 import jp.mydns.projectk.formula.impl.ArgumentSchemeImpl;
+import jp.mydns.projectk.formula.impl.BooleanFunction;
 import jp.mydns.projectk.formula.impl.RepeatArgdefImpl;
+import jp.mydns.projectk.formula.impl.TypedArguments;
 
 /**
  * A formula function that determines whether one or more boolean values are {@code true}. Short-sighted judgment is
@@ -40,7 +42,8 @@ import jp.mydns.projectk.formula.impl.RepeatArgdefImpl;
  * @version 1.0.0
  * @since 1.0.0
  */
-public class Or extends AbstractFunction {
+@FormulaFunction("Or")
+public class Or extends AbstractFunction implements BooleanFunction {
 
     private static final int REPEAT_MIN = 0;
     private static final int REPEAT_MAX = 20;
@@ -62,8 +65,40 @@ public class Or extends AbstractFunction {
      */
     @Override
     public String calculate(Function.Argument... args) {
-        return Boolean.toString(Stream.of(args).sequential().map(Function.Argument::resolve)
-                .map(Boolean::valueOf).anyMatch(Boolean.TRUE::equals));
+        return Boolean.toString(calculateBoolean(args));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since 1.0.0
+     */
+    @Override
+    public boolean executeBoolean(Function.Argument... args) {
+        return calculateBoolean(getArgumentScheme().requireValid(args));
+    }
+
+    private boolean calculateBoolean(Function.Argument... args) {
+
+        for (Function.Argument arg : args) {
+            if (TypedArguments.resolveBoolean(arg)) {
+                return true;
+            }
+        }
+
+        return false;
+
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return {@code true}
+     * @since 1.0.0
+     */
+    @Override
+    public boolean isDeterministic() {
+        return true;
     }
 
     /**
@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2024, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.formula.impl.function;
+
+import java.util.Map;
+import java.util.Objects;
+import jp.mydns.projectk.formula.FormulaExecutionException;
+import jp.mydns.projectk.formula.FormulaParseException;
+import jp.mydns.projectk.formula.LookupTable;
+import jp.mydns.projectk.formula.RangeTable;
+import jp.mydns.projectk.formula.impl.AbstractFunction;
+import jp.mydns.projectk.formula.impl.ArgdefImpl;
+import jp.mydns.projectk.formula.impl.ArgumentSchemeImpl;
+import jp.mydns.projectk.formula.impl.RepeatArgdefImpl;
+
+/**
+ * A formula function that finds the value of the range that contains a value through a range table.
+ *
+ * @author riru
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public class RangeLookup extends AbstractFunction {
+
+    private final Map<String, LookupTable> tables;
+    private final RangeTable table;
+
+    /**
+     * Constructor.
+     *
+     * @param tables lookup tables by name. The tables other than {@code RangeTable} are not referenced.
+     * @throws NullPointerException if {@code tables} is {@code null}
+     * @since 1.0.0
+     */
+    public RangeLookup(Map<String, LookupTable> tables) {
+        this(Objects.requireNonNull(tables), null);
+    }
+
+    private RangeLookup(Map<String, LookupTable> tables, RangeTable table) {
+        this.tables = tables;
+        this.table = table;
+    }
+
+    /**
+     * Run this function.
+     *
+     * @param args valid number arguments
+     * <table border="1"><caption>Arguments definition</caption>
+     * <thead><tr><th>#</th><th>name</th><th>type</th><th>description</th></tr></thead>
+     * <tbody>
+     * <tr><td>1</td><td>Table</td><td>Text</td><td>Name of the range table.</td></tr>
+     * <tr><td>2</td><td>Value</td><td>Text</td><td>The value to find the range.</td></tr>
+     * <tr><td>3</td><td>DefaultValue</td><td>Text</td><td>Value returned if no range contains {@code "Value"}. It
+     * can be omitted.</td></tr>
+     * </tbody></table>
+     * @return the value of the range that contains {@code Value}. If {@code Value} is {@code null} or not contained,
+     * then {@code DefaultValue}, or {@code null} if it is omitted.
+     * @throws FormulaExecutionException if {@code Table} is not a registered range table
+     * @since 1.0.0
+     */
+    @Override
+    public String calculate(Argument... args) {
+
+        RangeTable rangeTable = table != null ? table : requireTable(args[0].resolve());
+        String value = args[1].resolve();
+
+        String result = value == null ? null : rangeTable.get(value);
+
+        if (result == null && args.length > 2) {
+            return args[2].resolve();
+        }
+
+        return result;
+
+    }
+
+    private RangeTable requireTable(String name) {
+
+        if (name != null && tables.get(name) instanceof RangeTable rangeTable) {
+            return rangeTable;
+        }
+
+        throw new FormulaExecutionException("[RangeLookup] Missing range table. [%s]".formatted(name));
+
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The literal {@code Table} is resolved in advance.
+     *
+     * @throws FormulaParseException if the literal {@code Table} is not a registered range table
+     * @since 1.0.0
+     */
+    @Override
+    public RangeLookup specialize(Map<Integer, String> literals) {
+
+        String name = literals.get(0);
+
+        if (name == null) {
+            return new RangeLookup(tables, null);
+        }
+
+        if (tables.get(name) instanceof RangeTable rangeTable) {
+            return new RangeLookup(tables, rangeTable);
+        }
+
+        throw new FormulaParseException("[RangeLookup] Missing range table. [%s]".formatted(name));
+
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return {@code true}
+     * @since 1.0.0
+     */
+    @Override
+    public boolean isDeterministic() {
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since 1.0.0
+     */
+    @Override
+    public ArgumentScheme getArgumentScheme() {
+        return new ArgumentSchemeImpl(
+                new ArgdefImpl("Table", "Name of the range table."),
+                new ArgdefImpl("Value", "The value to find the range."),
+                new RepeatArgdefImpl("DefaultValue", 0, 1, "Value returned if no range contains \"Value\"."));
+    }
+}
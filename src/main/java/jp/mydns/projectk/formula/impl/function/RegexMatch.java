@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2024, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.formula.impl.function;
+
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import jp.mydns.projectk.formula.FormulaExecutionException;
+import jp.mydns.projectk.formula.FormulaFunction;
+import jp.mydns.projectk.formula.FormulaParseException;
+import jp.mydns.projectk.formula.Function;
+import jp.mydns.projectk.formula.impl.AbstractFunction;
+import jp.mydns.projectk.formula.impl.ArgdefImpl;
+import jp.mydns.projectk.formula.impl.ArgumentSchemeImpl;
+import jp.mydns.projectk.formula.impl.BooleanFunction;
+import jp.mydns.projectk.formula.impl.TypedArguments;
+
+/**
+ * A formula function that determines whether a text contains a match of a regular expression.
+ *
+ * @author riru
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+@FormulaFunction("RegexMatch")
+public class RegexMatch extends AbstractFunction implements BooleanFunction {
+
+    private final Pattern pattern;
+    private final RegexMatchers matchers = new RegexMatchers();
+
+    /**
+     * Constructor.
+     *
+     * @since 1.0.0
+     */
+    public RegexMatch() {
+        this(null);
+    }
+
+    private RegexMatch(Pattern pattern) {
+        this.pattern = pattern;
+    }
+
+    /**
+     * Run this function.
+     *
+     * @param args valid number arguments
+     * <table border="1"><caption>Arguments definition</caption>
+     * <thead><tr><th>#</th><th>name</th><th>type</th><th>description</th></tr></thead>
+     * <tbody>
+     * <tr><td>1</td><td>Value</td><td>Text</td><td>The value to search.</td></tr>
+     * <tr><td>2</td><td>Regex</td><td>Regular expression</td><td>The pattern to find. Use {@code ^} and {@code $} to
+     * match the whole value.</td></tr>
+     * </tbody></table>
+     * @return {@code "true"} if {@code Value} contains a match of {@code Regex}, otherwise {@code "false"}. If
+     * {@code Value} is {@code null}, then {@code "false"}.
+     * @throws FormulaExecutionException if {@code Regex} is invalid
+     * @since 1.0.0
+     */
+    @Override
+    public String calculate(Function.Argument... args) {
+        return Boolean.toString(calculateBoolean(args));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since 1.0.0
+     */
+    @Override
+    public boolean executeBoolean(Function.Argument... args) {
+        return calculateBoolean(getArgumentScheme().requireValid(args));
+    }
+
+    private boolean calculateBoolean(Function.Argument... args) {
+
+        String value = args[0].resolve();
+        Pattern regex = pattern != null ? pattern : TypedArguments.requirePattern(args[1]);
+
+        if (value == null) {
+            return false;
+        }
+
+        Matcher matcher = matchers.matcher(regex, value);
+
+        try {
+            return matcher.find();
+        } finally {
+            matchers.release(matcher);
+        }
+
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The literal {@code Regex} is compiled in advance.
+     *
+     * @throws FormulaParseException if the literal {@code Regex} is invalid
+     * @since 1.0.0
+     */
+    @Override
+    public RegexMatch specialize(Map<Integer, String> literals) {
+        return new RegexMatch(RegexMatchers.compileLiteral("RegexMatch", literals.get(1)));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return {@code true}
+     * @since 1.0.0
+     */
+    @Override
+    public boolean isDeterministic() {
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since 1.0.0
+     */
+    @Override
+    public ArgumentScheme getArgumentScheme() {
+        return new ArgumentSchemeImpl(
+                new ArgdefImpl("Value", "The value to search."),
+                new ArgdefImpl("Regex", "The regular expression to find."));
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2024, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.formula.impl.function;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import jp.mydns.projectk.formula.FormulaParseException;
+
+/**
+ * Reusable {@code Matcher}s of a regex function. A {@code Matcher} is kept for each thread, and is reset with the
+ * pattern and the input of the next call, so the hot path allocates no {@code Matcher}.
+ * <p>
+ * The returned {@code Matcher} is valid until the next call on the same thread. So resolve all of the arguments
+ * before getting it, and {@link #release(Matcher) release} it after use, so the kept {@code Matcher} does not hold the
+ * input value.
+ *
+ * @author riru
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+final class RegexMatchers {
+
+    private final ThreadLocal<Matcher> matchers = new ThreadLocal<>();
+
+    /**
+     * Get the {@code Matcher} of this thread.
+     *
+     * @param pattern the pattern
+     * @param input the input
+     * @return the {@code Matcher} that reset with {@code pattern} and {@code input}
+     * @since 1.0.0
+     */
+    Matcher matcher(Pattern pattern, CharSequence input) {
+
+        Matcher matcher = matchers.get();
+
+        if (matcher == null) {
+            matcher = pattern.matcher(input);
+            matchers.set(matcher);
+            return matcher;
+        }
+
+        if (matcher.pattern() != pattern) {
+            matcher.usePattern(pattern);
+        }
+
+        return matcher.reset(input);
+
+    }
+
+    /**
+     * Release the input held by the {@code Matcher}. The {@code Matcher} is kept for the next call.
+     *
+     * @param matcher the {@code Matcher} that got from this
+     * @since 1.0.0
+     */
+    void release(Matcher matcher) {
+        matcher.reset("");
+    }
+
+    /**
+     * Compile the literal regular expression.
+     *
+     * @param functionName name of the function that reported in the error message
+     * @param regex the literal regular expression. It may be {@code null}.
+     * @return the compiled {@code Pattern}. It is {@code null} if {@code regex} is {@code null}.
+     * @throws FormulaParseException if {@code regex} is invalid
+     * @since 1.0.0
+     */
+    static Pattern compileLiteral(String functionName, String regex) {
+
+        if (regex == null) {
+            return null;
+        }
+
+        try {
+            return Pattern.compile(regex);
+        } catch (PatternSyntaxException ex) {
+            throw new FormulaParseException("[%s] Invalid regular expression. [%s]".formatted(functionName, regex));
+        }
+    }
+}
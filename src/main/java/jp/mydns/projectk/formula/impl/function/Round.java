@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2024, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.formula.impl.function;
+
+import java.util.Map;
+import java.util.Objects;
+import jp.mydns.projectk.formula.FormulaExecutionException;
+import jp.mydns.projectk.formula.FormulaFunction;
+import jp.mydns.projectk.formula.FormulaParseException;
+import jp.mydns.projectk.formula.impl.AbstractFunction;
+import jp.mydns.projectk.formula.impl.ArgdefImpl;
+import jp.mydns.projectk.formula.impl.ArgumentSchemeImpl;
+import jp.mydns.projectk.formula.impl.Numeric;
+import jp.mydns.projectk.formula.impl.NumericFunction;
+import jp.mydns.projectk.formula.impl.TypedArguments;
+
+/**
+ * A formula function that rounds a decimal number half up.
+ *
+ * @author riru
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+@FormulaFunction("Round")
+public class Round extends AbstractFunction implements NumericFunction {
+
+    private final Integer scale;
+
+    /**
+     * Constructor.
+     *
+     * @since 1.0.0
+     */
+    public Round() {
+        this(null);
+    }
+
+    private Round(Integer scale) {
+        this.scale = scale;
+    }
+
+    /**
+     * Run this function.
+     *
+     * @param args valid number arguments
+     * <table border="1"><caption>Arguments definition</caption>
+     * <thead><tr><th>#</th><th>name</th><th>type</th><th>description</th></tr></thead>
+     * <tbody>
+     * <tr><td>1</td><td>Value</td><td>Decimal</td><td>The value to round.</td></tr>
+     * <tr><td>2</td><td>Scale</td><td>Integer</td><td>Number of the digits after the decimal point. A negative scale
+     * rounds the integer digits.</td></tr>
+     * </tbody></table>
+     * @return the rounded value that has {@code Scale} digits after the decimal point. If {@code Value} is
+     * {@code null}, then {@code null}.
+     * @throws FormulaExecutionException if any value is invalid
+     * @since 1.0.0
+     */
+    @Override
+    public String calculate(Argument... args) {
+        return Objects.toString(calculateNumeric(args), null);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since 1.0.0
+     */
+    @Override
+    public Numeric executeNumeric(Argument... args) {
+        return calculateNumeric(getArgumentScheme().requireValid(args));
+    }
+
+    private Numeric calculateNumeric(Argument... args) {
+
+        Numeric value = TypedArguments.resolveNumeric(args[0]);
+        int newScale = scale != null ? scale : Argument.Utils.requireInt(args[1]);
+
+        return value == null ? null : value.round(newScale);
+
+    }
+
+    /**
+     * Round the values of a column row by row. It is the batch form of this function. A row that the value is
+     * {@code null} results {@code null}.
+     *
+     * @param values the values of "Value"
+     * @param scale the "Scale"
+     * @param results the results. It is overwritten.
+     * @throws NullPointerException if any argument is {@code null}
+     * @throws IllegalArgumentException if the length of arrays are different
+     * @since 1.0.0
+     */
+    public static void round(Numeric[] values, int scale, Numeric[] results) {
+
+        Objects.requireNonNull(values);
+        Objects.requireNonNull(results);
+
+        if (values.length != results.length) {
+            throw new IllegalArgumentException("Mismatched column length.");
+        }
+
+        for (int i = 0; i < results.length; i++) {
+            Numeric v = values[i];
+            results[i] = v == null ? null : v.round(scale);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The literal {@code Scale} is resolved in advance.
+     *
+     * @throws FormulaParseException if the literal {@code Scale} is invalid
+     * @since 1.0.0
+     */
+    @Override
+    public Round specialize(Map<Integer, String> literals) {
+        return new Round(scaleOf("Round", literals.get(1)));
+    }
+
+    static Integer scaleOf(String functionName, String literal) {
+
+        if (literal == null) {
+            return null;
+        }
+
+        try {
+            return Integer.valueOf(literal);
+        } catch (NumberFormatException ex) {
+            throw new FormulaParseException("[%s] Unexpected scale. [%s]".formatted(functionName, literal));
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return {@code true}
+     * @since 1.0.0
+     */
+    @Override
+    public boolean isDeterministic() {
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since 1.0.0
+     */
+    @Override
+    public ArgumentScheme getArgumentScheme() {
+        return new ArgumentSchemeImpl(
+                new ArgdefImpl("Value", "The value to round."),
+                new ArgdefImpl("Scale", "Number of the digits after the decimal point."));
+    }
+}
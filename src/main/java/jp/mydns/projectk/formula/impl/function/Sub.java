@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2024, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.formula.impl.function;
+
+import java.util.Objects;
+import jp.mydns.projectk.formula.FormulaExecutionException;
+import jp.mydns.projectk.formula.FormulaFunction;
+import jp.mydns.projectk.formula.impl.AbstractFunction;
+import jp.mydns.projectk.formula.impl.ArgdefImpl;
+import jp.mydns.projectk.formula.impl.ArgumentSchemeImpl;
+import jp.mydns.projectk.formula.impl.Numeric;
+import jp.mydns.projectk.formula.impl.NumericFunction;
+import jp.mydns.projectk.formula.impl.TypedArguments;
+
+/**
+ * A formula function that subtracts a decimal number from another.
+ *
+ * @author riru
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+@FormulaFunction("Sub")
+public class Sub extends AbstractFunction implements NumericFunction {
+
+    /**
+     * Run this function.
+     *
+     * @param args valid number arguments
+     * <table border="1"><caption>Arguments definition</caption>
+     * <thead><tr><th>#</th><th>name</th><th>type</th><th>description</th></tr></thead>
+     * <tbody>
+     * <tr><td>1</td><td>Minuend</td><td>Decimal</td><td>The value to be subtracted.</td></tr>
+     * <tr><td>2</td><td>Subtrahend</td><td>Decimal</td><td>The value to subtract.</td></tr>
+     * </tbody></table>
+     * @return the difference of the values. If any value is {@code null}, then {@code null}.
+     * @throws FormulaExecutionException if any value is invalid as number
+     * @since 1.0.0
+     */
+    @Override
+    public String calculate(Argument... args) {
+        return Objects.toString(calculateNumeric(args), null);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since 1.0.0
+     */
+    @Override
+    public Numeric executeNumeric(Argument... args) {
+        return calculateNumeric(getArgumentScheme().requireValid(args));
+    }
+
+    private Numeric calculateNumeric(Argument... args) {
+
+        Numeric minuend = TypedArguments.resolveNumeric(args[0]);
+        Numeric subtrahend = minuend == null ? null : TypedArguments.resolveNumeric(args[1]);
+
+        return subtrahend == null ? null : minuend.subtract(subtrahend);
+
+    }
+
+    /**
+     * Subtract the values of two columns row by row. It is the batch form of this function. A row that any
+     * value is {@code null} results {@code null}.
+     *
+     * @param minuends the values of "Minuend"
+     * @param subtrahends the values of "Subtrahend"
+     * @param results the results. It is overwritten.
+     * @throws NullPointerException if any argument is {@code null}
+     * @throws IllegalArgumentException if the length of arrays are different
+     * @since 1.0.0
+     */
+    public static void subtract(Numeric[] minuends, Numeric[] subtrahends, Numeric[] results) {
+
+        Objects.requireNonNull(minuends);
+        Objects.requireNonNull(subtrahends);
+        Objects.requireNonNull(results);
+
+        if (minuends.length != subtrahends.length || minuends.length != results.length) {
+            throw new IllegalArgumentException("Mismatched column length.");
+        }
+
+        for (int i = 0; i < results.length; i++) {
+            Numeric a = minuends[i];
+            Numeric b = subtrahends[i];
+            results[i] = a == null || b == null ? null : a.subtract(b);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return {@code true}
+     * @since 1.0.0
+     */
+    @Override
+    public boolean isDeterministic() {
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since 1.0.0
+     */
+    @Override
+    public ArgumentScheme getArgumentScheme() {
+        return new ArgumentSchemeImpl(
+                new ArgdefImpl("Minuend", "The value to be subtracted."),
+                new ArgdefImpl("Subtrahend", "The value to subtract."));
+    }
+}
@@ -25,11 +25,8 @@
  */
 package jp.mydns.projectk.formula.impl.function;
 
-import static java.lang.Character.isHighSurrogate;
-import static java.lang.Character.isSurrogatePair;
-import java.util.LinkedList;
-import java.util.Queue;
-import static java.util.stream.Collectors.toCollection;
+import java.util.Map;
+import jp.mydns.projectk.formula.FormulaExecutionException;
 import jp.mydns.projectk.formula.impl.AbstractFunction;
 import jp.mydns.projectk.formula.impl.ArgdefImpl;
 import jp.mydns.projectk.formula.impl.ArgumentSchemeImpl;
@@ -45,6 +42,23 @@ import jp.mydns.projectk.formula.impl.RepeatArgdefImpl;
  */
 public class SubSt extends AbstractFunction {
 
+    private final Integer beginIndex;
+    private final Integer length;
+
+    /**
+     * Constructor.
+     *
+     * @since 1.0.0
+     */
+    public SubSt() {
+        this(null, null);
+    }
+
+    private SubSt(Integer beginIndex, Integer length) {
+        this.beginIndex = beginIndex;
+        this.length = length;
+    }
+
     /**
      * Run this function.
      *
@@ -64,44 +78,59 @@ public class SubSt extends AbstractFunction {
 
         boolean hasLength = args.length > 2;
         String value = args[0].resolve();
-        int beginIdx = Argument.Utils.requireInt(args[1]);
-        int maxLength = hasLength ? Argument.Utils.requireInt(args[2]) : Integer.MAX_VALUE;
+        int beginIdx = beginIndex != null ? beginIndex : Argument.Utils.requireInt(args[1]);
+        int maxLength = !hasLength ? Integer.MAX_VALUE : length != null ? length : Argument.Utils.requireInt(args[2]);
 
         if (value == null) {
             return null;
         }
 
-        final Queue<Character> q = value.chars().mapToObj(i -> (char) i).collect(toCollection(LinkedList::new));
-        final StringBuffer sb = new StringBuffer();
-        int len = 0;
-        int idx = 0;
-
-        while (!q.isEmpty() && maxLength > len) {
-
-            char c = q.remove();
-
-            boolean isSurrogate = isHighSurrogate(c) && !q.isEmpty() && isSurrogatePair(c, q.element());
+        CodePointIndex index = new CodePointIndex(value);
 
-            if (beginIdx <= idx) {
+        int begin = Math.max(beginIdx, 0);
+        int beginOffset = index.offsetOf(begin);
+        int endOffset = maxLength <= 0 ? beginOffset : index.offsetOf((int) Math.min((long) begin + maxLength,
+                Integer.MAX_VALUE));
 
-                sb.append(c);
+        return value.substring(beginOffset, endOffset);
 
-                if (isSurrogate) {
-                    sb.append(q.remove());
-                }
-
-                len++;
+    }
 
-            } else if (isSurrogate) {
-                q.remove();
-            }
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The literal {@code BeginIndex} and {@code Length} are parsed in advance.
+     *
+     * @since 1.0.0
+     */
+    @Override
+    public SubSt specialize(Map<Integer, String> literals) {
+        return new SubSt(intOf(literals.get(1)), intOf(literals.get(2)));
+    }
 
-            idx++;
+    private Integer intOf(String literal) {
 
+        if (literal == null) {
+            return null;
         }
 
-        return sb.toString();
+        try {
+            return Argument.Utils.requireInt(Argument.of(literal));
+        } catch (FormulaExecutionException ex) {
+            // Note: Leave it to occur when calculating.
+            return null;
+        }
+    }
 
+    /**
+     * {@inheritDoc}
+     *
+     * @return {@code true}
+     * @since 1.0.0
+     */
+    @Override
+    public boolean isDeterministic() {
+        return true;
     }
 
     /**
@@ -116,4 +145,61 @@ public class SubSt extends AbstractFunction {
                 new ArgdefImpl("BeginIndex", "Begin index. It begin with 0."),
                 new RepeatArgdefImpl("Length", 0, 1, "Substring length."));
     }
+
+    /**
+     * Index from the code point position to the char offset of a string. The string is scanned only up to the farthest
+     * position asked, and the end offset continues the scan from the begin offset.
+     */
+    private static class CodePointIndex {
+
+        // Note: The index is local to a call. Keeping it for each thread would retain the last input string.
+        private final String text;
+        private int codePoints;
+        private int offset;
+        private boolean noSurrogates = true;
+
+        CodePointIndex(String text) {
+            this.text = text;
+        }
+
+        // Note: An unpaired surrogate is counted as a code point. Returns the length if position exceeds the text.
+        int offsetOf(int position) {
+
+            if (position <= codePoints) {
+                return noSurrogates ? position : scan(0, 0, position);
+            }
+
+            return scan(codePoints, offset, position);
+
+        }
+
+        private int scan(int fromCodePoints, int fromOffset, int position) {
+
+            int cp = fromCodePoints;
+            int i = fromOffset;
+            int length = text.length();
+
+            while (cp < position && i < length) {
+
+                if (Character.isHighSurrogate(text.charAt(i)) && i + 1 < length
+                        && Character.isLowSurrogate(text.charAt(i + 1))) {
+                    i += 2;
+                } else {
+                    i++;
+                }
+
+                cp++;
+
+            }
+
+            if (cp > codePoints) {
+                noSurrogates = noSurrogates && cp == i;
+                codePoints = cp;
+                offset = i;
+            }
+
+            return i;
+
+        }
+    }
 }
@@ -25,14 +25,18 @@
  */
 package jp.mydns.projectk.formula.impl.function;
 
-import java.time.Duration;
 import java.time.LocalDateTime;
-import java.time.Period;
-import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.Objects;
 import jp.mydns.projectk.formula.FormulaExecutionException;
 import jp.mydns.projectk.formula.impl.AbstractFunction;
 import jp.mydns.projectk.formula.impl.ArgdefImpl;
 import jp.mydns.projectk.formula.impl.ArgumentSchemeImpl;
+import jp.mydns.projectk.formula.impl.DateTimeCodec;
+import jp.mydns.projectk.formula.impl.FunctionMemo;
+import jp.mydns.projectk.formula.impl.PeriodDuration;
+import jp.mydns.projectk.formula.impl.TemporalFunction;
+import jp.mydns.projectk.formula.impl.TypedArguments;
 
 /**
  * A formula function that adds a duration to a datetime.
@@ -41,7 +45,25 @@ import jp.mydns.projectk.formula.impl.ArgumentSchemeImpl;
  * @version 1.0.0
  * @since 1.0.0
  */
-public class TimeAdd extends AbstractFunction {
+public class TimeAdd extends AbstractFunction implements TemporalFunction {
+
+    private static final int MEMO_SIZE = 1024;
+
+    private final FunctionMemo memo = new FunctionMemo(MEMO_SIZE);
+    private final PeriodDuration periodDuration;
+
+    /**
+     * Constructor.
+     *
+     * @since 1.0.0
+     */
+    public TimeAdd() {
+        this(null);
+    }
+
+    private TimeAdd(PeriodDuration periodDuration) {
+        this.periodDuration = periodDuration;
+    }
 
     /**
      * Run this function.
@@ -62,46 +84,87 @@ public class TimeAdd extends AbstractFunction {
      */
     @Override
     public String calculate(Argument... args) {
+        return DateTimeCodec.ISO_LOCAL_DATE_TIME.format(calculateTemporal(args));
+    }
 
-        final LocalDateTime srcDateTime = Argument.Utils.requireLocalDateTime(args[0]);
-        final PeriodDuration durations = requirePeriodDuration(args[1]);
+    /**
+     * {@inheritDoc}
+     *
+     * @throws FormulaExecutionException if any argument is invalid
+     * @since 1.0.0
+     */
+    @Override
+    public LocalDateTime executeTemporal(Argument... args) {
+        return calculateTemporal(getArgumentScheme().requireValid(args));
+    }
 
-        return srcDateTime.plus(durations.p).plus(durations.d).format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+    private LocalDateTime calculateTemporal(Argument... args) {
+
+        final LocalDateTime srcDateTime = TypedArguments.requireLocalDateTime(args[0]);
+        final PeriodDuration durations = periodDuration != null ? periodDuration : requirePeriodDuration(args[1]);
+
+        return durations.addTo(srcDateTime);
 
     }
 
     private PeriodDuration requirePeriodDuration(Argument value) {
 
-        String pattern = value.resolve().toUpperCase();
-        boolean isNegative = pattern.startsWith("-");
-        String sign = isNegative ? "-" : "";
-
-        if (isNegative) {
-            pattern = pattern.substring(1);
-        }
+        // Note: A null is not an invalid durations, it is an unexpected exception.
+        String durations = Objects.requireNonNull(value.resolve());
 
         try {
+            return PeriodDuration.parse(durations);
+        } catch (RuntimeException ex) {
+            throw new FormulaExecutionException("Must be valid durations. But [%s].".formatted(durations));
+        }
+    }
 
-            if (pattern.startsWith("PT")) {
-                return new PeriodDuration(Period.ZERO, Duration.parse(sign + pattern));
-            }
-
-            int posT = pattern.indexOf('T');
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The literal {@code Duration} is parsed in advance.
+     *
+     * @since 1.0.0
+     */
+    @Override
+    public TimeAdd specialize(Map<Integer, String> literals) {
+        return new TimeAdd(periodDurationOf(literals.get(1)));
+    }
 
-            if (posT < 0) {
-                return new PeriodDuration(Period.parse(sign + pattern), Duration.ZERO);
-            }
+    private PeriodDuration periodDurationOf(String literal) {
 
-            return new PeriodDuration(Period.parse(sign + pattern.substring(0, posT)),
-                    Duration.parse(sign + "P" + pattern.substring(posT)));
+        if (literal == null) {
+            return null;
+        }
 
-        } catch (RuntimeException ex) {
-            throw new FormulaExecutionException("Must be valid durations. But [%s].".formatted(value.resolve()));
+        try {
+            return requirePeriodDuration(Argument.of(literal));
+        } catch (FormulaExecutionException ex) {
+            // Note: Leave it to occur when calculating.
+            return null;
         }
     }
 
-    private record PeriodDuration(Period p, Duration d) {
+    /**
+     * {@inheritDoc}
+     *
+     * @return the per-call-site {@code FunctionMemo}
+     * @since 1.0.0
+     */
+    @Override
+    protected FunctionMemo getMemo() {
+        return memo;
+    }
 
+    /**
+     * {@inheritDoc}
+     *
+     * @return {@code true}
+     * @since 1.0.0
+     */
+    @Override
+    public boolean isDeterministic() {
+        return true;
     }
 
     /**
@@ -27,10 +27,14 @@ package jp.mydns.projectk.formula.impl.function;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Map;
 import jp.mydns.projectk.formula.FormulaExecutionException;
 import jp.mydns.projectk.formula.impl.AbstractFunction;
 import jp.mydns.projectk.formula.impl.ArgdefImpl;
 import jp.mydns.projectk.formula.impl.ArgumentSchemeImpl;
+import jp.mydns.projectk.formula.impl.DateTimeCodec;
+import jp.mydns.projectk.formula.impl.FunctionMemo;
+import jp.mydns.projectk.formula.impl.TypedArguments;
 
 /**
  * Formula function to change the format of a datetime.
@@ -41,6 +45,26 @@ import jp.mydns.projectk.formula.impl.ArgumentSchemeImpl;
  */
 public class TimeFmt extends AbstractFunction {
 
+    private static final int MEMO_SIZE = 1024;
+
+    private final FunctionMemo memo = new FunctionMemo(MEMO_SIZE);
+    private final DateTimeCodec sourceCodec;
+    private final DateTimeCodec resultCodec;
+
+    /**
+     * Constructor.
+     *
+     * @since 1.0.0
+     */
+    public TimeFmt() {
+        this(null, null);
+    }
+
+    private TimeFmt(DateTimeCodec sourceCodec, DateTimeCodec resultCodec) {
+        this.sourceCodec = sourceCodec;
+        this.resultCodec = resultCodec;
+    }
+
     /**
      * Run this function.
      *
@@ -61,11 +85,62 @@ public class TimeFmt extends AbstractFunction {
     @Override
     public String calculate(Argument... args) {
 
-        final LocalDateTime srcDateTime = Argument.Utils.requireLocalDateTime(args[0], args[1]);
-        final DateTimeFormatter resultFormatter = Argument.Utils.requireDateTimeFormat(args[2]);
+        final DateTimeCodec srcCodec = sourceCodec != null
+                ? sourceCodec : TypedArguments.requireDateTimeCodec(args[1]);
+        final LocalDateTime srcDateTime = TypedArguments.requireLocalDateTime(args[0], srcCodec);
+        final DateTimeCodec codec = resultCodec != null
+                ? resultCodec : TypedArguments.requireDateTimeCodec(args[2]);
+
+        return codec.format(srcDateTime);
+
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The literal {@code SourceFormat} and {@code ResultFormat} are compiled in advance.
+     *
+     * @since 1.0.0
+     */
+    @Override
+    public TimeFmt specialize(Map<Integer, String> literals) {
+        return new TimeFmt(codecOf(literals.get(1)), codecOf(literals.get(2)));
+    }
+
+    private DateTimeCodec codecOf(String literal) {
 
-        return srcDateTime.format(resultFormatter);
+        if (literal == null) {
+            return null;
+        }
+
+        try {
+            return TypedArguments.requireDateTimeCodec(Argument.of(literal));
+        } catch (FormulaExecutionException ex) {
+            // Note: Leave it to occur when calculating.
+            return null;
+        }
+    }
 
+    /**
+     * {@inheritDoc}
+     *
+     * @return the per-call-site {@code FunctionMemo}
+     * @since 1.0.0
+     */
+    @Override
+    protected FunctionMemo getMemo() {
+        return memo;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return {@code true}
+     * @since 1.0.0
+     */
+    @Override
+    public boolean isDeterministic() {
+        return true;
     }
 
     /**
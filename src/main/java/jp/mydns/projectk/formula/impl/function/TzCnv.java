@@ -27,12 +27,16 @@ package jp.mydns.projectk.formula.impl.function;
 
 import java.time.LocalDateTime;
 import java.time.ZoneId;
-import java.time.ZonedDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.Map;
 import jp.mydns.projectk.formula.FormulaExecutionException;
 import jp.mydns.projectk.formula.impl.AbstractFunction;
 import jp.mydns.projectk.formula.impl.ArgdefImpl;
 import jp.mydns.projectk.formula.impl.ArgumentSchemeImpl;
+import jp.mydns.projectk.formula.impl.DateTimeCodec;
+import jp.mydns.projectk.formula.impl.FunctionMemo;
+import jp.mydns.projectk.formula.impl.TemporalFunction;
+import jp.mydns.projectk.formula.impl.TypedArguments;
+import jp.mydns.projectk.formula.impl.ZoneConverter;
 
 /**
  * Formula function to change the time zone of a datetime.
@@ -41,7 +45,30 @@ import jp.mydns.projectk.formula.impl.ArgumentSchemeImpl;
  * @version 1.0.0
  * @since 1.0.0
  */
-public class TzCnv extends AbstractFunction {
+public class TzCnv extends AbstractFunction implements TemporalFunction {
+
+    private static final int MEMO_SIZE = 1024;
+
+    private final FunctionMemo memo = new FunctionMemo(MEMO_SIZE);
+    private final ZoneId sourceZoneId;
+    private final ZoneId resultZoneId;
+    private final ZoneConverter converter;
+
+    /**
+     * Constructor.
+     *
+     * @since 1.0.0
+     */
+    public TzCnv() {
+        this(null, null);
+    }
+
+    private TzCnv(ZoneId sourceZoneId, ZoneId resultZoneId) {
+        this.sourceZoneId = sourceZoneId;
+        this.resultZoneId = resultZoneId;
+        this.converter = sourceZoneId != null && resultZoneId != null
+                ? ZoneConverter.of(sourceZoneId, resultZoneId) : null;
+    }
 
     /**
      * Run this function.
@@ -671,14 +698,76 @@ public class TzCnv extends AbstractFunction {
      */
     @Override
     public String calculate(Argument... args) {
+        return DateTimeCodec.ISO_LOCAL_DATE_TIME.format(calculateTemporal(args));
+    }
 
-        final LocalDateTime srcDateTime = Argument.Utils.requireLocalDateTime(args[0]);
-        final ZoneId srcZoneId = Argument.Utils.requireZoneId(args[1]);
-        final ZoneId resultZoneId = Argument.Utils.requireZoneId(args[2]);
+    /**
+     * {@inheritDoc}
+     *
+     * @throws FormulaExecutionException if any argument is invalid
+     * @since 1.0.0
+     */
+    @Override
+    public LocalDateTime executeTemporal(Argument... args) {
+        return calculateTemporal(getArgumentScheme().requireValid(args));
+    }
 
-        return ZonedDateTime.of(srcDateTime, srcZoneId).withZoneSameInstant(resultZoneId)
-                .format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+    private LocalDateTime calculateTemporal(Argument... args) {
 
+        final LocalDateTime srcDateTime = TypedArguments.requireLocalDateTime(args[0]);
+        final ZoneId srcZoneId = sourceZoneId != null ? sourceZoneId : TypedArguments.requireZoneId(args[1]);
+        final ZoneId dstZoneId = resultZoneId != null ? resultZoneId : TypedArguments.requireZoneId(args[2]);
+
+        return (converter != null ? converter : ZoneConverter.of(srcZoneId, dstZoneId)).convert(srcDateTime);
+
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The literal {@code SourceZoneId} and {@code ResultZoneId} are resolved in advance.
+     *
+     * @since 1.0.0
+     */
+    @Override
+    public TzCnv specialize(Map<Integer, String> literals) {
+        return new TzCnv(zoneIdOf(literals.get(1)), zoneIdOf(literals.get(2)));
+    }
+
+    private ZoneId zoneIdOf(String literal) {
+
+        if (literal == null) {
+            return null;
+        }
+
+        try {
+            return TypedArguments.requireZoneId(Argument.of(literal));
+        } catch (FormulaExecutionException ex) {
+            // Note: Leave it to occur when calculating.
+            return null;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return the per-call-site {@code FunctionMemo}
+     * @since 1.0.0
+     */
+    @Override
+    protected FunctionMemo getMemo() {
+        return memo;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return {@code true}
+     * @since 1.0.0
+     */
+    @Override
+    public boolean isDeterministic() {
+        return true;
     }
 
     /**
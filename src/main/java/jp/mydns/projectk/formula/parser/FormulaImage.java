@@ -0,0 +1,525 @@
+/*
+ * Copyright (c) 2024, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.formula.parser;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+import jp.mydns.projectk.formula.Element;
+import jp.mydns.projectk.formula.Formula;
+import jp.mydns.projectk.formula.FormulaParseException;
+import jp.mydns.projectk.formula.Function;
+import jp.mydns.projectk.formula.impl.CompactFormula;
+import jp.mydns.projectk.formula.impl.ConstantPool;
+import jp.mydns.projectk.formula.impl.ElementFactory;
+
+/**
+ * Image file of the compiled formulas. The formulas are written in the code of {@link CompactFormula}, and the
+ * functions are referred by the name that registered to the {@link Parser}. Opening the image reads no formula; the
+ * file is mapped read-only, and a formula is built from the code on the first {@link #get(String)} by the elements of
+ * the parser, without lexing and verifying the text. The functions are specialized with the literal arguments again,
+ * so the built formula is same as the parsed one.
+ * <p>
+ * <b>File format</b>
+ * <table border="1"><caption>Image file layout. All integers are big-endian.</caption>
+ * <thead><tr><th>Offset</th><th>Size</th><th>Description</th></tr></thead>
+ * <tbody>
+ * <tr><td>0</td><td>4</td><td>Magic number {@code "KFCF"}.</td></tr>
+ * <tr><td>4</td><td>4</td><td>Format version. It is {@code 1}.</td></tr>
+ * <tr><td>8</td><td>4</td><td>Number of strings.</td></tr>
+ * <tr><td>12</td><td>4</td><td>Number of formulas.</td></tr>
+ * <tr><td>16</td><td>8 * strings</td><td>String entries. Each entry is the offset and the length of the UTF-8 bytes.
+ * The literal values, the input names and the function names are strings.</td></tr>
+ * <tr><td>...</td><td>16 * formulas</td><td>Formula entries in ascending order of the UTF-8 name bytes. Each entry is
+ * the offset and the length of the name, and the offset and the length of the code in {@code int}.</td></tr>
+ * <tr><td>...</td><td>...</td><td>Code of the formulas, the names and the UTF-8 bytes of the strings.</td></tr>
+ * </tbody></table>
+ * <p>
+ * The code refers to a string by index of the string entries. The operand of a function node is the index of the
+ * function name instead of the index of a function. The file is written by {@link #write(Path, Map, Parser)}. It must
+ * be smaller than 2 GiB.
+ * <p>
+ * This class is thread-safe.
+ *
+ * @author riru
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public final class FormulaImage {
+
+    private static final int MAGIC = 0x4B464346;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int STRING_ENTRY_SIZE = 8;
+    private static final int FORMULA_ENTRY_SIZE = 16;
+
+    private final Path path;
+    private final ByteBuffer buffer;
+    private final Parser parser;
+    private final int formulaEntries;
+    private final int size;
+    private final AtomicReferenceArray<Formula> formulas;
+
+    private FormulaImage(Path path, ByteBuffer buffer, Parser parser, int strings, int size) {
+        this.path = path;
+        this.buffer = buffer;
+        this.parser = parser;
+        this.formulaEntries = HEADER_SIZE + strings * STRING_ENTRY_SIZE;
+        this.size = size;
+        this.formulas = new AtomicReferenceArray<>(size);
+    }
+
+    /**
+     * Open the image file. The mapping is kept after the file channel is closed, until this image is garbage
+     * collected.
+     *
+     * @param path path of the image file
+     * @param parser the parser that resolves the function names. It should have the same functions as the parser
+     * that parsed the formulas.
+     * @return the {@code FormulaImage}
+     * @throws NullPointerException if any argument is {@code null}
+     * @throws IOException if an I/O error occurs or the file is not a valid image file
+     * @since 1.0.0
+     */
+    public static FormulaImage open(Path path, Parser parser) throws IOException {
+
+        Objects.requireNonNull(path);
+        Objects.requireNonNull(parser);
+
+        MappedByteBuffer buffer;
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Too large formula image file. [%s]".formatted(path));
+            }
+
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+        }
+
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a formula image file. [%s]".formatted(path));
+        }
+
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Unsupported formula image version. [%s]".formatted(path));
+        }
+
+        int strings = buffer.getInt(8);
+        int size = buffer.getInt(12);
+
+        long entriesEnd = HEADER_SIZE + (long) strings * STRING_ENTRY_SIZE + (long) size * FORMULA_ENTRY_SIZE;
+
+        if (strings < 0 || size < 0 || entriesEnd > buffer.limit()) {
+            throw new IOException("Broken formula image file. [%s]".formatted(path));
+        }
+
+        return new FormulaImage(path, buffer, parser, strings, size);
+
+    }
+
+    /**
+     * Write the formulas as an image file. An existing file is replaced atomically, so an image that is open on the
+     * file keeps reading the previous content.
+     *
+     * @param path path of the image file
+     * @param formulas the formulas by name
+     * @param parser the parser that parsed the formulas. The functions are written by the name that registered to it.
+     * @throws NullPointerException if any argument is {@code null}, or {@code formulas} contains {@code null}
+     * @throws IllegalArgumentException if a function is not registered to {@code parser} or registered by multiple
+     * names, if a formula contains an unknown kind of element, or if the file would be 2 GiB or larger
+     * @throws IOException if an I/O error occurs
+     * @since 1.0.0
+     */
+    public static void write(Path path, Map<String, ? extends Formula> formulas, Parser parser) throws IOException {
+
+        Objects.requireNonNull(path);
+        Objects.requireNonNull(formulas);
+        Objects.requireNonNull(parser);
+
+        FunctionNames functionNames = new FunctionNames(parser);
+        ConstantPool pool = new ConstantPool();
+
+        int n = 0;
+        byte[][] names = new byte[formulas.size()][];
+        int[][] codes = new int[formulas.size()][];
+        Integer[] order = new Integer[formulas.size()];
+
+        for (Map.Entry<String, ? extends Formula> e : formulas.entrySet()) {
+            names[n] = e.getKey().getBytes(UTF_8);
+            codes[n] = CompactFormula.compile(Objects.requireNonNull(e.getValue()), pool).getCode();
+            functionNames.rename(codes[n], 0, pool);
+            order[n] = n;
+            n++;
+        }
+
+        byte[][] strings = new byte[pool.getStringCount()][];
+
+        for (int i = 0; i < strings.length; i++) {
+            strings[i] = pool.getString(i).getBytes(UTF_8);
+        }
+
+        long offset = HEADER_SIZE + (long) strings.length * STRING_ENTRY_SIZE + (long) n * FORMULA_ENTRY_SIZE;
+        long codeSize = Arrays.stream(codes).mapToLong(c -> (long) c.length * Integer.BYTES).sum();
+        long nameSize = Arrays.stream(names).mapToLong(b -> b.length).sum();
+        long stringSize = Arrays.stream(strings).mapToLong(b -> b.length).sum();
+
+        if (offset + codeSize + nameSize + stringSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too large formula image.");
+        }
+
+        Arrays.sort(order, (a, b) -> Arrays.compareUnsigned(names[a], names[b]));
+
+        // Note: The image is written to a temporary file and moved to the path, because an image that is open on the
+        //       path maps the file, and reading a mapping of a truncated file faults.
+        Path absolute = path.toAbsolutePath();
+        Path temporary = Files.createTempFile(absolute.getParent(), absolute.getFileName() + ".", ".tmp");
+
+        try (OutputStream os = Files.newOutputStream(temporary);
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(os))) {
+
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(strings.length);
+            out.writeInt(n);
+
+            long stringOffset = offset + codeSize + nameSize;
+
+            for (byte[] s : strings) {
+                out.writeInt((int) stringOffset);
+                out.writeInt(s.length);
+                stringOffset += s.length;
+            }
+
+            long nameOffset = offset + codeSize;
+
+            for (int i : order) {
+                out.writeInt((int) nameOffset);
+                out.writeInt(names[i].length);
+                out.writeInt((int) offset);
+                out.writeInt(codes[i].length);
+                nameOffset += names[i].length;
+                offset += (long) codes[i].length * Integer.BYTES;
+            }
+
+            for (int i : order) {
+                for (int v : codes[i]) {
+                    out.writeInt(v);
+                }
+            }
+
+            for (int i : order) {
+                out.write(names[i]);
+            }
+
+            for (byte[] s : strings) {
+                out.write(s);
+            }
+
+        } catch (IOException | RuntimeException ex) {
+            Files.deleteIfExists(temporary);
+            throw ex;
+        }
+
+        try {
+            Files.move(temporary, absolute, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+
+    }
+
+    /**
+     * Get the formula. It is built on the first call, and the same instance is returned afterwards.
+     *
+     * @param name name of the formula
+     * @return the formula. It is {@code null} if absent.
+     * @throws NullPointerException if {@code name} is {@code null}
+     * @throws FormulaParseException if the formula cannot be built, for example a function is missing from the
+     * parser, or the image file is broken
+     * @since 1.0.0
+     */
+    public Formula get(String name) {
+
+        int index = indexOf(name.getBytes(UTF_8));
+
+        if (index < 0) {
+            return null;
+        }
+
+        Formula formula = formulas.get(index);
+
+        if (formula != null) {
+            return formula;
+        }
+
+        Formula built = build(index);
+
+        return formulas.compareAndSet(index, null, built) ? built : formulas.get(index);
+
+    }
+
+    /**
+     * Get the names of the formulas.
+     *
+     * @return the names in ascending order of the UTF-8 bytes
+     * @since 1.0.0
+     */
+    public List<String> getNames() {
+
+        List<String> names = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+            int entry = formulaEntries + i * FORMULA_ENTRY_SIZE;
+            names.add(stringAt(buffer.getInt(entry), buffer.getInt(entry + 4)));
+        }
+
+        return names;
+
+    }
+
+    /**
+     * Get the number of formulas.
+     *
+     * @return number of formulas
+     * @since 1.0.0
+     */
+    public int size() {
+        return size;
+    }
+
+    private int indexOf(byte[] target) {
+
+        int low = 0;
+        int high = size - 1;
+
+        while (low <= high) {
+
+            int mid = (low + high) >>> 1;
+            int entry = formulaEntries + mid * FORMULA_ENTRY_SIZE;
+            int cmp = compareName(buffer.getInt(entry), buffer.getInt(entry + 4), target);
+
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+
+        }
+
+        return -1;
+
+    }
+
+    private int compareName(int offset, int length, byte[] target) {
+
+        int common = Math.min(length, target.length);
+
+        for (int i = 0; i < common; i++) {
+            int cmp = Byte.compareUnsigned(buffer.get(offset + i), target[i]);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+
+        return length - target.length;
+
+    }
+
+    private Formula build(int index) {
+
+        int entry = formulaEntries + index * FORMULA_ENTRY_SIZE;
+
+        try {
+            return new Builder(buffer.getInt(entry + 8), buffer.getInt(entry + 12)).buildFormula(0);
+        } catch (IndexOutOfBoundsException ex) {
+            throw new FormulaParseException("Broken formula image. [%s]".formatted(path));
+        }
+    }
+
+    private String stringAt(int offset, int length) {
+
+        byte[] bytes = new byte[length];
+        buffer.get(offset, bytes);
+
+        return new String(bytes, UTF_8);
+
+    }
+
+    private String string(int index) {
+
+        Objects.checkIndex(index, (formulaEntries - HEADER_SIZE) / STRING_ENTRY_SIZE);
+
+        int entry = HEADER_SIZE + index * STRING_ENTRY_SIZE;
+
+        return stringAt(buffer.getInt(entry), buffer.getInt(entry + 4));
+
+    }
+
+    /**
+     * Returns a string representation of this.
+     *
+     * @return a string representation
+     * @since 1.0.0
+     */
+    @Override
+    public String toString() {
+        return "FormulaImage{" + "path=" + path + ", size=" + size + '}';
+    }
+
+    private class Builder {
+
+        private final ElementFactory elementFactory = parser.getElementFactory();
+        private final Map<String, Supplier<? extends Function>> functions = parser.getFunctions();
+        private final int base;
+        private final int length;
+
+        Builder(int base, int length) {
+            this.base = base;
+            this.length = length;
+        }
+
+        Formula buildFormula(int offset) {
+
+            List<Element> elements = new ArrayList<>();
+
+            for (int i = 0; i < code(offset + 1); i++) {
+                elements.add(buildElement(code(offset + 2 + i)));
+            }
+
+            return elementFactory.formula(elements);
+
+        }
+
+        private Element buildElement(int offset) {
+            return switch (code(offset)) {
+                case CompactFormula.LITERAL ->
+                    elementFactory.fixedValue(string(code(offset + 1)));
+                case CompactFormula.NULL_LITERAL ->
+                    elementFactory.fixedValue(null);
+                case CompactFormula.INPUT ->
+                    elementFactory.input(string(code(offset + 1)));
+                case CompactFormula.FUNCTION ->
+                    buildFunction(offset);
+                default ->
+                    throw new FormulaParseException("Broken formula image. [%s]".formatted(path));
+            };
+        }
+
+        private Element buildFunction(int offset) {
+
+            String name = string(code(offset + 1));
+
+            if (!functions.containsKey(name)) {
+                throw new FormulaParseException("Missing function. [%s]".formatted(name));
+            }
+
+            List<Formula> args = new ArrayList<>();
+
+            for (int i = 0; i < code(offset + 2); i++) {
+                args.add(buildFormula(code(offset + 3 + i)));
+            }
+
+            return elementFactory.function(functions.get(name), args);
+
+        }
+
+        private int code(int offset) {
+            return buffer.getInt(base + Objects.checkIndex(offset, length) * Integer.BYTES);
+        }
+    }
+
+    private static class FunctionNames {
+
+        private final Map<Class<?>, String> names = new HashMap<>();
+        private final Set<Class<?>> ambiguities = new HashSet<>();
+
+        FunctionNames(Parser parser) {
+            parser.getFunctions().forEach((name, supplier) -> {
+                Class<?> type = supplier.get().getClass();
+                if (names.putIfAbsent(type, name) != null) {
+                    ambiguities.add(type);
+                }
+            });
+        }
+
+        void rename(int[] code, int offset, ConstantPool pool) {
+
+            for (int i = 0; i < code[offset + 1]; i++) {
+
+                int element = code[offset + 2 + i];
+
+                if (code[element] != CompactFormula.FUNCTION) {
+                    continue;
+                }
+
+                code[element + 1] = pool.indexOf(nameOf(pool.getFunction(code[element + 1])));
+
+                for (int j = 0; j < code[element + 2]; j++) {
+                    rename(code, code[element + 3 + j], pool);
+                }
+            }
+        }
+
+        private String nameOf(Function function) {
+
+            Class<?> type = function.getClass();
+
+            if (ambiguities.contains(type)) {
+                throw new IllegalArgumentException("Ambiguous function. [%s]".formatted(type.getName()));
+            }
+
+            if (!names.containsKey(type)) {
+                throw new IllegalArgumentException("Unregistered function. [%s]".formatted(type.getName()));
+            }
+
+            return names.get(type);
+
+        }
+    }
+}
@@ -26,6 +26,7 @@
 package jp.mydns.projectk.formula.parser;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -40,11 +41,9 @@ import jp.mydns.projectk.formula.Element;
 import jp.mydns.projectk.formula.Formula;
 import jp.mydns.projectk.formula.FormulaParseException;
 import jp.mydns.projectk.formula.Function;
+import jp.mydns.projectk.formula.LookupTable;
 import jp.mydns.projectk.formula.Token;
-import jp.mydns.projectk.formula.impl.FixedValueElement;
-import jp.mydns.projectk.formula.impl.FormulaImpl;
-import jp.mydns.projectk.formula.impl.FunctionElement;
-import jp.mydns.projectk.formula.impl.InputElement;
+import jp.mydns.projectk.formula.impl.ElementFactory;
 import jp.mydns.projectk.formula.impl.function.*;
 
 /**
@@ -92,21 +91,67 @@ public class Parser {
 
     private final Lexer lexer = new Lexer();
     private final Verifier verifier = new Verifier();
+    private final ElementFactory elementFactory;
     private final Map<String, Supplier<? extends Function>> functions = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
 
-    private final Set<Supplier<Function>> internals = Set.of(Not::new, And::new, Case::new, Cmp::new, Eq::new, If::new,
-            IfNull::new, IsNull::new, NoNull::new, Not::new, Or::new);
-
     /**
-     * Constructor.
+     * Constructor. The {@code SUPPLIERS} of the registry class generated from the classes annotated with
+     * {@link jp.mydns.projectk.formula.FormulaFunction} can be given as {@code externals}. An external function
+     * overrides the built-in function of the same name, ignoring case.
      *
      * @param externals external function suppliers
      * @throws NullPointerException if any argument is {@code null}
+     * @throws IllegalArgumentException if names of {@code externals} duplicate ignoring case
      * @since 1.0.0
      */
     public Parser(Map<String, Supplier<? extends Function>> externals) {
+        this(externals, Map.of());
+    }
+
+    /**
+     * Constructor. The lookup tables are referenced by name from the {@code Lookup} function, and the range tables
+     * among them are also referenced from the {@code RangeLookup} function. The elements of the parsed formulas are
+     * not shared among the formulas.
+     *
+     * @param externals external function suppliers
+     * @param tables lookup tables by name
+     * @throws NullPointerException if any argument is {@code null}, or {@code tables} contains {@code null}
+     * @throws IllegalArgumentException if names of {@code externals} duplicate ignoring case
+     * @since 1.0.0
+     */
+    public Parser(Map<String, Supplier<? extends Function>> externals, Map<String, LookupTable> tables) {
+        this(externals, tables, ElementFactory.unshared());
+    }
+
+    /**
+     * Constructor. The elements of the parsed formulas are made by {@code elementFactory}, so the structurally
+     * identical subtrees are shared among the formulas, unless it is {@link ElementFactory#unshared()}.
+     *
+     * @param externals external function suppliers
+     * @param tables lookup tables by name
+     * @param elementFactory the {@code ElementFactory}
+     * @throws NullPointerException if any argument is {@code null}, or {@code tables} contains {@code null}
+     * @throws IllegalArgumentException if names of {@code externals} duplicate ignoring case
+     * @since 1.0.0
+     */
+    public Parser(Map<String, Supplier<? extends Function>> externals, Map<String, LookupTable> tables,
+            ElementFactory elementFactory) {
         Objects.requireNonNull(externals);
-        internals.stream().forEach(s -> functions.put(s.get().getClass().getSimpleName(), s));
+        this.elementFactory = Objects.requireNonNull(elementFactory);
+        Map<String, LookupTable> lookupTables = Map.copyOf(tables);
+        // Note: The internal functions are registered from the registry generated at compile time.
+        functions.putAll(InternalFunctions.SUPPLIERS);
+        functions.put(Lookup.class.getSimpleName(), () -> new Lookup(lookupTables));
+        functions.put(RangeLookup.class.getSimpleName(), () -> new RangeLookup(lookupTables));
+        // Note: An external function overrides the built-in one of the same name, but two externals that differ only
+        //       in case would silently replace each other.
+        Map<String, String> externalNames = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (String name : externals.keySet()) {
+            String other = externalNames.putIfAbsent(name, name);
+            if (other != null) {
+                throw new IllegalArgumentException("Duplicate function name. [%s] [%s]".formatted(other, name));
+            }
+        }
         functions.putAll(externals);
     }
 
@@ -124,6 +169,24 @@ public class Parser {
         return buildFormula(cleanse(tokens));
     }
 
+    /**
+     * Get the element factory.
+     *
+     * @return the {@code ElementFactory}
+     */
+    ElementFactory getElementFactory() {
+        return elementFactory;
+    }
+
+    /**
+     * Get the function suppliers by name. The names are case-insensitive.
+     *
+     * @return unmodifiable view of the function suppliers
+     */
+    Map<String, Supplier<? extends Function>> getFunctions() {
+        return Collections.unmodifiableMap(functions);
+    }
+
     /**
      * Remove unnecessary token for build a formula.
      *
@@ -151,10 +214,10 @@ public class Parser {
             Element e = switch (q.element().getKind()) {
 
                 case INPUT_NAME ->
-                    new InputElement(q.remove().getValue());
+                    elementFactory.input(q.remove().getValue());
 
                 case LITERAL_VALUE ->
-                    new FixedValueElement(q.remove().getValue());
+                    elementFactory.fixedValue(q.remove().getValue());
 
                 case FUNCTION_NAME ->
                     buildFunction(q);
@@ -172,7 +235,7 @@ public class Parser {
 
         }
 
-        return new FormulaImpl(elements);
+        return elementFactory.formula(elements);
 
     }
 
@@ -198,7 +261,7 @@ public class Parser {
 
         q.remove();
 
-        return new FunctionElement(functions.get(name).get(), args);
+        return elementFactory.function(functions.get(name), args);
 
     }
 }
@@ -0,0 +1,371 @@
+/*
+ * Copyright (c) 2024, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.formula.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import jp.mydns.projectk.formula.FormulaFunction;
+
+/**
+ * Annotation processor that generates the registry class of the functions annotated with {@link FormulaFunction}.
+ * The generated class has the following members, and using them needs neither instantiation of the functions nor
+ * reflection.
+ * <table border="1"><caption>Members of the registry class</caption>
+ * <thead><tr><th>Member</th><th>Description</th></tr></thead>
+ * <tbody>
+ * <tr><td>{@code String NAMES}</td><td>The function names separated by "{@code ,}" in case-insensitive order. It is a
+ * compile-time constant, so it can be read by other annotation processors.</td></tr>
+ * <tr><td>{@code Map<String, Supplier<? extends Function>> SUPPLIERS}</td><td>The constructor references of the
+ * functions by name. The names are case-insensitive. It can be passed to the {@code Parser} as is.</td></tr>
+ * <tr><td>{@code ArgumentScheme getArgumentScheme(String name)}</td><td>The argument scheme of the function. It is
+ * built on the first call for each function, and shared afterwards.</td></tr>
+ * </tbody></table>
+ * <p>
+ * The qualified name of the registry class is given by the processor option {@value #REGISTRY_OPTION}. Default is
+ * {@value #DEFAULT_REGISTRY_NAME} in the package of the first annotated class. The following are reported as compile
+ * errors.
+ * <ul>
+ * <li>The annotated class is not a public concrete class that implements {@code Function} and has a public
+ * constructor without parameters.</li>
+ * <li>The function name is blank, or contains a character that has a meaning in the formula syntax.</li>
+ * <li>The function name duplicates another annotated function, or a function that the {@code Parser} registers
+ * itself. The names are compared ignoring case.</li>
+ * </ul>
+ * <p>
+ * The processor is not registered as a service, so it does not run just by being on the classpath. It must be given
+ * to the compiler explicitly. With the {@code maven-compiler-plugin}:
+ * <pre>
+ * &lt;annotationProcessorPaths&gt;
+ *     &lt;path&gt;
+ *         &lt;groupId&gt;jp.mydns.project-k&lt;/groupId&gt;
+ *         &lt;artifactId&gt;k-formula-mechanism&lt;/artifactId&gt;
+ *         &lt;version&gt;${version.k-formula}&lt;/version&gt;
+ *     &lt;/path&gt;
+ * &lt;/annotationProcessorPaths&gt;
+ * &lt;annotationProcessors&gt;
+ *     &lt;annotationProcessor&gt;
+ *         jp.mydns.projectk.formula.processor.FormulaFunctionProcessor
+ *     &lt;/annotationProcessor&gt;
+ * &lt;/annotationProcessors&gt;
+ * &lt;compilerArgs&gt;
+ *     &lt;arg&gt;-Aformula.registry=com.example.MyFunctions&lt;/arg&gt;
+ * &lt;/compilerArgs&gt;
+ * </pre>
+ * The registry aggregates the annotated classes of one compilation. A compilation that recompiles only some of them,
+ * such as an incremental build of an IDE, generates a registry without the others, so the annotated classes must be
+ * compiled together.
+ *
+ * @author riru
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+@SupportedAnnotationTypes(FormulaFunctionProcessor.ANNOTATION)
+@SupportedOptions(FormulaFunctionProcessor.REGISTRY_OPTION)
+public class FormulaFunctionProcessor extends AbstractProcessor {
+
+    /**
+     * Processor option name of the qualified name of the registry class.
+     *
+     * @since 1.0.0
+     */
+    public static final String REGISTRY_OPTION = "formula.registry";
+
+    /**
+     * Default simple name of the registry class.
+     *
+     * @since 1.0.0
+     */
+    public static final String DEFAULT_REGISTRY_NAME = "FormulaFunctions";
+
+    static final String ANNOTATION = "jp.mydns.projectk.formula.FormulaFunction";
+
+    private static final String FUNCTION = "jp.mydns.projectk.formula.Function";
+    private static final String INTERNAL_REGISTRY = "jp.mydns.projectk.formula.impl.function.InternalFunctions";
+    private static final Set<String> TABLE_FUNCTIONS = Set.of("Lookup", "RangeLookup");
+    private static final String SYNTAX_CHARS = "`[]()&,\\";
+
+    private final Map<String, TypeElement> functions = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    private boolean generated;
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since 1.0.0
+     */
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since 1.0.0
+     */
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+
+        TypeElement annotation = processingEnv.getElementUtils().getTypeElement(ANNOTATION);
+
+        if (annotation == null) {
+            return false;
+        }
+
+        String registryName = registryName(roundEnv.getElementsAnnotatedWith(annotation));
+        Set<String> reserved = reservedNames(registryName);
+        List<TypeElement> found = new ArrayList<>();
+        boolean valid = true;
+
+        for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+
+            if (element.getKind() != ElementKind.CLASS) {
+                valid = error(element, "Function must be a class.");
+                continue;
+            }
+
+            TypeElement type = (TypeElement) element;
+            String name = type.getAnnotation(FormulaFunction.class).value();
+
+            if (!requireValid(type, name)) {
+                valid = false;
+                continue;
+            }
+
+            if (reserved.contains(name)) {
+                valid = error(type, "Function name collides with a function of the parser. [%s]".formatted(name));
+                continue;
+            }
+
+            TypeElement other = functions.putIfAbsent(name, type);
+
+            if (other != null) {
+                valid = error(type, "Duplicate function name. [%s] is also declared by %s."
+                        .formatted(name, other.getQualifiedName()));
+                continue;
+            }
+
+            found.add(type);
+
+        }
+
+        if (found.isEmpty() || !valid) {
+            return true;
+        }
+
+        // Note: The registry is written once, because a source file cannot be overwritten in the later rounds.
+        if (generated) {
+            found.forEach(t -> error(t, "Function must not be declared in a generated source."));
+            return true;
+        }
+
+        write(registryName);
+        generated = true;
+
+        return true;
+
+    }
+
+    private String registryName(Set<? extends Element> annotated) {
+
+        String option = processingEnv.getOptions().get(REGISTRY_OPTION);
+
+        if (option != null) {
+            return option;
+        }
+
+        return annotated.stream().map(e -> processingEnv.getElementUtils().getPackageOf(e).getQualifiedName())
+                .map(CharSequence::toString).filter(p -> !p.isEmpty()).findFirst()
+                .map(p -> p + "." + DEFAULT_REGISTRY_NAME).orElse(DEFAULT_REGISTRY_NAME);
+
+    }
+
+    private Set<String> reservedNames(String registryName) {
+
+        Set<String> names = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        names.addAll(TABLE_FUNCTIONS);
+
+        if (INTERNAL_REGISTRY.equals(registryName)) {
+            return names;
+        }
+
+        // Note: The internal function names are read from the compile-time constant of the library's registry.
+        TypeElement internals = processingEnv.getElementUtils().getTypeElement(INTERNAL_REGISTRY);
+
+        if (internals != null) {
+            ElementFilter.fieldsIn(internals.getEnclosedElements()).stream()
+                    .filter(f -> f.getSimpleName().contentEquals("NAMES"))
+                    .map(VariableElement::getConstantValue).filter(String.class::isInstance).map(String.class::cast)
+                    .flatMap(v -> Stream.of(v.split(","))).filter(n -> !n.isEmpty()).forEach(names::add);
+        }
+
+        return names;
+
+    }
+
+    private boolean requireValid(TypeElement type, String name) {
+
+        if (name.isBlank() || name.chars().anyMatch(c -> Character.isWhitespace(c) || Character.isISOControl(c)
+                || SYNTAX_CHARS.indexOf(c) >= 0)) {
+            return error(type, "Invalid function name. [%s]".formatted(name));
+        }
+
+        if (!isAccessible(type)) {
+            return error(type, "Function must be a public class.");
+        }
+
+        if (type.getModifiers().contains(Modifier.ABSTRACT)) {
+            return error(type, "Function must not be abstract.");
+        }
+
+        TypeElement function = processingEnv.getElementUtils().getTypeElement(FUNCTION);
+
+        if (function == null || !processingEnv.getTypeUtils().isAssignable(type.asType(),
+                processingEnv.getTypeUtils().erasure(function.asType()))) {
+            return error(type, "Function must implement %s.".formatted(FUNCTION));
+        }
+
+        boolean constructible = ElementFilter.constructorsIn(type.getEnclosedElements()).stream()
+                .filter(c -> c.getModifiers().contains(Modifier.PUBLIC))
+                .map(ExecutableElement::getParameters).anyMatch(List::isEmpty);
+
+        if (!constructible) {
+            return error(type, "Function must have a public constructor without parameters.");
+        }
+
+        return true;
+
+    }
+
+    private static boolean isAccessible(TypeElement type) {
+
+        if (!type.getModifiers().contains(Modifier.PUBLIC)) {
+            return false;
+        }
+
+        if (type.getNestingKind() == NestingKind.TOP_LEVEL) {
+            return true;
+        }
+
+        return type.getNestingKind() == NestingKind.MEMBER && type.getModifiers().contains(Modifier.STATIC)
+                && isAccessible((TypeElement) type.getEnclosingElement());
+
+    }
+
+    private boolean error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+        return false;
+    }
+
+    private void write(String registryName) {
+
+        int dot = registryName.lastIndexOf('.');
+        String packageName = dot < 0 ? "" : registryName.substring(0, dot);
+        String className = registryName.substring(dot + 1);
+        String supplier = "java.util.function.Supplier<? extends " + FUNCTION + ">";
+        String scheme = FUNCTION + ".ArgumentScheme";
+
+        StringBuilder sb = new StringBuilder();
+
+        if (!packageName.isEmpty()) {
+            sb.append("package ").append(packageName).append(";\n\n");
+        }
+
+        sb.append("@javax.annotation.processing.Generated(\"").append(getClass().getName()).append("\")\n");
+        sb.append("public final class ").append(className).append(" {\n\n");
+        sb.append("    public static final String NAMES = ").append(literalOf(String.join(",", functions.keySet())))
+                .append(";\n\n");
+        sb.append("    public static final java.util.Map<String, ").append(supplier).append("> SUPPLIERS\n");
+        sb.append("            = suppliers();\n\n");
+        sb.append("    private static final java.util.concurrent.ConcurrentMap<String, ").append(scheme)
+                .append("> SCHEMES\n");
+        sb.append("            = new java.util.concurrent.ConcurrentSkipListMap<>(String.CASE_INSENSITIVE_ORDER);\n\n");
+        sb.append("    private ").append(className).append("() {\n    }\n\n");
+        sb.append("    public static ").append(scheme).append(" getArgumentScheme(String name) {\n\n");
+        sb.append("        ").append(supplier)
+                .append(" supplier = SUPPLIERS.get(java.util.Objects.requireNonNull(name));\n\n");
+        sb.append("        if (supplier == null) {\n");
+        sb.append("            throw new IllegalArgumentException(\"Missing function. [\" + name + \"]\");\n");
+        sb.append("        }\n\n");
+        sb.append("        return SCHEMES.computeIfAbsent(name, n -> supplier.get().getArgumentScheme());\n\n");
+        sb.append("    }\n\n");
+        sb.append("    private static java.util.Map<String, ").append(supplier).append("> suppliers() {\n\n");
+        sb.append("        java.util.Map<String, ").append(supplier)
+                .append("> m = new java.util.TreeMap<>(String.CASE_INSENSITIVE_ORDER);\n\n");
+        functions.forEach((name, type) -> sb.append("        m.put(").append(literalOf(name)).append(", ")
+                .append(type.getQualifiedName()).append("::new);\n"));
+        sb.append("\n        return java.util.Collections.unmodifiableMap(m);\n\n");
+        sb.append("    }\n");
+        sb.append("}\n");
+
+        try (Writer w = processingEnv.getFiler().createSourceFile(registryName, functions.values()
+                .toArray(Element[]::new)).openWriter()) {
+            w.write(sb.toString());
+        } catch (IOException ex) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Cannot write the function registry. [%s] %s".formatted(registryName, ex.getMessage()));
+        }
+
+    }
+
+    private static String literalOf(String value) {
+
+        StringBuilder sb = new StringBuilder("\"");
+
+        value.chars().forEach(c -> {
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append((char) c);
+            } else if (c < 0x20 || c > 0x7E) {
+                sb.append("\\u%04x".formatted(c));
+            } else {
+                sb.append((char) c);
+            }
+        });
+
+        return sb.append('"').toString();
+
+    }
+}
@@ -29,6 +29,7 @@ import java.util.Map;
 import jp.mydns.projectk.formula.impl.AbstractFunction;
 import jp.mydns.projectk.formula.impl.ArgdefImpl;
 import jp.mydns.projectk.formula.impl.ArgumentSchemeImpl;
+import jp.mydns.projectk.formula.impl.FormulaImpl;
 import jp.mydns.projectk.formula.parser.Parser;
 import static org.assertj.core.api.Assertions.assertThat;
 import org.junit.jupiter.api.Test;
@@ -81,6 +82,49 @@ class FormulaTest {
         assertThat(result).isEqualTo("[HelloHelloHelloHelloHelloHelloHelloHelloHello]");
     }
 
+    /**
+     * Test specialize formula with known input values.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testSpecialize() {
+
+        String formulaText = "If(Eq([region], `JP`), [name] & `-san`, [name]) & And(`true`, IsNull([suffix]))";
+
+        Parser parser = new Parser(Map.of());
+
+        Formula specialized = parser.parse(formulaText).specialize(Map.of("region", "JP"));
+
+        assertThat(specialized.calculate(Map.of("name", "taro"))).isEqualTo("taro-santrue");
+        assertThat(specialized.calculate(Map.of("name", "taro", "suffix", "!"))).isEqualTo("taro-sanfalse");
+        assertThat(((FormulaImpl) specialized).getElements()).hasSize(3);
+
+    }
+
+    /**
+     * Test parse and calculate nested logical functions. The evaluation short-circuits, and the result is a string
+     * only at the outermost function.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testParseAndCalculateNestedLogical() {
+
+        String formulaText = "If(And(Not(IsNull([a])), Or(Eq([a], `x`), NoNull([b]))), `yes`, `no`)"
+                + " & Or(Cmp([a], `m`, `<`), Eq(Not([a]), [b]))";
+
+        Parser parser = new Parser(Map.of());
+
+        Formula formula = parser.parse(formulaText);
+
+        assertThat(formula.calculate(Map.of("a", "x"))).isEqualTo("yesfalse");
+        assertThat(formula.calculate(Map.of("a", "y", "b", "true"))).isEqualTo("yestrue");
+        assertThat(formula.calculate(Map.of("a", "a", "b", "TRUE"))).isEqualTo("yestrue");
+        assertThat(formula.calculate(Map.of("b", "z"))).isEqualTo("nofalse");
+
+    }
+
     private class SayHello extends AbstractFunction {
 
         @Override
@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2024, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.formula.catalog;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import jp.mydns.projectk.formula.FormulaParseException;
+import jp.mydns.projectk.formula.parser.Parser;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test of class FormulaCatalog.
+ *
+ * @author riru
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+class FormulaCatalogTest {
+
+    private final Parser parser = new Parser(Map.of());
+
+    /**
+     * Test of index method. The formula is parsed on the first get.
+     *
+     * @throws IOException if an I/O error occurs
+     * @since 1.0.0
+     */
+    @Test
+    void testIndex() throws IOException {
+
+        Path dir = Files.createTempDirectory("catalog");
+
+        try {
+
+            Files.writeString(dir.resolve("a.tsv"), "# greetings\n\ngreeting\t`Hello ` & [name]\r\n");
+            Files.writeString(dir.resolve("b.tsv"), "label\tIfNull([code], `none`)\nbroken\tIfNull([code]");
+
+            FormulaCatalog instance = FormulaCatalog.index(dir, parser);
+
+            assertThat(instance.size()).isEqualTo(3);
+            assertThat(instance.getNames()).containsExactlyInAnyOrder("greeting", "label", "broken");
+            assertThat(instance.isCompiled("greeting")).isFalse();
+
+            assertThat(instance.get("greeting").calculate(Map.of("name", "riru"))).isEqualTo("Hello riru");
+            assertThat(instance.isCompiled("greeting")).isTrue();
+            assertThat(instance.get("greeting")).isSameAs(instance.get("greeting"));
+            assertThat(instance.isCompiled("label")).isFalse();
+            assertThat(instance.getText("label")).isEqualTo("IfNull([code], `none`)");
+            assertThat(instance.get("missing")).isNull();
+
+            assertThatThrownBy(() -> instance.get("broken")).isInstanceOf(FormulaParseException.class);
+
+        } finally {
+            delete(dir);
+        }
+    }
+
+    /**
+     * Test of load method. All formulas are parsed.
+     *
+     * @throws IOException if an I/O error occurs
+     * @since 1.0.0
+     */
+    @Test
+    void testLoad() throws IOException {
+
+        Path file = Files.createTempFile("catalog", ".tsv");
+
+        try {
+
+            List<String> lines = new ArrayList<>();
+
+            for (int i = 0; i < 1000; i++) {
+                lines.add("f%d\tCase([kind], `k%d`, `hit`, [kind])".formatted(i, i));
+            }
+
+            Files.write(file, lines);
+
+            FormulaCatalog instance = FormulaCatalog.load(file, parser);
+
+            assertThat(instance.size()).isEqualTo(1000);
+
+            for (int i = 0; i < 1000; i++) {
+                assertThat(instance.isCompiled("f" + i)).isTrue();
+                assertThat(instance.get("f" + i).calculate(Map.of("kind", "k" + i))).isEqualTo("hit");
+            }
+
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Test of index method. The name is duplicated.
+     *
+     * @throws IOException if an I/O error occurs
+     * @since 1.0.0
+     */
+    @Test
+    void testIndex_DuplicateName() throws IOException {
+
+        Path file = Files.createTempFile("catalog", ".tsv");
+
+        try {
+
+            Files.writeString(file, "f\t`a`\nf\t`b`\n");
+
+            assertThatThrownBy(() -> FormulaCatalog.index(file, parser)).isInstanceOf(IOException.class);
+
+            Files.writeString(file, "no-tab\n");
+
+            assertThatThrownBy(() -> FormulaCatalog.index(file, parser)).isInstanceOf(IOException.class);
+
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private void delete(Path dir) throws IOException {
+
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+
+        Files.delete(dir);
+
+    }
+}
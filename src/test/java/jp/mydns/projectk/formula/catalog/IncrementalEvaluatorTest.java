@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2024, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.formula.catalog;
+
+import java.util.HashMap;
+import java.util.Map;
+import jp.mydns.projectk.formula.Formula;
+import jp.mydns.projectk.formula.FormulaExecutionException;
+import jp.mydns.projectk.formula.impl.function.TimeAdd;
+import jp.mydns.projectk.formula.parser.Parser;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test of class IncrementalEvaluator.
+ *
+ * @author riru
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+class IncrementalEvaluatorTest {
+
+    private final Parser parser = new Parser(Map.of("TimeAdd", TimeAdd::new));
+
+    /**
+     * Test of update method. Only the formulas that read the changed input are recalculated.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testUpdate() {
+
+        Map<String, Formula> formulas = Map.of(
+                "greeting", parser.parse("`Hello ` & [name]"),
+                "label", parser.parse("IfNull([code], `none`)"),
+                "fixed", parser.parse("`constant`"));
+
+        IncrementalEvaluator instance = new IncrementalEvaluator(formulas);
+
+        assertThat(instance.getResults()).containsEntry("greeting", null).containsEntry("label", "none");
+
+        Map<String, String> recalculated = instance.update(Map.of("name", "taro"));
+
+        assertThat(recalculated).hasSize(1).containsEntry("greeting", "Hello taro");
+        assertThat(instance.getResults()).containsEntry("label", "none").containsEntry("fixed", "constant");
+
+        Map<String, String> changes = new HashMap<>();
+        changes.put("code", "A");
+        changes.put("name", "taro");
+
+        assertThat(instance.update(changes)).hasSize(1).containsEntry("label", "A");
+
+    }
+
+    /**
+     * Test of constructor. A formula that fails with the initial input values is pending, and is calculated when its
+     * input value is given.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testConstructor_FailedFormula() {
+
+        Map<String, Formula> formulas = Map.of(
+                "tomorrow", parser.parse("TimeAdd([ts], `P1D`)"),
+                "fixed", parser.parse("`constant`"));
+
+        IncrementalEvaluator instance = new IncrementalEvaluator(formulas);
+
+        assertThat(instance.getPendingFormulas()).containsExactly("tomorrow");
+        assertThat(instance.getResults()).hasSize(1).containsEntry("fixed", "constant");
+
+        assertThat(instance.update(Map.of("other", "x"))).isEmpty();
+        assertThat(instance.getPendingFormulas()).containsExactly("tomorrow");
+
+        assertThat(instance.update(Map.of("ts", "2024-01-31T10:00:00"))).hasSize(1)
+                .containsEntry("tomorrow", "2024-02-01T10:00:00");
+        assertThat(instance.getPendingFormulas()).isEmpty();
+
+        assertThatThrownBy(() -> instance.update(Map.of("ts", "invalid")))
+                .isInstanceOf(FormulaExecutionException.class);
+        assertThat(instance.getInputs()).containsEntry("ts", "2024-01-31T10:00:00");
+        assertThat(instance.getResults()).containsEntry("tomorrow", "2024-02-01T10:00:00");
+
+    }
+
+    /**
+     * Test of constructor. The formulas are calculated with the initial input values.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testConstructor_InitialInputs() {
+
+        IncrementalEvaluator instance = new IncrementalEvaluator(
+                Map.of("tomorrow", parser.parse("TimeAdd([ts], `P1D`)")), Map.of("ts", "2024-02-28T00:00:00"));
+
+        assertThat(instance.getPendingFormulas()).isEmpty();
+        assertThat(instance.getResults()).containsEntry("tomorrow", "2024-02-29T00:00:00");
+
+    }
+
+    /**
+     * Test of update method. A {@code null} value removes the input value.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testUpdate_RemoveInput() {
+
+        IncrementalEvaluator instance = new IncrementalEvaluator(
+                Map.of("label", parser.parse("IfNull([code], `none`)")), Map.of("code", "A"));
+
+        assertThat(instance.getResults()).containsEntry("label", "A");
+
+        Map<String, String> changes = new HashMap<>();
+        changes.put("code", null);
+
+        assertThat(instance.update(changes)).hasSize(1).containsEntry("label", "none");
+        assertThat(instance.getInputs()).doesNotContainKey("code");
+
+    }
+
+    /**
+     * Test of update method. Nothing is recalculated if no input value is changed.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testUpdate_NoChange() {
+
+        IncrementalEvaluator instance = new IncrementalEvaluator(
+                Map.of("label", parser.parse("IfNull([code], `none`)")), Map.of("code", "A"));
+
+        Map<String, String> changes = new HashMap<>();
+        changes.put("code", "A");
+        changes.put("missing", null);
+
+        assertThat(instance.update(changes)).isEmpty();
+        assertThat(instance.update(Map.of())).isEmpty();
+        assertThat(instance.getInputs()).containsEntry("code", "A");
+        assertThat(instance.getResults()).containsEntry("label", "A");
+
+    }
+}
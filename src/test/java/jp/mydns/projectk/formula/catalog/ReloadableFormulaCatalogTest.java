@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2024, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.formula.catalog;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import jp.mydns.projectk.formula.Formula;
+import jp.mydns.projectk.formula.FormulaParseException;
+import jp.mydns.projectk.formula.parser.Parser;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test of class ReloadableFormulaCatalog.
+ *
+ * @author riru
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+class ReloadableFormulaCatalogTest {
+
+    private final Parser parser = new Parser(Map.of());
+
+    /**
+     * Test of reload method. Only the changed formulas are parsed again.
+     *
+     * @throws IOException if an I/O error occurs
+     * @since 1.0.0
+     */
+    @Test
+    void testReload() throws IOException {
+
+        Path file = Files.createTempFile("catalog", ".tsv");
+
+        try {
+
+            Files.writeString(file, "kept\t`K` & [a]\nchanged\t`old`\nremoved\t`R`\nlazy\t`L`\n");
+
+            ReloadableFormulaCatalog instance = ReloadableFormulaCatalog.open(file, parser);
+            FormulaCatalog snapshot = instance.getSnapshot();
+
+            Formula kept = instance.get("kept");
+            Formula changed = instance.get("changed");
+
+            Files.writeString(file, "kept\t`K` & [a]\nchanged\t`new`\nadded\t`A`\nlazy\t`L`\n");
+
+            assertThat(instance.reload()).containsExactly("added", "changed", "removed");
+
+            assertThat(instance.get("kept")).isSameAs(kept);
+            assertThat(instance.get("changed")).isNotSameAs(changed);
+            assertThat(instance.get("changed").calculate(Map.of())).isEqualTo("new");
+            assertThat(instance.get("removed")).isNull();
+            assertThat(instance.getSnapshot().isCompiled("added")).isTrue();
+            assertThat(instance.getSnapshot().isCompiled("lazy")).isFalse();
+
+            assertThat(snapshot.get("changed").calculate(Map.of())).isEqualTo("old");
+            assertThat(snapshot.get("removed").calculate(Map.of())).isEqualTo("R");
+
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Test of reload method. The invalid formula is not published.
+     *
+     * @throws IOException if an I/O error occurs
+     * @since 1.0.0
+     */
+    @Test
+    void testReload_Invalid() throws IOException {
+
+        Path file = Files.createTempFile("catalog", ".tsv");
+
+        try {
+
+            Files.writeString(file, "f\t`valid`\n");
+
+            ReloadableFormulaCatalog instance = ReloadableFormulaCatalog.open(file, parser);
+            FormulaCatalog snapshot = instance.getSnapshot();
+
+            Files.writeString(file, "f\tIfNull([a]\n");
+
+            assertThatThrownBy(() -> instance.reload()).isInstanceOf(FormulaParseException.class);
+
+            assertThat(instance.getSnapshot()).isSameAs(snapshot);
+            assertThat(instance.get("f").calculate(Map.of())).isEqualTo("valid");
+
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2024, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.formula.generator;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import jp.mydns.projectk.formula.Formula;
+import jp.mydns.projectk.formula.FormulaExecutionException;
+import jp.mydns.projectk.formula.LookupTable;
+import jp.mydns.projectk.formula.impl.function.TzCnv;
+import jp.mydns.projectk.formula.parser.Parser;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test of class JavaSourceGenerator.
+ *
+ * @author riru
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+class JavaSourceGeneratorTest {
+
+    private final Parser parser = new Parser(Map.of("TzCnv", TzCnv::new));
+
+    /**
+     * Test of generate method. The generated class calculates the same result as the parsed formula.
+     *
+     * @throws Exception if an error occurs while compiling or loading the generated classes
+     * @since 1.0.0
+     */
+    @Test
+    void testGenerate() throws Exception {
+
+        Map<String, String> texts = Map.of(
+                "greeting", "`Hello, ` & IfNull([name], `guest`) & `!`",
+                "price-with-tax", "Round(Mul([price], `1.1`), `0`)",
+                "kind", "If(And(Not(IsNull([kind])), RegexMatch([kind], `^[ab]$`)), Case([kind], `a`, `A`, `B`), `-`)",
+                "local\u6642\u523B", "TzCnv([at], `UTC`, `Asia/Tokyo`) & `\"\\\\`");
+
+        JavaSourceGenerator instance = new JavaSourceGenerator("precompiled.formulas", parser);
+        Path dir = Files.createTempDirectory("generated");
+
+        try {
+
+            Path sources = Files.createDirectories(dir.resolve("precompiled/formulas"));
+            List<Path> files = new ArrayList<>();
+            Map<String, String> classNames = new HashMap<>();
+
+            for (Map.Entry<String, String> e : texts.entrySet()) {
+                String className = JavaSourceGenerator.classNameOf(e.getKey());
+                files.add(Files.writeString(sources.resolve(className + ".java"),
+                        instance.generate(className, e.getKey(), e.getValue())));
+                classNames.put(e.getKey(), className);
+            }
+
+            files.add(Files.writeString(sources.resolve("Formulas.java"),
+                    instance.generateIndex("Formulas", classNames)));
+
+            JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+            List<String> arguments = new ArrayList<>(List.of("-d", dir.toString(), "-cp",
+                    System.getProperty("java.class.path")));
+            files.forEach(f -> arguments.add(f.toString()));
+
+            assertThat(compiler.run(null, null, null, arguments.toArray(String[]::new))).isEqualTo(0);
+
+            URL[] urls = {dir.toUri().toURL()};
+
+            try (URLClassLoader loader = new URLClassLoader(urls, getClass().getClassLoader())) {
+
+                Class<?> index = loader.loadClass("precompiled.formulas.Formulas");
+
+                Map<String, String> inputs = Map.of("name", "riru", "price", "1000", "kind", "b",
+                        "at", "2023-01-01T00:00:00");
+                Map<String, String> others = Map.of("price", "3.45", "kind", "c", "at", "2024-06-30T23:59:59");
+
+                for (Map.Entry<String, String> e : texts.entrySet()) {
+                    Formula formula = (Formula) index.getMethod("get", String.class).invoke(null, e.getKey());
+                    assertThat(formula.calculate(inputs)).isEqualTo(parser.parse(e.getValue()).calculate(inputs));
+                    assertThat(formula.calculate(others)).isEqualTo(parser.parse(e.getValue()).calculate(others));
+                }
+
+                Formula local = (Formula) index.getMethod("get", String.class).invoke(null, "local\u6642\u523B");
+
+                assertThatThrownBy(() -> local.calculate(Map.of("at", "invalid")))
+                        .isInstanceOf(FormulaExecutionException.class);
+                assertThat(index.getMethod("get", String.class).invoke(null, "missing")).isNull();
+
+            }
+
+        } finally {
+            try (Stream<Path> paths = Files.walk(dir)) {
+                for (Path p : paths.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.delete(p);
+                }
+            }
+        }
+    }
+
+    /**
+     * Test of generate method. The function that needs runtime resources cannot be precompiled.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testGenerate_NotPrecompilable() {
+
+        Parser withTables = new Parser(Map.of(), Map.of("t", new EmptyTable()));
+        JavaSourceGenerator instance = new JavaSourceGenerator("precompiled", withTables);
+
+        assertThatThrownBy(() -> instance.generate("Name", "name", "Lookup(`t`, [k])"))
+                .isInstanceOf(IllegalArgumentException.class);
+
+    }
+
+    /**
+     * Test of classNameOf method.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testClassNameOf() {
+
+        assertThat(JavaSourceGenerator.classNameOf("price-with-tax")).isEqualTo("PriceWithTax");
+        assertThat(JavaSourceGenerator.classNameOf("customer.name")).isEqualTo("CustomerName");
+        assertThat(JavaSourceGenerator.classNameOf("1st")).isEqualTo("F1st");
+        assertThat(JavaSourceGenerator.classNameOf("_")).isEqualTo("F_");
+        assertThat(JavaSourceGenerator.classNameOf("")).isEqualTo("F");
+        assertThat(JavaSourceGenerator.classNameOf("local\u6642\u523Bx")).isEqualTo("LocalU6642U523BX");
+
+    }
+
+    /**
+     * Test of literalOf method.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testLiteralOf() {
+
+        assertThat(JavaSourceGenerator.literalOf("a\"b\\c\n\u3042")).isEqualTo("\"a\\\"b\\\\c\\n\\u3042\"");
+        assertThat(JavaSourceGenerator.literalOf(null)).isEqualTo("null");
+
+    }
+
+    private static class EmptyTable implements LookupTable {
+
+        @Override
+        public String get(String key) {
+            return null;
+        }
+
+        @Override
+        public int size() {
+            return 0;
+        }
+    }
+}
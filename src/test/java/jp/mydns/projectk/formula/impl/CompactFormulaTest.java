@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2024, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.formula.impl;
+
+import java.util.HashMap;
+import java.util.Map;
+import jp.mydns.projectk.formula.Formula;
+import jp.mydns.projectk.formula.FormulaExecutionException;
+import jp.mydns.projectk.formula.parser.Parser;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test of class CompactFormula.
+ *
+ * @author riru
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+class CompactFormulaTest {
+
+    private final Parser parser = new Parser(Map.of());
+
+    /**
+     * Test of calculate method. The result is same as the formula that was compiled.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testCalculate() {
+
+        String[] sources = {
+            "`A` & [a] & `B`",
+            "If(RegexMatch([a], `^[0-9]+$`), Add([a], `1`), `NaN`)",
+            "Round(Div([a], `3`), `2`) & `/` & Case([b], `x`, `X`, `y`, `Y`, `-`)",
+            "IfNull([b], And(Not(IsNull([a])), Eq([a], `10`)))"
+        };
+
+        Map<String, String> inputs = new HashMap<>();
+        inputs.put("a", "10");
+
+        for (String source : sources) {
+
+            Formula formula = parser.parse(source);
+            CompactFormula compact = CompactFormula.compile(formula);
+
+            assertThat(compact.calculate(inputs)).isEqualTo(formula.calculate(inputs));
+            assertThat(compact.calculate(Map.of())).isEqualTo(formula.calculate(Map.of()));
+
+        }
+
+    }
+
+    /**
+     * Test of compile method. The constants are shared by the formulas that compiled with the same pool.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testCompile_SharedPool() {
+
+        ConstantPool pool = new ConstantPool();
+
+        CompactFormula first = CompactFormula.compile(parser.parse("[id] & `-` & [name]"), pool);
+        CompactFormula second = CompactFormula.compile(parser.parse("[name] & `-` & [id]"), pool);
+
+        assertThat(first.getPool()).isSameAs(second.getPool());
+        assertThat(second.getCode()).containsExactly(
+            CompactFormula.FORMULA, 3, 5, 7, 9,
+            CompactFormula.INPUT, 2,
+            CompactFormula.LITERAL, 1,
+            CompactFormula.INPUT, 0);
+        assertThat(second.calculate(Map.of("id", "01", "name", "riru"))).isEqualTo("riru-01");
+
+    }
+
+    /**
+     * Test of calculate method. An unexpected exception of the function is wrapped.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testCalculate_Error() {
+
+        CompactFormula compact = CompactFormula.compile(parser.parse("Div([a], `0`)"));
+
+        assertThatThrownBy(() -> compact.calculate(Map.of("a", "1"))).isInstanceOf(FormulaExecutionException.class);
+        assertThat(compact.calculate(Map.of())).isNull();
+
+    }
+
+    /**
+     * Test of toFormula method.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testToFormula() {
+
+        Formula formula = parser.parse("IfNull([a], `none`) & `:` & Sub([b], `1`)");
+        Formula restored = CompactFormula.compile(formula).toFormula();
+
+        assertThat(restored.toString()).isEqualTo(formula.toString());
+
+    }
+
+    /**
+     * Test of specialize method.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testSpecialize() {
+
+        ConstantPool pool = new ConstantPool();
+        CompactFormula compact = CompactFormula.compile(parser.parse("Case([kind], `a`, [x], [y])"), pool);
+
+        CompactFormula specialized = compact.specialize(Map.of("kind", "a"));
+
+        assertThat(specialized.getPool()).isNotSameAs(pool);
+        assertThat(specialized.calculate(Map.of("x", "X", "y", "Y"))).isEqualTo("X");
+
+    }
+
+    /**
+     * Test of specialize method. Repeated specializations do not grow the shared pool.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testSpecialize_PoolNotGrown() {
+
+        ConstantPool pool = new ConstantPool();
+        CompactFormula compact = CompactFormula.compile(parser.parse("Case([kind], `a`, [x], Add([y], `1`))"), pool);
+        int functionCount = pool.getFunctionCount();
+        int stringCount = pool.getStringCount();
+
+        for (int i = 0; i < 1000; i++) {
+            assertThat(compact.specialize(Map.of("kind", "k" + i)).calculate(Map.of("x", "X", "y", "2")))
+                    .isEqualTo("3");
+        }
+
+        assertThat(pool.getFunctionCount()).isEqualTo(functionCount);
+        assertThat(pool.getStringCount()).isEqualTo(stringCount);
+
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2024, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.formula.impl;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test of class DateTimeCodec.
+ *
+ * @author riru
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+class DateTimeCodecTest {
+
+    /**
+     * Test of parse method. The results are same as {@code DateTimeFormatter.ISO_LOCAL_DATE_TIME}.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testParse_Iso() {
+
+        DateTimeCodec instance = DateTimeCodec.ISO_LOCAL_DATE_TIME;
+
+        assertThat(instance.parse("2024-02-29T10:15")).isEqualTo(LocalDateTime.of(2024, 2, 29, 10, 15));
+        assertThat(instance.parse("2024-02-29T10:15:30.5")).isEqualTo(LocalDateTime.of(2024, 2, 29, 10, 15, 30,
+                500_000_000));
+        assertThat(instance.parse("2024-02-29t10:15:30")).isEqualTo(LocalDateTime.of(2024, 2, 29, 10, 15, 30));
+        assertThat(instance.parse("+12024-01-01T00:00:00")).isEqualTo(LocalDateTime.of(12024, 1, 1, 0, 0));
+        assertThatThrownBy(() -> instance.parse("2023-02-29T10:15:30")).isInstanceOf(DateTimeParseException.class);
+        assertThatThrownBy(() -> instance.parse("2024-01-01T24:00:00")).isInstanceOf(DateTimeParseException.class);
+
+    }
+
+    /**
+     * Test of format method. The results are same as {@code DateTimeFormatter.ISO_LOCAL_DATE_TIME}.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testFormat_Iso() {
+
+        DateTimeCodec instance = DateTimeCodec.ISO_LOCAL_DATE_TIME;
+
+        assertThat(instance.format(LocalDateTime.of(2024, 1, 2, 3, 4))).isEqualTo("2024-01-02T03:04:00");
+        assertThat(instance.format(LocalDateTime.of(2024, 1, 2, 3, 4, 5, 120_000_000)))
+                .isEqualTo("2024-01-02T03:04:05.12");
+        assertThat(instance.format(LocalDateTime.of(-1, 1, 1, 0, 0))).isEqualTo("-0001-01-01T00:00:00");
+
+    }
+
+    /**
+     * Test of ofPattern method. The fixed width patterns and the others are processed same as
+     * {@code DateTimeFormatter}.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testOfPattern() {
+
+        LocalDateTime dateTime = LocalDateTime.of(2024, 12, 31, 23, 59, 58);
+
+        for (String pattern : new String[]{"uuuuMMdd", "uuuuMMddHHmmss", "uuuu/MM/dd HH:mm", "uuuu-MM-dd'T'HH:mm:ss",
+            "uuuu-MM-dd HH:mm:ss.SSS", "MMM d, uuuu"}) {
+
+            DateTimeCodec instance = DateTimeCodec.ofPattern(pattern);
+            String expect = dateTime.format(DateTimeFormatter.ofPattern(pattern));
+
+            assertThat(instance.format(dateTime)).isEqualTo(expect);
+
+        }
+
+        assertThat(DateTimeCodec.ofPattern("uuuuMMddHHmmss").parse("20241231235958")).isEqualTo(dateTime);
+        assertThat(DateTimeCodec.ofPattern("uuuuMMdd")).isSameAs(DateTimeCodec.ofPattern("uuuuMMdd"));
+        assertThatThrownBy(() -> DateTimeCodec.ofPattern("uuuuMMdd").parse("20241231"))
+                .isInstanceOf(DateTimeParseException.class);
+        assertThatThrownBy(() -> DateTimeCodec.ofPattern("uuuuMMddHHmmss").parse("20240230000000"))
+                .isInstanceOf(DateTimeParseException.class);
+
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2024, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.formula.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import jp.mydns.projectk.formula.Formula;
+import jp.mydns.projectk.formula.LookupTable;
+import jp.mydns.projectk.formula.parser.Parser;
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test of class ElementFactory.
+ *
+ * @author riru
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+class ElementFactoryTest {
+
+    /**
+     * Test of parsing formulas that have the same subtrees.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testParse_SharedSubtree() {
+
+        ElementFactory factory = new ElementFactory();
+        Parser parser = new Parser(Map.of(), Map.of(), factory);
+
+        FormulaImpl first = (FormulaImpl) parser.parse("IfNull([name], ``) & `-` & [id]");
+        FormulaImpl second = (FormulaImpl) parser.parse("[id] & IfNull([name], ``)");
+
+        assertThat(second.getElements().get(1)).isSameAs(first.getElements().get(0));
+        assertThat(second.getElements().get(0)).isSameAs(first.getElements().get(2));
+        assertThat(parser.parse("IfNull([name], ``) & `-` & [id]")).isSameAs(first);
+        assertThat(first.calculate(Map.of("id", "01"))).isEqualTo("-01");
+
+    }
+
+    /**
+     * Test of function method. A function that is not deterministic is not shared.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testFunction_NotDeterministic() {
+
+        ElementFactory factory = new ElementFactory();
+        Parser parser = new Parser(Map.of("Counter", Counter::new), Map.of(), factory);
+
+        Formula formula = parser.parse("Counter() & Counter()");
+
+        assertThat(formula.calculate(Map.of())).isEqualTo("11");
+        assertThat(((FormulaImpl) formula).getElements().get(0))
+                .isNotSameAs(((FormulaImpl) formula).getElements().get(1));
+
+    }
+
+    /**
+     * Test of function method. A function element is not shared among the parsers that have the different tables.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testFunction_DifferentTables() {
+
+        ElementFactory factory = new ElementFactory();
+        LookupTable empty = new IntervalRangeTable(IntervalRangeTable.Order.TEXT, List.of());
+
+        Formula first = new Parser(Map.of(), Map.of("t", empty), factory).parse("Lookup(`t`, [k])");
+        Formula second = new Parser(Map.of(), Map.of("t", empty), factory).parse("Lookup(`t`, [k])");
+
+        assertThat(second).isNotSameAs(first);
+
+    }
+
+    /**
+     * Test of unshared method. The parser without an {@code ElementFactory} does not share the elements.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testUnshared() {
+
+        Parser parser = new Parser(Map.of());
+
+        FormulaImpl first = (FormulaImpl) parser.parse("IfNull([name], ``) & [id]");
+        FormulaImpl second = (FormulaImpl) parser.parse("IfNull([name], ``) & [id]");
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getElements().get(0)).isNotSameAs(first.getElements().get(0));
+        assertThat(second.calculate(Map.of("name", "a", "id", "1"))).isEqualTo("a1");
+        assertThat(ElementFactory.unshared().size()).isEqualTo(0);
+
+    }
+
+    /**
+     * Test of parsing the same formula concurrently. All threads get the same shared instance.
+     *
+     * @throws Exception if a thread fails
+     * @since 1.0.0
+     */
+    @Test
+    void testParse_Concurrent() throws Exception {
+
+        ElementFactory factory = new ElementFactory();
+        Parser parser = new Parser(Map.of(), Map.of(), factory);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+
+            List<Future<List<Formula>>> futures = new ArrayList<>();
+
+            for (int t = 0; t < 4; t++) {
+                futures.add(executor.submit(() -> {
+                    List<Formula> formulas = new ArrayList<>();
+                    for (int i = 0; i < 200; i++) {
+                        formulas.add(parser.parse("IfNull([k" + i % 20 + "], `-`) & `x`"));
+                    }
+                    return formulas;
+                }));
+            }
+
+            List<Formula> expected = futures.get(0).get();
+
+            for (Future<List<Formula>> f : futures) {
+                List<Formula> actual = f.get();
+                for (int i = 0; i < actual.size(); i++) {
+                    assertThat(actual.get(i)).isSameAs(expected.get(i % 20));
+                }
+            }
+
+        } finally {
+            executor.shutdown();
+        }
+
+    }
+
+    private static class Counter extends AbstractFunction {
+
+        private int count;
+
+        @Override
+        protected String calculate(Argument... args) {
+            return Integer.toString(++count);
+        }
+
+        @Override
+        public ArgumentScheme getArgumentScheme() {
+            return new ArgumentSchemeImpl();
+        }
+    }
+}
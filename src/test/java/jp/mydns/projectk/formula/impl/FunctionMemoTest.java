@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2024, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.formula.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import jp.mydns.projectk.formula.Function;
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test of class FunctionMemo.
+ *
+ * @author riru
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+class FunctionMemoTest {
+
+    /**
+     * Test of execute method. The same argument values are calculated only once.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testExecute() {
+
+        AtomicInteger calculated = new AtomicInteger();
+        java.util.function.Function<Function.Argument[], String> calculation = a -> {
+            calculated.incrementAndGet();
+            return a[0].resolve() + "!";
+        };
+
+        FunctionMemo instance = new FunctionMemo(10);
+
+        assertThat(instance.execute(new Function.Argument[]{Function.Argument.of("x")}, calculation)).isEqualTo("x!");
+        assertThat(instance.execute(new Function.Argument[]{Function.Argument.of("x")}, calculation)).isEqualTo("x!");
+        assertThat(calculated.get()).isEqualTo(1);
+        assertThat(instance.getStatistics().hitCount()).isEqualTo(1L);
+
+    }
+
+    /**
+     * Test of execute method. A {@code null} result is memorized too.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testExecute_NullResult() {
+
+        AtomicInteger calculated = new AtomicInteger();
+        java.util.function.Function<Function.Argument[], String> calculation = a -> {
+            calculated.incrementAndGet();
+            return null;
+        };
+
+        FunctionMemo instance = new FunctionMemo(10);
+
+        assertThat(instance.execute(new Function.Argument[]{Function.Argument.of(null)}, calculation)).isNull();
+        assertThat(instance.execute(new Function.Argument[]{Function.Argument.of(null)}, calculation)).isNull();
+        assertThat(calculated.get()).isEqualTo(1);
+
+    }
+
+    /**
+     * Test of execute method. The memo is bypassed if the hit rate is low.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testExecute_BypassIfLowHitRate() {
+
+        FunctionMemo instance = new FunctionMemo(10, 4, 0.5, 3);
+
+        for (int i = 0; i < 4; i++) {
+            instance.execute(new Function.Argument[]{Function.Argument.of(String.valueOf(i))}, a -> a[0].resolve());
+        }
+
+        assertThat(instance.isEnabled()).isFalse();
+
+        for (int i = 0; i < 3; i++) {
+            instance.execute(new Function.Argument[]{Function.Argument.of("x")}, a -> a[0].resolve());
+        }
+
+        assertThat(instance.isEnabled()).isTrue();
+        assertThat(instance.getStatistics().size()).isEqualTo(0);
+
+    }
+
+    /**
+     * Test of execute method. The arguments are distinguished by all of their values including {@code null}.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testExecute_MultipleArguments() {
+
+        FunctionMemo instance = new FunctionMemo(10);
+        java.util.function.Function<Function.Argument[], String> calculation = a -> a[0].resolve() + a[1].resolve();
+
+        assertThat(instance.execute(new Function.Argument[]{Function.Argument.of("a"), Function.Argument.of(null)},
+                calculation)).isEqualTo("anull");
+        assertThat(instance.execute(new Function.Argument[]{Function.Argument.of("a"), Function.Argument.of("b")},
+                calculation)).isEqualTo("ab");
+        assertThat(instance.execute(new Function.Argument[]{Function.Argument.of("a"), Function.Argument.of(null)},
+                calculation)).isEqualTo("anull");
+        assertThat(instance.getStatistics().hitCount()).isEqualTo(1L);
+        assertThat(instance.getStatistics().size()).isEqualTo(2);
+
+    }
+
+    /**
+     * Test of execute method. The concurrent calls get the correct results, and the memo stays bounded.
+     *
+     * @throws Exception if a thread fails
+     * @since 1.0.0
+     */
+    @Test
+    void testExecute_Concurrent() throws Exception {
+
+        FunctionMemo instance = new FunctionMemo(8, 64, 0.0, 0);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+
+            List<Future<Boolean>> futures = new ArrayList<>();
+
+            for (int t = 0; t < 4; t++) {
+                futures.add(executor.submit(() -> {
+                    boolean valid = true;
+                    for (int i = 0; i < 5000; i++) {
+                        String value = String.valueOf(i % 16);
+                        valid &= (value + "!").equals(instance.execute(
+                                new Function.Argument[]{Function.Argument.of(value)}, a -> a[0].resolve() + "!"));
+                    }
+                    return valid;
+                }));
+            }
+
+            for (Future<Boolean> f : futures) {
+                assertThat(f.get()).isTrue();
+            }
+
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(instance.getStatistics().size()).isLessThanOrEqualTo(8);
+        assertThat(instance.getStatistics().hitCount() + instance.getStatistics().missCount()).isEqualTo(20000L);
+
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2024, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.formula.impl;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import jp.mydns.projectk.formula.impl.IntervalRangeTable.Order;
+import jp.mydns.projectk.formula.impl.IntervalRangeTable.Range;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test of class IntervalRangeTable.
+ *
+ * @author riru
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+class IntervalRangeTableTest {
+
+    /**
+     * Test of get method.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testGet() {
+
+        IntervalRangeTable instance = new IntervalRangeTable(Order.TEXT, List.of(
+                new Range("2024-04-01", null, "rate-3"),
+                new Range(null, "2020-01-01", "rate-1"),
+                new Range("2020-01-01", "2024-04-01", "rate-2")));
+
+        assertThat(instance.get("1999-12-31")).isEqualTo("rate-1");
+        assertThat(instance.get("2020-01-01")).isEqualTo("rate-2");
+        assertThat(instance.get("2024-03-31")).isEqualTo("rate-2");
+        assertThat(instance.get("2024-04-01")).isEqualTo("rate-3");
+        assertThat(instance.size()).isEqualTo(3);
+
+    }
+
+    /**
+     * Test of get method. The ranges overlap.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testGet_Overlap() {
+
+        IntervalRangeTable instance = new IntervalRangeTable(Order.NUMBER, List.of(
+                new Range("0", "1000", "wide"),
+                new Range("10", "20", "narrow"),
+                new Range("15", "16", "narrowest"),
+                new Range("30", "40", "another")));
+
+        assertThat(instance.get("5")).isEqualTo("wide");
+        assertThat(instance.get("15.5")).isEqualTo("narrowest");
+        assertThat(instance.get("16")).isEqualTo("narrow");
+        assertThat(instance.get("25")).isEqualTo("wide");
+        assertThat(instance.get("1e2")).isEqualTo("wide");
+        assertThat(instance.get("1000")).isNull();
+        assertThat(instance.get("-1")).isNull();
+        assertThat(instance.get("x")).isNull();
+
+    }
+
+    /**
+     * Test of load method.
+     *
+     * @throws IOException if an I/O error occurs
+     * @since 1.0.0
+     */
+    @Test
+    void testLoad() throws IOException {
+
+        Path path = Files.createTempFile("range", ".tsv");
+
+        try {
+
+            Files.writeString(path, "# lower\tupper\tvalue\n\n\t100\tS\n100\t1000\tM\n1000\t\tL\n");
+
+            IntervalRangeTable instance = IntervalRangeTable.load(path, Order.NUMBER);
+
+            assertThat(instance.get("99")).isEqualTo("S");
+            assertThat(instance.get("100")).isEqualTo("M");
+            assertThat(instance.get("123456")).isEqualTo("L");
+
+            Files.writeString(path, "100\t10\tM\n");
+
+            assertThatThrownBy(() -> IntervalRangeTable.load(path, Order.NUMBER)).isInstanceOf(IOException.class);
+
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+}
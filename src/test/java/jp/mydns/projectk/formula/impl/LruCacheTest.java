@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2024, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.formula.impl;
+
+import jp.mydns.projectk.formula.CacheStatistics;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test of class LruCache.
+ *
+ * @author riru
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+class LruCacheTest {
+
+    /**
+     * Test of get method. The hits and the misses are counted.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testGet() {
+
+        LruCache<String, String> instance = new LruCache<>(10);
+
+        assertThat(instance.get("a")).isNull();
+        instance.put("a", "A");
+        assertThat(instance.get("a")).isEqualTo("A");
+        assertThat(instance.get("a")).isEqualTo("A");
+
+        CacheStatistics statistics = instance.getStatistics();
+
+        assertThat(statistics.hitCount()).isEqualTo(2L);
+        assertThat(statistics.missCount()).isEqualTo(1L);
+        assertThat(statistics.size()).isEqualTo(1);
+        assertThat(statistics.hitRate()).isEqualTo(2.0 / 3);
+
+    }
+
+    /**
+     * Test of put method. The entry that was used recently survives the eviction.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testPut_Evict() {
+
+        LruCache<String, String> instance = new LruCache<>(2);
+
+        instance.put("a", "A");
+        instance.put("b", "B");
+        instance.get("a");
+        instance.put("c", "C");
+
+        assertThat(instance.get("a")).isEqualTo("A");
+        assertThat(instance.get("b")).isNull();
+        assertThat(instance.get("c")).isEqualTo("C");
+        assertThat(instance.getStatistics().evictionCount()).isEqualTo(1L);
+
+    }
+
+    /**
+     * Test of setMaximumSize method. The overflowed entries are evicted immediately.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testSetMaximumSize() {
+
+        LruCache<Integer, String> instance = new LruCache<>(10);
+
+        for (int i = 0; i < 10; i++) {
+            instance.put(i, String.valueOf(i));
+        }
+
+        instance.setMaximumSize(3);
+
+        assertThat(instance.getStatistics().size()).isEqualTo(3);
+        assertThat(instance.getStatistics().maximumSize()).isEqualTo(3);
+        assertThat(instance.getStatistics().evictionCount()).isEqualTo(7L);
+        assertThat(instance.get(9)).isEqualTo("9");
+
+        instance.setMaximumSize(0);
+
+        assertThat(instance.getStatistics().size()).isEqualTo(0);
+        assertThatThrownBy(() -> instance.setMaximumSize(-1)).isInstanceOf(IllegalArgumentException.class);
+
+    }
+
+    /**
+     * Test of clear method. The statistics are not reset.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testClear() {
+
+        LruCache<String, String> instance = new LruCache<>(10);
+
+        assertThat(instance.computeIfAbsent("a", k -> "A")).isEqualTo("A");
+        assertThat(instance.computeIfAbsent("a", k -> "X")).isEqualTo("A");
+
+        instance.clear();
+
+        assertThat(instance.getStatistics().size()).isEqualTo(0);
+        assertThat(instance.getStatistics().hitCount()).isEqualTo(1L);
+        assertThat(instance.getStatistics().missCount()).isEqualTo(1L);
+
+    }
+}
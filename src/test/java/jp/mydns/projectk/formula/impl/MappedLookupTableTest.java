@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2024, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.formula.impl;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test of class MappedLookupTable.
+ *
+ * @author riru
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+class MappedLookupTableTest {
+
+    /**
+     * Test of get method.
+     *
+     * @throws IOException if an I/O error occurs
+     * @since 1.0.0
+     */
+    @Test
+    void testGet() throws IOException {
+
+        Map<String, String> entries = new HashMap<>();
+
+        for (int i = 0; i < 1000; i++) {
+            entries.put("K" + i, "V" + i);
+        }
+
+        entries.put("", "empty");
+        entries.put("\u3042", "hiragana");
+        entries.put("\uD83D\uDE00", "emoji");
+        entries.put("\u00E9", "");
+
+        Path path = Files.createTempFile("lookup", ".tbl");
+
+        try {
+
+            MappedLookupTable.write(path, entries);
+
+            MappedLookupTable instance = MappedLookupTable.open(path);
+
+            assertThat(instance.size()).isEqualTo(1004);
+
+            entries.forEach((k, v) -> assertThat(instance.get(k)).isEqualTo(v));
+
+            assertThat(instance.get("K1000")).isNull();
+            assertThat(instance.get("K")).isNull();
+            assertThat(instance.get("\uFFFF")).isNull();
+
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    /**
+     * Test of open method. The file is not a lookup table.
+     *
+     * @throws IOException if an I/O error occurs
+     * @since 1.0.0
+     */
+    @Test
+    void testOpen_NotLookupTable() throws IOException {
+
+        Path path = Files.createTempFile("lookup", ".tbl");
+
+        try {
+
+            Files.writeString(path, "key\tvalue\n");
+
+            assertThatThrownBy(() -> MappedLookupTable.open(path)).isInstanceOf(IOException.class);
+
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+}
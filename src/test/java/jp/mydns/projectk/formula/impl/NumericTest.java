@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2024, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.formula.impl;
+
+import java.math.BigDecimal;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test of class Numeric.
+ *
+ * @author riru
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+class NumericTest {
+
+    /**
+     * Test of parse method.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testParse() {
+
+        assertThat(Numeric.parse("-12.340").toString()).isEqualTo("-12.340");
+        assertThat(Numeric.parse("-12.340").scale()).isEqualTo(3);
+        assertThat(Numeric.parse(".5").toString()).isEqualTo("0.5");
+        assertThat(Numeric.parse("1E3").toString()).isEqualTo("1000");
+        assertThat(Numeric.parse("123456789012345678901234567890").toString())
+                .isEqualTo("123456789012345678901234567890");
+        assertThatThrownBy(() -> Numeric.parse("1.2.3")).isInstanceOf(NumberFormatException.class);
+        assertThatThrownBy(() -> Numeric.parse("-")).isInstanceOf(NumberFormatException.class);
+
+    }
+
+    /**
+     * Test of add method. The sum overflows {@code long}.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testAdd_Overflow() {
+
+        Numeric instance = Numeric.of(Long.MAX_VALUE).add(Numeric.parse("0.5"));
+
+        assertThat(instance.toString()).isEqualTo("9223372036854775807.5");
+        assertThat(instance.subtract(Numeric.parse("9223372036854775807.5"))).isEqualTo(Numeric.parse("0.0"));
+
+    }
+
+    /**
+     * Test of multiply method. The result is same as {@code BigDecimal}.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testMultiply() {
+
+        assertThat(Numeric.parse("1.10").multiply(Numeric.parse("-0.3")).toString()).isEqualTo("-0.330");
+        assertThat(Numeric.of(3_000_000_000L).multiply(Numeric.of(4_000_000_000L)).toString())
+                .isEqualTo("12000000000000000000");
+
+    }
+
+    /**
+     * Test of divide method.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testDivide() {
+
+        assertThat(Numeric.of(10).divide(Numeric.of(4)).toString()).isEqualTo("2.5");
+        assertThat(Numeric.of(1).divide(Numeric.of(3)).toString()).isEqualTo("0.3333333333333333333333333333333333");
+        assertThat(Numeric.parse("100.0").divide(Numeric.of(1)).toString()).isEqualTo("100");
+        assertThat(Numeric.of(2).divide(Numeric.of(3), 2).toString()).isEqualTo("0.67");
+        assertThatThrownBy(() -> Numeric.of(1).divide(Numeric.of(0))).isInstanceOf(ArithmeticException.class);
+
+    }
+
+    /**
+     * Test of round method. Half is rounded away from zero.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testRound() {
+
+        assertThat(Numeric.parse("2.5").round(0).toString()).isEqualTo("3");
+        assertThat(Numeric.parse("-2.5").round(0).toString()).isEqualTo("-3");
+        assertThat(Numeric.parse("1.2345").round(2).toString()).isEqualTo("1.23");
+        assertThat(Numeric.parse("1.2").round(3).toString()).isEqualTo("1.200");
+        assertThat(Numeric.parse("1250").round(-2).toString()).isEqualTo("1300");
+        assertThat(Numeric.parse("1.005").round(2).toBigDecimal()).isEqualTo(new BigDecimal("1.01"));
+
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2024, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.formula.impl;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import jp.mydns.projectk.formula.Formula;
+import jp.mydns.projectk.formula.parser.Parser;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test of class OffHeapFormulaStore.
+ *
+ * @author riru
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+class OffHeapFormulaStoreTest {
+
+    private final Parser parser = new Parser(Map.of());
+
+    /**
+     * Test of allocate method.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testAllocate() {
+
+        List<Formula> formulas = formulas(3000);
+
+        OffHeapFormulaStore instance = OffHeapFormulaStore.allocate(formulas, new ConstantPool());
+
+        assertThat(instance.size()).isEqualTo(3000);
+
+        for (int i = 0; i < formulas.size(); i++) {
+            Map<String, String> inputs = Map.of("a", Integer.toString(i), "b", "x");
+            assertThat(instance.get(i).calculate(inputs)).isEqualTo(formulas.get(i).calculate(inputs));
+        }
+
+        assertThatThrownBy(() -> instance.get(3000)).isInstanceOf(IndexOutOfBoundsException.class);
+
+    }
+
+    /**
+     * Test of allocate method. No formula.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testAllocate_Empty() {
+
+        OffHeapFormulaStore instance = OffHeapFormulaStore.allocate(List.of(), new ConstantPool());
+
+        assertThat(instance.size()).isEqualTo(0);
+        assertThat(instance.getMemorySize()).isEqualTo(8);
+
+    }
+
+    /**
+     * Test of map method.
+     *
+     * @throws IOException if an I/O error occurs
+     * @since 1.0.0
+     */
+    @Test
+    void testMap() throws IOException {
+
+        List<Formula> formulas = formulas(100);
+        Path path = Files.createTempFile("formulas", ".bin");
+
+        try {
+
+            OffHeapFormulaStore instance = OffHeapFormulaStore.map(path, formulas, new ConstantPool());
+
+            assertThat(instance.size()).isEqualTo(100);
+            assertThat(Files.size(path)).isEqualTo((long) instance.getMemorySize());
+
+            for (int i = 0; i < formulas.size(); i++) {
+                Map<String, String> inputs = Map.of("a", Integer.toString(i));
+                assertThat(instance.get(i).calculate(inputs)).isEqualTo(formulas.get(i).calculate(inputs));
+                assertThat(instance.get(i).toFormula().toString()).isEqualTo(formulas.get(i).toString());
+            }
+
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    private List<Formula> formulas(int size) {
+
+        List<Formula> formulas = new ArrayList<>();
+
+        for (int i = 0; i < size; i++) {
+            formulas.add(parser.parse(switch (i % 3) {
+                case 0 ->
+                    "`#%d:` & [a]".formatted(i);
+                case 1 ->
+                    "If(Eq([a], `%d`), Add([a], `%d`), IfNull([b], `none`))".formatted(i, i);
+                default ->
+                    "Case([a], `%d`, `hit`, `miss`) & `/` & Sub([a], `1`)".formatted(i);
+            }));
+        }
+
+        return formulas;
+
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2024, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.formula.impl;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test of class PeriodDuration.
+ *
+ * @author riru
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+class PeriodDurationTest {
+
+    /**
+     * Test of parse method.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testParse() {
+
+        assertThat(PeriodDuration.parse("-p1y2m3dt4h").toString())
+                .isEqualTo("PeriodDuration{period=P-1Y-2M-3D, duration=PT-4H}");
+        assertThat(PeriodDuration.parse("PT30M")).isSameAs(PeriodDuration.parse("PT30M"));
+        assertThatThrownBy(() -> PeriodDuration.parse("P")).isInstanceOf(DateTimeParseException.class);
+
+    }
+
+    /**
+     * Test of addTo method.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testAddTo() {
+
+        LocalDateTime dateTime = LocalDateTime.of(2024, 2, 28, 23, 59, 59, 600_000_000);
+
+        assertThat(PeriodDuration.parse("P1DT0.5S").addTo(dateTime))
+                .isEqualTo(LocalDateTime.of(2024, 3, 1, 0, 0, 0, 100_000_000));
+        assertThat(PeriodDuration.parse("-PT0.7S").addTo(dateTime))
+                .isEqualTo(LocalDateTime.of(2024, 2, 28, 23, 59, 58, 900_000_000));
+        assertThat(PeriodDuration.parse("P1M").addTo(LocalDateTime.of(2024, 1, 31, 0, 0)))
+                .isEqualTo(LocalDateTime.of(2024, 2, 29, 0, 0));
+
+    }
+
+    /**
+     * Test of addTo method. Add to the arrays of the local epoch seconds.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testAddTo_Bulk() {
+
+        long[] seconds = {
+            LocalDateTime.of(2024, 1, 31, 0, 0).toEpochSecond(ZoneOffset.UTC),
+            LocalDateTime.of(2024, 12, 31, 23, 0).toEpochSecond(ZoneOffset.UTC)};
+        int[] nanos = {0, 999_999_999};
+
+        PeriodDuration.parse("PT1H0.000000001S").addTo(seconds, nanos);
+
+        assertThat(seconds[0]).isEqualTo(LocalDateTime.of(2024, 1, 31, 1, 0).toEpochSecond(ZoneOffset.UTC));
+        assertThat(nanos[0]).isEqualTo(1);
+        assertThat(seconds[1]).isEqualTo(LocalDateTime.of(2025, 1, 1, 0, 0, 1).toEpochSecond(ZoneOffset.UTC));
+        assertThat(nanos[1]).isEqualTo(0);
+
+    }
+
+    /**
+     * Test of setCacheSize method. The durations are cached, and shrinking the cache evicts the overflowed ones.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testSetCacheSize() {
+
+        try {
+
+            long hits = PeriodDuration.getCacheStatistics().hitCount();
+            PeriodDuration duration = PeriodDuration.parse("P3DT7H");
+
+            assertThat(PeriodDuration.parse("P3DT7H")).isSameAs(duration);
+            assertThat(PeriodDuration.getCacheStatistics().hitCount() - hits).isEqualTo(1L);
+
+            PeriodDuration.parse("P4DT7H");
+            PeriodDuration.setCacheSize(1);
+
+            assertThat(PeriodDuration.getCacheStatistics().size()).isEqualTo(1);
+
+        } finally {
+            PeriodDuration.setCacheSize(256);
+        }
+
+    }
+}
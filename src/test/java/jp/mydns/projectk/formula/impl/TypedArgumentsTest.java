@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2024, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.formula.impl;
+
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import jp.mydns.projectk.formula.CacheStatistics;
+import jp.mydns.projectk.formula.FormulaExecutionException;
+import jp.mydns.projectk.formula.Function;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test of class TypedArguments.
+ *
+ * @author riru
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+class TypedArgumentsTest {
+
+    /**
+     * Test of requireDateTimeFormat method. The formatters are cached, and the hits and the misses are counted.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testRequireDateTimeFormat() {
+
+        CacheStatistics before = TypedArguments.getDateTimeFormatCacheStatistics();
+        Function.Argument pattern = Function.Argument.of("uuuu'-hit-test-'MM");
+
+        DateTimeFormatter formatter = TypedArguments.requireDateTimeFormat(pattern);
+
+        assertThat(TypedArguments.requireDateTimeFormat(pattern)).isSameAs(formatter);
+
+        CacheStatistics after = TypedArguments.getDateTimeFormatCacheStatistics();
+
+        assertThat(after.missCount() - before.missCount()).isEqualTo(1L);
+        assertThat(after.hitCount() - before.hitCount()).isEqualTo(1L);
+
+    }
+
+    /**
+     * Test of setDateTimeFormatCacheSize method. Shrinking the cache evicts the overflowed formatters.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testSetDateTimeFormatCacheSize() {
+
+        try {
+
+            for (int i = 0; i < 5; i++) {
+                TypedArguments.requireDateTimeFormat(Function.Argument.of("uuuu'-shrink-" + i + "'"));
+            }
+
+            long evicted = TypedArguments.getDateTimeFormatCacheStatistics().evictionCount();
+
+            TypedArguments.setDateTimeFormatCacheSize(2);
+
+            CacheStatistics statistics = TypedArguments.getDateTimeFormatCacheStatistics();
+
+            assertThat(statistics.size()).isEqualTo(2);
+            assertThat(statistics.maximumSize()).isEqualTo(2);
+            assertThat(statistics.evictionCount() - evicted).isGreaterThan(2L);
+            assertThatThrownBy(() -> TypedArguments.setDateTimeFormatCacheSize(-1))
+                    .isInstanceOf(IllegalArgumentException.class);
+
+        } finally {
+            TypedArguments.setDateTimeFormatCacheSize(256);
+        }
+
+    }
+
+    /**
+     * Test of requireZoneId method. The zone ids are cached, and the hits and the misses are counted.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testRequireZoneId() {
+
+        CacheStatistics before = TypedArguments.getZoneIdCacheStatistics();
+
+        ZoneId zone = TypedArguments.requireZoneId(Function.Argument.of("America/Argentina/Ushuaia"));
+
+        assertThat(TypedArguments.requireZoneId(Function.Argument.of("America/Argentina/Ushuaia")))
+                .isSameAs(zone);
+
+        CacheStatistics after = TypedArguments.getZoneIdCacheStatistics();
+
+        assertThat(after.hitCount() - before.hitCount()).isGreaterThan(0L);
+        assertThat(after.hitCount() + after.missCount() - before.hitCount() - before.missCount()).isEqualTo(2L);
+
+    }
+
+    /**
+     * Test of setZoneIdCacheSize method. Shrinking the cache evicts the overflowed zone ids.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testSetZoneIdCacheSize() {
+
+        try {
+
+            for (String id : new String[]{"Europe/Oslo", "Europe/Rome", "Asia/Seoul", "Africa/Cairo"}) {
+                TypedArguments.requireZoneId(Function.Argument.of(id));
+            }
+
+            TypedArguments.setZoneIdCacheSize(1);
+
+            assertThat(TypedArguments.getZoneIdCacheStatistics().size()).isEqualTo(1);
+            assertThat(TypedArguments.getZoneIdCacheStatistics().maximumSize()).isEqualTo(1);
+
+        } finally {
+            TypedArguments.setZoneIdCacheSize(256);
+        }
+
+    }
+
+    /**
+     * Test of requireDateTimeCodec method. The codecs share the cache with {@code requireDateTimeFormat}, so the
+     * lookups by {@code TimeFmt} are counted in the same statistics.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testRequireDateTimeCodec() {
+
+        CacheStatistics before = TypedArguments.getDateTimeFormatCacheStatistics();
+        Function.Argument pattern = Function.Argument.of("uuuu'-codec-test-'dd");
+
+        DateTimeCodec codec = TypedArguments.requireDateTimeCodec(pattern);
+
+        assertThat(TypedArguments.requireDateTimeFormat(pattern)).isSameAs(codec.getFormatter());
+
+        CacheStatistics after = TypedArguments.getDateTimeFormatCacheStatistics();
+
+        assertThat(after.missCount() - before.missCount()).isEqualTo(1L);
+        assertThat(after.hitCount() - before.hitCount()).isEqualTo(1L);
+
+    }
+
+    /**
+     * Test of resolveBoolean method. A {@code BooleanArgument} is used without going through the string.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testResolveBoolean() {
+
+        BooleanArgument typed = new BooleanArgument() {
+            @Override
+            public boolean resolveBoolean() {
+                return true;
+            }
+
+            @Override
+            public String resolve() {
+                throw new AssertionError("Must not be resolved as string.");
+            }
+        };
+
+        assertThat(TypedArguments.resolveBoolean(typed)).isTrue();
+        assertThat(TypedArguments.resolveBoolean(Function.Argument.of("TRUE"))).isTrue();
+        assertThat(TypedArguments.resolveBoolean(Function.Argument.of(null))).isFalse();
+
+    }
+
+    /**
+     * Test of resolveNumeric method.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testResolveNumeric() {
+
+        assertThat(TypedArguments.resolveNumeric(Function.Argument.of(null))).isNull();
+        assertThat(TypedArguments.resolveNumeric(Function.Argument.of("1.50")).toString()).isEqualTo("1.50");
+        assertThatThrownBy(() -> TypedArguments.resolveNumeric(Function.Argument.of("x")))
+                .isInstanceOf(FormulaExecutionException.class)
+                .hasMessage("Must be valid number. But [x].");
+
+    }
+}
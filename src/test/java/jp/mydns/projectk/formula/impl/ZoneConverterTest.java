@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2024, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.formula.impl;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test of class ZoneConverter.
+ *
+ * @author riru
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+class ZoneConverterTest {
+
+    /**
+     * Test of convert method. Fixed offset zones.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testConvert_FixedOffset() {
+
+        ZoneConverter instance = ZoneConverter.of(ZoneId.of("UTC"), ZoneId.of("+09:00"));
+
+        assertThat(instance.convert(LocalDateTime.of(2024, 12, 31, 15, 0, 0, 1)))
+                .isEqualTo(LocalDateTime.of(2025, 1, 1, 0, 0, 0, 1));
+        assertThat(ZoneConverter.of(ZoneId.of("UTC"), ZoneId.of("+09:00"))).isSameAs(instance);
+
+    }
+
+    /**
+     * Test of convert method. Around the daylight saving time transitions.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testConvert_Transition() {
+
+        ZoneConverter instance = ZoneConverter.of(ZoneId.of("Europe/Paris"), ZoneId.of("America/New_York"));
+
+        // Note: Standard time, the gap is shifted forward, and the overlap takes the earlier offset.
+        assertThat(instance.convert(LocalDateTime.of(2024, 1, 15, 12, 0)))
+                .isEqualTo(LocalDateTime.of(2024, 1, 15, 6, 0));
+        assertThat(instance.convert(LocalDateTime.of(2024, 3, 31, 2, 30)))
+                .isEqualTo(LocalDateTime.of(2024, 3, 30, 21, 30));
+        assertThat(instance.convert(LocalDateTime.of(2024, 10, 27, 2, 30)))
+                .isEqualTo(LocalDateTime.of(2024, 10, 26, 20, 30));
+        assertThat(instance.convert(LocalDateTime.of(2024, 10, 27, 3, 30)))
+                .isEqualTo(LocalDateTime.of(2024, 10, 26, 22, 30));
+
+    }
+
+    /**
+     * Test of convert method. Bulk conversion of the local epoch seconds.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testConvert_Bulk() {
+
+        ZoneConverter instance = ZoneConverter.of(ZoneId.of("Asia/Tokyo"), ZoneId.of("UTC"));
+
+        long[] values = {
+            LocalDateTime.of(2024, 1, 1, 9, 0).toEpochSecond(ZoneOffset.UTC),
+            LocalDateTime.of(2024, 7, 1, 0, 0).toEpochSecond(ZoneOffset.UTC)};
+
+        instance.convert(values, values);
+
+        assertThat(values[0]).isEqualTo(LocalDateTime.of(2024, 1, 1, 0, 0).toEpochSecond(ZoneOffset.UTC));
+        assertThat(values[1]).isEqualTo(LocalDateTime.of(2024, 6, 30, 15, 0).toEpochSecond(ZoneOffset.UTC));
+
+    }
+
+    /**
+     * Test of setCacheSize method. The converters are cached, and shrinking the cache evicts the overflowed ones.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testSetCacheSize() {
+
+        try {
+
+            ZoneConverter converter = ZoneConverter.of(ZoneId.of("Asia/Tokyo"), ZoneId.of("Europe/Paris"));
+
+            assertThat(ZoneConverter.of(ZoneId.of("Asia/Tokyo"), ZoneId.of("Europe/Paris"))).isSameAs(converter);
+
+            ZoneConverter.of(ZoneId.of("Asia/Tokyo"), ZoneId.of("Europe/Rome"));
+            ZoneConverter.setCacheSize(1);
+
+            assertThat(ZoneConverter.getCacheStatistics().size()).isEqualTo(1);
+            assertThat(ZoneConverter.getCacheStatistics().maximumSize()).isEqualTo(1);
+
+        } finally {
+            ZoneConverter.setCacheSize(256);
+        }
+
+    }
+}
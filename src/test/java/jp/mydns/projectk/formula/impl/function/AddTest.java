@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2024, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.formula.impl.function;
+
+import java.util.Map;
+import jp.mydns.projectk.formula.Formula;
+import jp.mydns.projectk.formula.FormulaExecutionException;
+import jp.mydns.projectk.formula.impl.Numeric;
+import jp.mydns.projectk.formula.parser.Parser;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test of class Add.
+ *
+ * @author riru
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+class AddTest {
+
+    private final Parser parser = new Parser(Map.of());
+
+    /**
+     * Test of calculate method.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testCalculate() {
+
+        Formula formula = parser.parse("Add([a], `2.5`, `-1`)");
+
+        assertThat(formula.calculate(Map.of("a", "10"))).isEqualTo("11.5");
+
+    }
+
+    /**
+     * Test of calculate method. A {@code null} value results {@code null}.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testCalculate_Null() {
+
+        Formula formula = parser.parse("Add([a], [b])");
+
+        assertThat(formula.calculate(Map.of("a", "1"))).isNull();
+        assertThat(formula.calculate(Map.of("b", "1"))).isNull();
+
+    }
+
+    /**
+     * Test of calculate method. The sum that overflows {@code long} falls back to the arbitrary precision.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testCalculate_Overflow() {
+
+        Formula formula = parser.parse("Add([a], `1`)");
+
+        assertThat(formula.calculate(Map.of("a", "9223372036854775807"))).isEqualTo("9223372036854775808");
+
+    }
+
+    /**
+     * Test of calculate method. The value is invalid as number.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testCalculate_InvalidNumber() {
+
+        Formula formula = parser.parse("Add([a], `1`)");
+
+        assertThatThrownBy(() -> formula.calculate(Map.of("a", "x"))).isInstanceOf(FormulaExecutionException.class)
+                .hasMessage("Must be valid number. But [x].");
+
+    }
+
+    /**
+     * Test of add method.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testAdd() {
+
+        Numeric[] augends = {Numeric.of(1), Numeric.of(Long.MAX_VALUE), null};
+        Numeric[] addends = {Numeric.parse("0.5"), Numeric.of(1), Numeric.of(3)};
+        Numeric[] results = new Numeric[3];
+
+        Add.add(augends, addends, results);
+
+        assertThat(results).containsExactly(Numeric.parse("1.5"), Numeric.parse("9223372036854775808"), null);
+        assertThatThrownBy(() -> Add.add(augends, addends, new Numeric[2]))
+                .isInstanceOf(IllegalArgumentException.class);
+
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2024, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.formula.impl.function;
+
+import java.util.Map;
+import jp.mydns.projectk.formula.Formula;
+import jp.mydns.projectk.formula.FormulaParseException;
+import jp.mydns.projectk.formula.parser.Parser;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test of class Case.
+ *
+ * @author riru
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+class CaseTest {
+
+    /**
+     * Test of calculate method. Hundreds of literal cases.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testCalculate_LiteralCases() {
+
+        StringBuilder formulaText = new StringBuilder("Case([code]");
+
+        for (int i = 0; i < 300; i++) {
+            formulaText.append(", `C%d`, `V%d`".formatted(i, i));
+        }
+
+        formulaText.append(", `none`)");
+
+        Formula formula = new Parser(Map.of()).parse(formulaText.toString());
+
+        assertThat(formula.calculate(Map.of("code", "C0"))).isEqualTo("V0");
+        assertThat(formula.calculate(Map.of("code", "C299"))).isEqualTo("V299");
+        assertThat(formula.calculate(Map.of("code", "C300"))).isEqualTo("none");
+        assertThat(formula.calculate(Map.of())).isEqualTo("none");
+
+    }
+
+    /**
+     * Test of calculate method. Compare values that are not literal.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testCalculate_NonLiteralCases() {
+
+        Formula formula = new Parser(Map.of()).parse("Case([code], `A`, `1`, [other], `2`, `B`, `3`, `none`)");
+
+        assertThat(formula.calculate(Map.of("code", "B", "other", "B"))).isEqualTo("2");
+        assertThat(formula.calculate(Map.of("code", "B", "other", "X"))).isEqualTo("3");
+        assertThat(formula.calculate(Map.of("code", "A", "other", "A"))).isEqualTo("1");
+
+    }
+
+    /**
+     * Test of specialize method. Duplicate literal compare values.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testSpecialize_DuplicateCompareValue() {
+
+        Parser parser = new Parser(Map.of());
+
+        assertThatThrownBy(() -> parser.parse("Case([code], `A`, `1`, [other], `2`, `A`, `3`, `none`)"))
+                .isInstanceOf(FormulaParseException.class).hasMessage("[Case] Duplicate compare value. [A]");
+
+    }
+}
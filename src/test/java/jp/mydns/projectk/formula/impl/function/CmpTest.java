@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2024, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.formula.impl.function;
+
+import java.util.Map;
+import jp.mydns.projectk.formula.FormulaParseException;
+import jp.mydns.projectk.formula.parser.Parser;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test of class Cmp.
+ *
+ * @author riru
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+class CmpTest {
+
+    /**
+     * Test of compare method.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testCompare() {
+
+        String[] values = {"a", "b", "c", null, "b"};
+        String[] anothers = {"b", "b", "b", "b", null};
+        boolean[] results = new boolean[5];
+
+        new Cmp().specialize(Map.of(2, "<=")).compare(values, anothers, results);
+
+        assertThat(results).containsExactly(true, true, false, false, false);
+
+        new Cmp().specialize(Map.of(2, "<>")).compare(values, anothers, results);
+
+        assertThat(results).containsExactly(true, false, true, false, false);
+
+    }
+
+    /**
+     * Test of compare method. The comparison way is not resolved.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testCompare_NotResolved() {
+
+        Cmp instance = new Cmp();
+
+        assertThatThrownBy(() -> instance.compare(new String[0], new String[0], new boolean[0]))
+                .isInstanceOf(IllegalStateException.class);
+
+    }
+
+    /**
+     * Test of specialize method. Unexpected comparison way is rejected at parse time.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testSpecialize_UnexpectedComparisonWay() {
+
+        Parser parser = new Parser(Map.of());
+
+        assertThatThrownBy(() -> parser.parse("Cmp([a], [b], `=<`)")).isInstanceOf(FormulaParseException.class)
+                .hasMessage("[Compare] Unexpected comparison way. [=<]");
+
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2024, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.formula.impl.function;
+
+import java.util.Map;
+import jp.mydns.projectk.formula.Formula;
+import jp.mydns.projectk.formula.FormulaExecutionException;
+import jp.mydns.projectk.formula.FormulaParseException;
+import jp.mydns.projectk.formula.impl.Numeric;
+import jp.mydns.projectk.formula.parser.Parser;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test of class Div.
+ *
+ * @author riru
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+class DivTest {
+
+    private final Parser parser = new Parser(Map.of());
+
+    /**
+     * Test of calculate method. The arithmetic functions are nested.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testCalculate_Nested() {
+
+        Formula formula = parser.parse("Round(Div(Mul(Sub([price], [discount]), `1.1`), [count], `3`), `2`)");
+
+        assertThat(formula.calculate(Map.of("price", "1000", "discount", "100", "count", "3"))).isEqualTo("330.00");
+        assertThat(formula.calculate(Map.of("price", "1000", "count", "3"))).isNull();
+
+    }
+
+    /**
+     * Test of calculate method. The divisor is zero.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testCalculate_DivisionByZero() {
+
+        Formula formula = parser.parse("Div([a], [b])");
+
+        assertThatThrownBy(() -> formula.calculate(Map.of("a", "1", "b", "0.00")))
+                .isInstanceOf(FormulaExecutionException.class).hasMessage("[Div] Division by zero.");
+
+    }
+
+    /**
+     * Test of divide method.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testDivide() {
+
+        Numeric[] dividends = {Numeric.of(1), Numeric.of(2), null};
+        Numeric[] divisors = {Numeric.of(3), Numeric.of(4), Numeric.of(5)};
+        Numeric[] results = new Numeric[3];
+
+        Div.divide(dividends, divisors, 2, results);
+
+        assertThat(results).containsExactly(Numeric.parse("0.33"), Numeric.parse("0.50"), null);
+
+        Div.divide(dividends, divisors, null, results);
+
+        assertThat(results).containsExactly(Numeric.parse("0.3333333333333333333333333333333333"),
+                Numeric.parse("0.5"), null);
+
+    }
+
+    /**
+     * Test of specialize method. The literal scale is invalid.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testSpecialize_InvalidScale() {
+
+        assertThatThrownBy(() -> parser.parse("Div([a], [b], `two`)")).isInstanceOf(FormulaParseException.class)
+                .hasMessage("[Div] Unexpected scale. [two]");
+
+    }
+}
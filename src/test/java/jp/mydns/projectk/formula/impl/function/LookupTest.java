@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2024, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.formula.impl.function;
+
+import java.util.HashMap;
+import java.util.Map;
+import jp.mydns.projectk.formula.Formula;
+import jp.mydns.projectk.formula.FormulaExecutionException;
+import jp.mydns.projectk.formula.FormulaParseException;
+import jp.mydns.projectk.formula.LookupTable;
+import jp.mydns.projectk.formula.parser.Parser;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test of class Lookup.
+ *
+ * @author riru
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+class LookupTest {
+
+    private final Parser parser = new Parser(Map.of(), Map.of("pref", new MapTable(Map.of("13", "Tokyo"))));
+
+    /**
+     * Test of calculate method.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testCalculate() {
+
+        Formula formula = parser.parse("Lookup(`pref`, [code]) & `/` & Lookup(`pref`, [code], `unknown`)");
+
+        assertThat(formula.calculate(Map.of("code", "13"))).isEqualTo("Tokyo/Tokyo");
+        assertThat(formula.calculate(Map.of("code", "99"))).isNull();
+
+        Map<String, String> inputs = new HashMap<>();
+        inputs.put("code", null);
+
+        assertThat(parser.parse("Lookup(`pref`, [code], `unknown`)").calculate(inputs)).isEqualTo("unknown");
+
+    }
+
+    /**
+     * Test of calculate method. The table name is an input value.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testCalculate_TableNameInput() {
+
+        Formula formula = parser.parse("Lookup([table], `13`)");
+
+        assertThat(formula.calculate(Map.of("table", "pref"))).isEqualTo("Tokyo");
+        assertThatThrownBy(() -> formula.calculate(Map.of("table", "city")))
+                .isInstanceOf(FormulaExecutionException.class);
+
+    }
+
+    /**
+     * Test of specialize method. The literal table name is not registered.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testSpecialize_MissingTable() {
+
+        assertThatThrownBy(() -> parser.parse("Lookup(`city`, [code])")).isInstanceOf(FormulaParseException.class)
+                .hasMessage("[Lookup] Missing table. [city]");
+
+    }
+
+    private record MapTable(Map<String, String> entries) implements LookupTable {
+
+        @Override
+        public String get(String key) {
+            return entries.get(key);
+        }
+
+        @Override
+        public int size() {
+            return entries.size();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2024, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.formula.impl.function;
+
+import java.util.HashMap;
+import java.util.Map;
+import jp.mydns.projectk.formula.Formula;
+import jp.mydns.projectk.formula.impl.Numeric;
+import jp.mydns.projectk.formula.parser.Parser;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test of class Mul.
+ *
+ * @author riru
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+class MulTest {
+
+    private final Parser parser = new Parser(Map.of());
+
+    /**
+     * Test of calculate method.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testCalculate() {
+
+        Formula formula = parser.parse("Mul([a], `2.5`, `-2`)");
+
+        assertThat(formula.calculate(Map.of("a", "3"))).isEqualTo("-15.0");
+
+    }
+
+    /**
+     * Test of calculate method. A {@code null} value results {@code null}.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testCalculate_Null() {
+
+        Formula formula = parser.parse("Mul([a], [b], `2`)");
+
+        assertThat(formula.calculate(Map.of("a", "1"))).isNull();
+        assertThat(formula.calculate(new HashMap<>())).isNull();
+
+    }
+
+    /**
+     * Test of calculate method. The product that overflows {@code long} falls back to the arbitrary precision.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testCalculate_Overflow() {
+
+        Formula formula = parser.parse("Mul([a], `2`)");
+
+        assertThat(formula.calculate(Map.of("a", "9223372036854775807"))).isEqualTo("18446744073709551614");
+
+    }
+
+    /**
+     * Test of multiply method.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testMultiply() {
+
+        Numeric[] multiplicands = {Numeric.of(3), Numeric.of(Long.MAX_VALUE), null};
+        Numeric[] multipliers = {Numeric.parse("0.5"), Numeric.of(2), Numeric.of(3)};
+        Numeric[] results = new Numeric[3];
+
+        Mul.multiply(multiplicands, multipliers, results);
+
+        assertThat(results).containsExactly(Numeric.parse("1.5"), Numeric.parse("18446744073709551614"), null);
+
+    }
+}
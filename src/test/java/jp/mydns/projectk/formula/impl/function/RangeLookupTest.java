@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2024, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.formula.impl.function;
+
+import java.util.List;
+import java.util.Map;
+import jp.mydns.projectk.formula.Formula;
+import jp.mydns.projectk.formula.FormulaParseException;
+import jp.mydns.projectk.formula.LookupTable;
+import jp.mydns.projectk.formula.impl.IntervalRangeTable;
+import jp.mydns.projectk.formula.impl.IntervalRangeTable.Order;
+import jp.mydns.projectk.formula.impl.IntervalRangeTable.Range;
+import jp.mydns.projectk.formula.parser.Parser;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test of class RangeLookup.
+ *
+ * @author riru
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+class RangeLookupTest {
+
+    private final Map<String, LookupTable> tables = Map.of("tax", new IntervalRangeTable(Order.TEXT, List.of(
+            new Range("1989-04-01", "1997-04-01", "3"),
+            new Range("1997-04-01", "2014-04-01", "5"),
+            new Range("2014-04-01", null, "8"))));
+
+    /**
+     * Test of calculate method.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testCalculate() {
+
+        Formula formula = new Parser(Map.of(), tables).parse("RangeLookup(`tax`, [date], `0`) & `%`");
+
+        assertThat(formula.calculate(Map.of("date", "1997-03-31"))).isEqualTo("3%");
+        assertThat(formula.calculate(Map.of("date", "2000-01-01"))).isEqualTo("5%");
+        assertThat(formula.calculate(Map.of("date", "2020-01-01"))).isEqualTo("8%");
+        assertThat(formula.calculate(Map.of("date", "1980-01-01"))).isEqualTo("0%");
+
+    }
+
+    /**
+     * Test of specialize method. The literal table is not a range table.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testSpecialize_NotRangeTable() {
+
+        LookupTable codes = new LookupTable() {
+            @Override
+            public String get(String key) {
+                return null;
+            }
+
+            @Override
+            public int size() {
+                return 0;
+            }
+        };
+
+        Parser parser = new Parser(Map.of(), Map.of("codes", codes));
+
+        assertThatThrownBy(() -> parser.parse("RangeLookup(`codes`, [date])"))
+                .isInstanceOf(FormulaParseException.class).hasMessage("[RangeLookup] Missing range table. [codes]");
+
+    }
+}
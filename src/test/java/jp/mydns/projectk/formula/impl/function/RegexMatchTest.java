@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2024, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.formula.impl.function;
+
+import java.util.Map;
+import jp.mydns.projectk.formula.Formula;
+import jp.mydns.projectk.formula.FormulaExecutionException;
+import jp.mydns.projectk.formula.FormulaParseException;
+import jp.mydns.projectk.formula.parser.Parser;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test of class RegexMatch.
+ *
+ * @author riru
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+class RegexMatchTest {
+
+    private final Parser parser = new Parser(Map.of());
+
+    /**
+     * Test of calculate method.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testCalculate() {
+
+        Formula formula = parser.parse("If(RegexMatch([code], `^[A-Z]{2}\\\\d+$`), `valid`, `invalid`)");
+
+        assertThat(formula.calculate(Map.of("code", "JP123"))).isEqualTo("valid");
+        assertThat(formula.calculate(Map.of("code", "JP123X"))).isEqualTo("invalid");
+        assertThat(formula.calculate(Map.of())).isEqualTo("invalid");
+
+    }
+
+    /**
+     * Test of calculate method. The pattern is an input value.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testCalculate_PatternInput() {
+
+        Formula formula = parser.parse("RegexMatch([value], [regex])");
+
+        assertThat(formula.calculate(Map.of("value", "abc", "regex", "b"))).isEqualTo("true");
+        assertThat(formula.calculate(Map.of("value", "abc", "regex", "^b"))).isEqualTo("false");
+        assertThatThrownBy(() -> formula.calculate(Map.of("value", "abc", "regex", "(")))
+                .isInstanceOf(FormulaExecutionException.class);
+
+    }
+
+    /**
+     * Test of specialize method. The literal pattern is invalid.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testSpecialize_InvalidPattern() {
+
+        assertThatThrownBy(() -> parser.parse("RegexMatch([value], `[a-`)")).isInstanceOf(FormulaParseException.class)
+                .hasMessage("[RegexMatch] Invalid regular expression. [[a-]");
+
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2024, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.formula.impl.function;
+
+import java.util.Map;
+import jp.mydns.projectk.formula.Formula;
+import jp.mydns.projectk.formula.FormulaExecutionException;
+import jp.mydns.projectk.formula.parser.Parser;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test of class RegexReplace.
+ *
+ * @author riru
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+class RegexReplaceTest {
+
+    /**
+     * Test of calculate method.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testCalculate() {
+
+        Formula formula = new Parser(Map.of()).parse("RegexReplace([date], `(\\\\d+)/(\\\\d+)/(\\\\d+)`, `$3-$1-$2`)");
+
+        assertThat(formula.calculate(Map.of("date", "12/31/2024"))).isEqualTo("2024-12-31");
+        assertThat(formula.calculate(Map.of("date", "no date"))).isEqualTo("no date");
+        assertThat(formula.calculate(Map.of())).isNull();
+
+    }
+
+    /**
+     * Test of calculate method. The replacement refers to a missing group.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testCalculate_InvalidReplacement() {
+
+        Formula formula = new Parser(Map.of()).parse("RegexReplace([value], `a`, `$1`)");
+
+        assertThatThrownBy(() -> formula.calculate(Map.of("value", "abc")))
+                .isInstanceOf(FormulaExecutionException.class);
+
+    }
+
+    /**
+     * Test of calculate method. The replacement is {@code null}.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testCalculate_NullReplacement() {
+
+        Formula formula = new Parser(Map.of()).parse("RegexReplace([value], `a`, [replacement])");
+
+        assertThat(formula.calculate(Map.of("value", "abc"))).isNull();
+        assertThat(formula.calculate(Map.of("value", "abc", "replacement", "x"))).isEqualTo("xbc");
+
+    }
+
+    /**
+     * Test of calculate method. The replacement ends with the escape character.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testCalculate_DanglingEscape() {
+
+        Formula formula = new Parser(Map.of()).parse("RegexReplace([value], `a`, [replacement])");
+
+        assertThatThrownBy(() -> formula.calculate(Map.of("value", "abc", "replacement", "\\")))
+                .isInstanceOf(FormulaExecutionException.class)
+                .hasMessage("[RegexReplace] Invalid replacement. [\\]");
+
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2024, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.formula.impl.function;
+
+import java.util.Map;
+import jp.mydns.projectk.formula.Formula;
+import jp.mydns.projectk.formula.FormulaExecutionException;
+import jp.mydns.projectk.formula.FormulaParseException;
+import jp.mydns.projectk.formula.impl.Numeric;
+import jp.mydns.projectk.formula.parser.Parser;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test of class Round.
+ *
+ * @author riru
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+class RoundTest {
+
+    private final Parser parser = new Parser(Map.of());
+
+    /**
+     * Test of calculate method.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testCalculate() {
+
+        assertThat(parser.parse("Round([a], `1`)").calculate(Map.of("a", "1.25"))).isEqualTo("1.3");
+        assertThat(parser.parse("Round([a], `-2`)").calculate(Map.of("a", "1250"))).isEqualTo("1300");
+        assertThat(parser.parse("Round([a], [s])").calculate(Map.of("a", "-2.5", "s", "0"))).isEqualTo("-3");
+
+    }
+
+    /**
+     * Test of calculate method. A {@code null} value results {@code null}.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testCalculate_Null() {
+        assertThat(parser.parse("Round([a], `2`)").calculate(Map.of())).isNull();
+    }
+
+    /**
+     * Test of calculate method. The value that overflows {@code long} falls back to the arbitrary precision.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testCalculate_Overflow() {
+
+        Formula formula = parser.parse("Round([a], `0`)");
+
+        assertThat(formula.calculate(Map.of("a", "9223372036854775807.5"))).isEqualTo("9223372036854775808");
+
+    }
+
+    /**
+     * Test of calculate method. The scale is invalid.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testCalculate_InvalidScale() {
+
+        assertThatThrownBy(() -> parser.parse("Round([a], `x`)")).isInstanceOf(FormulaParseException.class)
+                .hasMessage("[Round] Unexpected scale. [x]");
+        assertThatThrownBy(() -> parser.parse("Round([a], [s])").calculate(Map.of("a", "1", "s", "1.5")))
+                .isInstanceOf(FormulaExecutionException.class);
+
+    }
+
+    /**
+     * Test of round method.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testRound() {
+
+        Numeric[] values = {Numeric.parse("1.005"), Numeric.parse("9223372036854775807.5"), null};
+        Numeric[] results = new Numeric[3];
+
+        Round.round(values, 2, results);
+
+        assertThat(results).containsExactly(Numeric.parse("1.01"), Numeric.parse("9223372036854775807.50"), null);
+
+    }
+}
@@ -97,4 +97,25 @@ class SubStTest {
 
     }
 
+    /**
+     * Test of calculate method. The same value is sliced several times, and contains unpaired surrogate.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testCalculate_SameValueSlicedRepeatedly() {
+
+        Argument a1 = Argument.of("ab𠀋c\uD800d𡈽");
+
+        SubSt instance = new SubSt();
+
+        assertThat(instance.calculate(a1, Argument.of("4"), Argument.of("2"))).isEqualTo("\uD800d");
+        assertThat(instance.calculate(a1, Argument.of("1"), Argument.of("2"))).isEqualTo("b𠀋");
+        assertThat(instance.calculate(a1, Argument.of("6"))).isEqualTo("𡈽");
+        assertThat(instance.calculate(a1, Argument.of("-1"), Argument.of("3"))).isEqualTo("ab𠀋");
+        assertThat(instance.calculate(a1, Argument.of("7"))).isEqualTo("");
+        assertThat(instance.calculate(a1, Argument.of("2"), Argument.of("0"))).isEqualTo("");
+
+    }
+
 }
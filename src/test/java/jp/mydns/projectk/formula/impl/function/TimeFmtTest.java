@@ -25,8 +25,15 @@
  */
 package jp.mydns.projectk.formula.impl.function;
 
+import java.time.LocalDateTime;
+import java.util.Map;
+import jp.mydns.projectk.formula.Formula;
+import jp.mydns.projectk.formula.FormulaExecutionException;
 import jp.mydns.projectk.formula.Function;
+import jp.mydns.projectk.formula.impl.TemporalArgument;
+import jp.mydns.projectk.formula.parser.Parser;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import org.junit.jupiter.api.Test;
 
 /**
@@ -58,4 +65,93 @@ class TimeFmtTest {
 
     }
 
+    /**
+     * Test of calculate method. With formats specialized in advance.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testCalculate_Specialized() {
+
+        Function.Argument a1 = Function.Argument.of("2999/12/31 00:00:00");
+        Function.Argument a2 = Function.Argument.of("uuuu/MM/dd HH:mm:ss");
+        Function.Argument a3 = Function.Argument.of("uuuuMMdd");
+
+        TimeFmt instance = new TimeFmt().specialize(Map.of(1, "uuuu/MM/dd HH:mm:ss", 2, "uuuuMMdd"));
+
+        String result = instance.calculate(a1, a2, a3);
+
+        assertThat(result).isEqualTo("29991231");
+
+    }
+
+    /**
+     * Test of calculate method. The source datetime is a result of the temporal functions.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testCalculate_TemporalArgument() {
+
+        Parser parser = new Parser(Map.of("TimeAdd", TimeAdd::new, "TzCnv", TzCnv::new, "TimeFmt", TimeFmt::new));
+
+        Formula formula = parser.parse("TimeFmt(TzCnv(TimeAdd([ts], `PT9H`), `UTC`, `Asia/Tokyo`),"
+                + " `uuuu-MM-dd'T'HH:mm:ss`, `uuuuMMddHHmmss`)");
+        Formula fraction = parser.parse("TimeFmt(TimeAdd([ts], `PT0.5S`), `uuuu-MM-dd'T'HH:mm:ss`, `uuuuMMdd`)");
+
+        assertThat(formula.calculate(Map.of("ts", "2024-12-31T06:00:00"))).isEqualTo("20250101000000");
+        assertThatThrownBy(() -> fraction.calculate(Map.of("ts", "2024-12-31T06:00:00")))
+                .isInstanceOf(FormulaExecutionException.class);
+
+    }
+
+
+    /**
+     * Test of execute method. A datetime argument is received as {@code LocalDateTime} without going through the
+     * string, even though this function memorizes results.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testExecute_TemporalArgument() {
+
+        TemporalArgument a1 = new TemporalArgument() {
+
+            @Override
+            public LocalDateTime resolveLocalDateTime() {
+                return LocalDateTime.of(2999, 12, 31, 23, 59, 58);
+            }
+
+            @Override
+            public String resolve() {
+                throw new AssertionError("Resolved through the string.");
+            }
+        };
+        Function.Argument a2 = Function.Argument.of("uuuu-MM-dd'T'HH:mm:ss");
+        Function.Argument a3 = Function.Argument.of("uuuu/MM/dd HH:mm:ss");
+
+        TimeFmt instance = new TimeFmt();
+
+        assertThat(instance.execute(a1, a2, a3)).isEqualTo("2999/12/31 23:59:58");
+        assertThat(instance.execute(a1, a2, a3)).isEqualTo("2999/12/31 23:59:58");
+
+    }
+
+    /**
+     * Test of execute method. The nested datetime functions pass {@code LocalDateTime} to each other.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testExecute_Nested() {
+
+        Parser parser = new Parser(Map.of("TimeFmt", TimeFmt::new, "TzCnv", TzCnv::new, "TimeAdd", TimeAdd::new));
+        Formula formula = parser.parse("TimeFmt(TzCnv(TimeAdd([ts], `P1D`), `UTC`, `Asia/Tokyo`),"
+                + " `uuuu-MM-dd'T'HH:mm:ss`, `uuuu/MM/dd HH:mm`)");
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(formula.calculate(Map.of("ts", "2024-02-28T20:00:00"))).isEqualTo("2024/03/01 05:00");
+        }
+
+    }
 }
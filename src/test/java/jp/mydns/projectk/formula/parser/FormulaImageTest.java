@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2024, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.formula.parser;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import jp.mydns.projectk.formula.Formula;
+import jp.mydns.projectk.formula.FormulaParseException;
+import jp.mydns.projectk.formula.impl.function.TzCnv;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test of class FormulaImage.
+ *
+ * @author riru
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+class FormulaImageTest {
+
+    /**
+     * Test of write and open method.
+     *
+     * @throws IOException if an I/O error occurs
+     * @since 1.0.0
+     */
+    @Test
+    void testWriteAndOpen() throws IOException {
+
+        Parser parser = new Parser(Map.of("TzCnv", TzCnv::new));
+
+        Map<String, Formula> formulas = new HashMap<>();
+        formulas.put("greeting", parser.parse("`Hello, ` & IfNull([name], `guest`) & `!`"));
+        formulas.put("price", parser.parse("Round(Mul([price], `1.1`), `0`)"));
+        formulas.put("kind", parser.parse("Case([kind], `a`, `A`, `b`, `B`, `-`)"));
+        formulas.put("local", parser.parse("TzCnv([at], `UTC`, `Asia/Tokyo`)"));
+        formulas.put("\u5F0F", parser.parse("regexReplace([code], `[^0-9]`, ``)"));
+
+        Path path = Files.createTempFile("formulas", ".img");
+
+        try {
+
+            FormulaImage.write(path, formulas, parser);
+
+            FormulaImage instance = FormulaImage.open(path, parser);
+
+            assertThat(instance.size()).isEqualTo(5);
+            assertThat(instance.getNames()).containsExactly("greeting", "kind", "local", "price", "\u5F0F");
+
+            Map<String, String> inputs = Map.of("name", "taro", "price", "1000", "kind", "b",
+                    "at", "2023-01-01T00:00:00", "code", "A-12-3");
+
+            formulas.forEach((k, v) -> assertThat(instance.get(k).calculate(inputs)).isEqualTo(v.calculate(inputs)));
+
+            assertThat(instance.get("greeting")).isSameAs(instance.get("greeting"));
+            assertThat(instance.get("missing")).isNull();
+
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    /**
+     * Test of write method. Rewriting the file of an open image does not break the image.
+     *
+     * @throws IOException if an I/O error occurs
+     * @since 1.0.0
+     */
+    @Test
+    void testWrite_OpenImage() throws IOException {
+
+        Parser parser = new Parser(Map.of());
+        Path path = Files.createTempFile("formulas", ".img");
+
+        try {
+
+            Map<String, Formula> formulas = new HashMap<>();
+
+            for (int i = 0; i < 100; i++) {
+                formulas.put("f" + i, parser.parse("`old-%d-` & [name]".formatted(i)));
+            }
+
+            FormulaImage.write(path, formulas, parser);
+
+            FormulaImage old = FormulaImage.open(path, parser);
+
+            FormulaImage.write(path, Map.of("f0", parser.parse("`new-` & [name]")), parser);
+
+            assertThat(old.size()).isEqualTo(100);
+            assertThat(old.get("f99").calculate(Map.of("name", "x"))).isEqualTo("old-99-x");
+
+            FormulaImage renewed = FormulaImage.open(path, parser);
+
+            assertThat(renewed.size()).isEqualTo(1);
+            assertThat(renewed.get("f0").calculate(Map.of("name", "x"))).isEqualTo("new-x");
+
+            try (Stream<Path> files = Files.list(path.getParent())) {
+                assertThat(files.filter(f -> f.getFileName().toString().startsWith(path.getFileName() + "."))
+                        .toList()).isEmpty();
+            }
+
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    /**
+     * Test of get method. The function is missing from the parser that opens the image.
+     *
+     * @throws IOException if an I/O error occurs
+     * @since 1.0.0
+     */
+    @Test
+    void testGet_MissingFunction() throws IOException {
+
+        Parser parser = new Parser(Map.of("TzCnv", TzCnv::new));
+        Path path = Files.createTempFile("formulas", ".img");
+
+        try {
+
+            FormulaImage.write(path, Map.of("local", parser.parse("TzCnv([at], `UTC`, `Asia/Tokyo`)")), parser);
+
+            FormulaImage instance = FormulaImage.open(path, new Parser(Map.of()));
+
+            assertThatThrownBy(() -> instance.get("local")).isInstanceOf(FormulaParseException.class)
+                    .hasMessage("Missing function. [TzCnv]");
+
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    /**
+     * Test of write method. The function is not registered to the parser.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testWrite_UnregisteredFunction() {
+
+        Formula formula = new Parser(Map.of("TzCnv", TzCnv::new)).parse("TzCnv([at], `UTC`, `Asia/Tokyo`)");
+
+        assertThatThrownBy(() -> FormulaImage.write(Path.of("unused"), Map.of("f", formula), new Parser(Map.of())))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(Files.exists(Path.of("unused"))).isFalse();
+
+    }
+
+    /**
+     * Test of open method. The file is not an image file.
+     *
+     * @throws IOException if an I/O error occurs
+     * @since 1.0.0
+     */
+    @Test
+    void testOpen_NotImage() throws IOException {
+
+        Path path = Files.createTempFile("formulas", ".img");
+
+        try {
+
+            Files.write(path, List.of("`a` & [b]"));
+
+            assertThatThrownBy(() -> FormulaImage.open(path, new Parser(Map.of()))).isInstanceOf(IOException.class);
+
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2024, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.formula.parser;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+import jp.mydns.projectk.formula.Function;
+import jp.mydns.projectk.formula.impl.AbstractFunction;
+import jp.mydns.projectk.formula.impl.ArgdefImpl;
+import jp.mydns.projectk.formula.impl.ArgumentSchemeImpl;
+import jp.mydns.projectk.formula.impl.function.TzCnv;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test of class Parser.
+ *
+ * @author riru
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+class ParserTest {
+
+    /**
+     * Test of constructor. The external function is registered with its name.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testConstructor() {
+
+        Parser instance = new Parser(Map.of("TzCnv", TzCnv::new));
+
+        assertThat(instance.parse("TzCnv(`2024-01-01T00:00:00`, `UTC`, `Asia/Tokyo`)").calculate(Map.of()))
+                .isEqualTo("2024-01-01T09:00:00");
+
+    }
+
+    /**
+     * Test of constructor. The external function overrides the built-in function of the same name.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testConstructor_OverrideBuiltIn() {
+
+        Parser instance = new Parser(Map.of("ADD", Concat::new));
+
+        assertThat(instance.parse("Add(`1`, `2`)").calculate(Map.of())).isEqualTo("12");
+
+    }
+
+    /**
+     * Test of constructor. The external function names that duplicate ignoring case are rejected.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testConstructor_DuplicateName() {
+
+        Map<String, Supplier<? extends Function>> externals = new TreeMap<>();
+        externals.put("Hello", Concat::new);
+        externals.put("HELLO", Concat::new);
+
+        assertThatThrownBy(() -> new Parser(externals))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Duplicate function name. [HELLO] [Hello]");
+
+    }
+
+    /**
+     * Function that concatenates the arguments.
+     */
+    public static class Concat extends AbstractFunction {
+
+        @Override
+        protected String calculate(Argument... args) {
+            return args[0].resolve() + args[1].resolve();
+        }
+
+        @Override
+        public ArgumentScheme getArgumentScheme() {
+            return new ArgumentSchemeImpl(new ArgdefImpl("Left", "A value."), new ArgdefImpl("Right", "A value."));
+        }
+    }
+}
@@ -0,0 +1,299 @@
+/*
+ * Copyright (c) 2024, Project-K
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package jp.mydns.projectk.formula.processor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import jp.mydns.projectk.formula.Function;
+import jp.mydns.projectk.formula.impl.function.InternalFunctions;
+import jp.mydns.projectk.formula.parser.Parser;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test of class FormulaFunctionProcessor.
+ *
+ * @author riru
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+class FormulaFunctionProcessorTest {
+
+    private static final String HELLO = """
+            package sample;
+
+            @jp.mydns.projectk.formula.FormulaFunction("Hello")
+            public class Hello extends jp.mydns.projectk.formula.impl.AbstractFunction {
+
+                @Override
+                protected String calculate(Argument... args) {
+                    return "Hello, " + args[0].resolve();
+                }
+
+                @Override
+                public ArgumentScheme getArgumentScheme() {
+                    return new jp.mydns.projectk.formula.impl.ArgumentSchemeImpl(
+                            new jp.mydns.projectk.formula.impl.ArgdefImpl("name", "Name to greet."));
+                }
+            }
+            """;
+
+    private static final String HELLO_NESTED = """
+            package sample;
+
+            public class Functions {
+
+                @jp.mydns.projectk.formula.FormulaFunction("%s")
+                public static class Hello2 extends Hello {
+                    %s
+                }
+            }
+            """;
+
+    /**
+     * Test of process method. The generated registry can be given to the parser.
+     *
+     * @throws Exception if an error occurs while compiling or loading the generated classes
+     * @since 1.0.0
+     */
+    @Test
+    void testProcess() throws Exception {
+
+        Path dir = Files.createTempDirectory("processor");
+
+        try {
+
+            Compilation result = compile(dir, HELLO, HELLO_NESTED.formatted("Bye", ""));
+
+            assertThat(result.status()).isEqualTo(0);
+            assertThat(Files.exists(dir.resolve("sample/SampleFunctions.java"))).isTrue();
+
+            try (URLClassLoader loader = new URLClassLoader(new URL[]{dir.toUri().toURL()}, getClass()
+                    .getClassLoader())) {
+
+                Class<?> registry = loader.loadClass("sample.SampleFunctions");
+
+                assertThat(registry.getField("NAMES").get(null)).isEqualTo("Bye,Hello");
+
+                @SuppressWarnings("unchecked")
+                Map<String, Supplier<? extends Function>> suppliers
+                        = (Map<String, Supplier<? extends Function>>) registry.getField("SUPPLIERS").get(null);
+
+                assertThat(suppliers.keySet()).containsExactly("Bye", "Hello");
+                assertThat(new Parser(suppliers).parse("HELLO(`taro`) & `/` & Bye(`jiro`)").calculate(Map.of()))
+                        .isEqualTo("Hello, taro/Hello, jiro");
+
+                Object scheme = registry.getMethod("getArgumentScheme", String.class).invoke(null, "hello");
+
+                assertThat(scheme).isNotNull();
+                assertThat(registry.getMethod("getArgumentScheme", String.class).invoke(null, "Hello"))
+                        .isSameAs(scheme);
+
+            }
+
+        } finally {
+            delete(dir);
+        }
+
+    }
+
+    /**
+     * Test of process method. The names are compared ignoring case.
+     *
+     * @throws IOException if an I/O error occurs
+     * @since 1.0.0
+     */
+    @Test
+    void testProcess_DuplicateName() throws IOException {
+
+        Path dir = Files.createTempDirectory("processor");
+
+        try {
+
+            Compilation result = compile(dir, HELLO, HELLO_NESTED.formatted("HELLO", ""));
+
+            assertThat(result.status()).isNotEqualTo(0);
+            assertThat(result.diagnostics()).contains("Duplicate function name. [HELLO] is also declared by");
+
+        } finally {
+            delete(dir);
+        }
+
+    }
+
+    /**
+     * Test of process method. A function cannot take the name of a function that the parser registers itself.
+     *
+     * @throws IOException if an I/O error occurs
+     * @since 1.0.0
+     */
+    @Test
+    void testProcess_ReservedName() throws IOException {
+
+        Path dir = Files.createTempDirectory("processor");
+
+        try {
+
+            assertThat(compile(dir, HELLO, HELLO_NESTED.formatted("regexMATCH", "")).diagnostics())
+                    .contains("Function name collides with a function of the parser. [regexMATCH]");
+            assertThat(compile(dir, HELLO, HELLO_NESTED.formatted("Lookup", "")).diagnostics())
+                    .contains("Function name collides with a function of the parser. [Lookup]");
+
+        } finally {
+            delete(dir);
+        }
+
+    }
+
+    /**
+     * Test of process method. The invalid declarations are reported.
+     *
+     * @throws IOException if an I/O error occurs
+     * @since 1.0.0
+     */
+    @Test
+    void testProcess_Invalid() throws IOException {
+
+        Path dir = Files.createTempDirectory("processor");
+
+        try {
+
+            assertThat(compile(dir, HELLO, HELLO_NESTED.formatted("Bye", "private Hello2() {}")).diagnostics())
+                    .contains("Function must have a public constructor without parameters.");
+            assertThat(compile(dir, HELLO, HELLO_NESTED.formatted("By(e)", "")).diagnostics())
+                    .contains("Invalid function name. [By(e)]");
+            assertThat(compile(dir, HELLO.replace("public class", "class")).diagnostics())
+                    .contains("Function must be a public class.");
+            assertThat(compile(dir, HELLO.replace("public class", "public abstract class")).diagnostics())
+                    .contains("Function must not be abstract.");
+
+        } finally {
+            delete(dir);
+        }
+
+    }
+
+    /**
+     * Test that the parser registers the internal functions from the generated registry.
+     *
+     * @since 1.0.0
+     */
+    @Test
+    void testInternalFunctions() {
+
+        assertThat(InternalFunctions.SUPPLIERS.keySet()).containsExactly("Add", "And", "Case", "Cmp", "Div", "Eq", "If",
+                "IfNull", "IsNull", "Mul", "NoNull", "Not", "Or", "RegexExtract", "RegexMatch", "RegexReplace", "Round",
+                "Sub");
+        assertThat(InternalFunctions.getArgumentScheme("add")).isSameAs(InternalFunctions.getArgumentScheme("ADD"));
+        assertThat(new Parser(Map.of()).parse("Add(`1`, `2`)").calculate(Map.of())).isEqualTo("3");
+
+    }
+
+    /**
+     * Test that the generated registry contains all of the annotated internal functions. A registry generated by a
+     * partial compilation lacks some of them.
+     *
+     * @throws IOException if an I/O error occurs
+     * @since 1.0.0
+     */
+    @Test
+    void testInternalFunctions_Complete() throws IOException {
+
+        Pattern annotation = Pattern.compile("^@FormulaFunction\\(\"([^\"]+)\"\\)$", Pattern.MULTILINE);
+        Map<String, String> declared = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+
+        try (Stream<Path> files = Files.list(Path.of("src/main/java/jp/mydns/projectk/formula/impl/function"))) {
+            for (Path file : files.filter(f -> f.toString().endsWith(".java")).toList()) {
+
+                Matcher matcher = annotation.matcher(Files.readString(file));
+
+                if (matcher.find()) {
+                    declared.put(matcher.group(1), file.getFileName().toString().replace(".java", ""));
+                }
+
+            }
+        }
+
+        assertThat(declared.isEmpty()).isFalse();
+        assertThat(List.copyOf(InternalFunctions.SUPPLIERS.keySet())).isEqualTo(List.copyOf(declared.keySet()));
+        assertThat(InternalFunctions.NAMES).isEqualTo(String.join(",", declared.keySet()));
+
+        declared.forEach((name, className) -> assertThat(InternalFunctions.SUPPLIERS.get(name).get().getClass()
+                .getSimpleName()).isEqualTo(className));
+
+    }
+
+    private Compilation compile(Path dir, String... sources) throws IOException {
+
+        List<String> arguments = new ArrayList<>(List.of("-d", dir.toString(), "-s", dir.toString(), "-cp",
+                System.getProperty("java.class.path"), "-processor", FormulaFunctionProcessor.class.getName(),
+                "-Aformula.registry=sample.SampleFunctions"));
+
+        for (int i = 0; i < sources.length; i++) {
+            Path file = dir.resolve("src" + i).resolve(sources[i].contains("class Functions") ? "Functions.java"
+                    : "Hello.java");
+            Files.createDirectories(file.getParent());
+            Files.writeString(file, sources[i]);
+            arguments.add(file.toString());
+        }
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        int status = compiler.run(null, null, err, arguments.toArray(String[]::new));
+
+        return new Compilation(status, err.toString(StandardCharsets.UTF_8));
+
+    }
+
+    private static void delete(Path dir) throws IOException {
+        try (Stream<Path> s = Files.walk(dir)) {
+            for (Path p : s.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(p);
+            }
+        }
+    }
+
+    private record Compilation(int status, String diagnostics) {
+
+    }
+}